@@ -0,0 +1,240 @@
+package com.example.carins.concurrent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs the independent reads behind one response side by side, each on its own virtual thread, shaped
+ * like {@code StructuredTaskScope.ShutdownOnFailure} (still a preview API in Java 21): {@link #fork} the
+ * reads, {@link #join}, then take the results. The first read to fail or to overrun its timeout cancels
+ * the others and {@code join} rethrows its exception at once; an overrun becomes
+ * {@link CompositeReadTimeoutException}. Closing the scope cancels whatever has not finished.
+ *
+ * <p>Cancelled reads are interrupted, so one waiting for a pooled connection, a coalesced result or reads of
+ * its own gives up instead of holding on to what it has; a cancelled read that has not started yet is
+ * skipped. The file database must therefore sit on an interrupt-safe file system, see the prod profile.
+ *
+ * <p>At most {@code maxParallel} reads of a scope run at once, the others wait their turn (their timeout
+ * runs meanwhile), and a scope opened inside a read runs its reads inline on that read's thread. A request
+ * therefore holds at most {@code maxParallel} connections for its reads, however deep they nest.
+ *
+ * <p>{@code decorator} wraps each read on the forking thread, which is where thread-bound context (the
+ * routing pin, for example) is captured. A {@linkplain #sequential sequential} scope runs each read inline
+ * as it is forked, without timeouts. Only the thread that opened a scope may use it.
+ */
+public final class CompositeRead implements AutoCloseable {
+
+    private static final ScheduledExecutorService TIMEOUTS = timeouts();
+    // set on the threads running the reads of a concurrent scope
+    private static final ThreadLocal<Boolean> IN_READ = new ThreadLocal<>();
+
+    private final String name;
+    private final Duration timeout;
+    private final UnaryOperator<Runnable> decorator;
+    private final boolean concurrent;
+    private final Semaphore permits;
+    private final Thread owner = Thread.currentThread();
+    private final List<Fork<?>> forks = new CopyOnWriteArrayList<>();
+    // completed exceptionally by the first failure, never normally
+    private final CompletableFuture<Void> failure = new CompletableFuture<>();
+    private boolean joined;
+
+    private CompositeRead(String name, Duration timeout, UnaryOperator<Runnable> decorator, boolean concurrent,
+                          int maxParallel) {
+        this.name = name;
+        this.timeout = timeout;
+        this.decorator = decorator;
+        this.concurrent = concurrent;
+        this.permits = new Semaphore(maxParallel);
+    }
+
+    /** A scope whose reads run concurrently, each allowed {@code timeout} unless forked with its own. */
+    public static CompositeRead open(String name, Duration timeout, UnaryOperator<Runnable> decorator) {
+        return open(name, timeout, Integer.MAX_VALUE, decorator);
+    }
+
+    /** As {@link #open(String, Duration, UnaryOperator)}, running at most {@code maxParallel} reads at once. */
+    public static CompositeRead open(String name, Duration timeout, int maxParallel, UnaryOperator<Runnable> decorator) {
+        if (Boolean.TRUE.equals(IN_READ.get())) {
+            return sequential(name, decorator);
+        }
+        return new CompositeRead(name, timeout, decorator, true, maxParallel);
+    }
+
+    public static CompositeRead sequential(String name, UnaryOperator<Runnable> decorator) {
+        return new CompositeRead(name, Duration.ZERO, decorator, false, Integer.MAX_VALUE);
+    }
+
+    public <T> Supplier<T> fork(String read, Supplier<T> task) {
+        return fork(read, timeout, task);
+    }
+
+    /** Starts {@code task}; the returned supplier yields its result once {@link #join} has returned. */
+    public <T> Supplier<T> fork(String read, Duration timeout, Supplier<T> task) {
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("Composite read " + name + " is owned by " + owner);
+        }
+        if (joined) {
+            throw new IllegalStateException("Composite read " + name + " is already joined");
+        }
+        Fork<T> fork = new Fork<>(read);
+        Runnable body = decorator.apply(() -> fork.run(task));
+        forks.add(fork);
+        if (!concurrent) {
+            body.run();
+            fork.result.join();
+            return fork;
+        }
+        if (failure.isDone()) {
+            return fork;
+        }
+        Thread thread = Thread.ofVirtual().name(name + "-" + read).unstarted(() -> runTurn(body));
+        fork.thread = thread;
+        fork.timer = TIMEOUTS.schedule(() -> {
+            if (!fork.result.isDone()) {
+                fail(new CompositeReadTimeoutException(
+                        "Read '" + read + "' of " + name + " timed out after " + timeout.toMillis() + " ms"));
+            }
+        }, timeout.toNanos(), TimeUnit.NANOSECONDS);
+        thread.start();
+        return fork;
+    }
+
+    /** A fork that only has to succeed, e.g. an existence check whose failure should cancel the rest. */
+    public void check(String read, Runnable task) {
+        fork(read, () -> {
+            task.run();
+            return Boolean.TRUE;
+        });
+    }
+
+    /** Waits until every read succeeded, or rethrows the first failure once the others are cancelled. */
+    public void join() {
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("Composite read " + name + " is owned by " + owner);
+        }
+        joined = true;
+        CompletableFuture<?>[] results = forks.stream().map(f -> f.result).toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(results), failure).get();
+        } catch (ExecutionException ignored) {
+            // a failed read, reported through failure below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(new CompositeReadTimeoutException("Interrupted while waiting for " + name));
+        }
+        if (failure.isCompletedExceptionally()) {
+            throw rethrow(failure.exceptionNow());
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+    }
+
+    private void runTurn(Runnable body) {
+        IN_READ.set(Boolean.TRUE);
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            return; // cancelled while waiting its turn
+        }
+        try {
+            body.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void fail(Throwable cause) {
+        if (failure.completeExceptionally(cause)) {
+            cancelAll();
+        }
+    }
+
+    private void cancelAll() {
+        for (Fork<?> f : forks) {
+            ScheduledFuture<?> t = f.timer;
+            if (t != null) {
+                t.cancel(false);
+            }
+            if (f.result.cancel(false)) {
+                Thread running = f.thread;
+                if (running != null) {
+                    running.interrupt();
+                }
+            }
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException re) throw re;
+        if (cause instanceof Error err) throw err;
+        throw new IllegalStateException(cause);
+    }
+
+    private static ScheduledExecutorService timeouts() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "composite-read-timeouts");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return Executors.unconfigurableScheduledExecutorService(executor);
+    }
+
+    private final class Fork<T> implements Supplier<T> {
+        final String read;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        volatile ScheduledFuture<?> timer;
+        volatile Thread thread;
+
+        Fork(String read) {
+            this.read = read;
+        }
+
+        void run(Supplier<T> task) {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                T value = task.get();
+                result.complete(value);
+            } catch (RuntimeException | Error ex) {
+                // record the failure before the result, so join never sees the result first
+                if (concurrent) {
+                    fail(ex);
+                    result.completeExceptionally(ex);
+                } else {
+                    result.completeExceptionally(ex);
+                    throw ex;
+                }
+            } finally {
+                ScheduledFuture<?> t = timer;
+                if (t != null) {
+                    t.cancel(false);
+                }
+            }
+        }
+
+        @Override
+        public T get() {
+            if (!joined || !result.isDone() || result.isCompletedExceptionally()) {
+                throw new IllegalStateException("Read '" + read + "' of " + name + " has no result");
+            }
+            return result.getNow(null);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.carins.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one computation. The first caller (leader)
+ * runs the loader on its own thread; callers arriving while it runs wait for the same result,
+ * or fail with {@link SingleFlightTimeoutException} after {@code timeout}.
+ * Nothing is cached: once the leader finishes, the next call starts a fresh computation.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    public SingleFlight(String name, MeterRegistry registry) {
+        this.leaders = Counter.builder("carins.coalescing.calls").tag("flight", name).tag("role", "leader").register(registry);
+        this.followers = Counter.builder("carins.coalescing.calls").tag("flight", name).tag("role", "follower").register(registry);
+        Gauge.builder("carins.coalescing.in_flight", inFlight, ConcurrentHashMap::size).tag("flight", name).register(registry);
+        Gauge.builder("carins.coalescing.ratio", this, SingleFlight::coalescingRatio).tag("flight", name).register(registry);
+    }
+
+    public V execute(K key, Supplier<V> loader, Duration timeout) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            followers.increment();
+            return await(existing, timeout);
+        }
+        leaders.increment();
+        try {
+            V value = loader.get();
+            inFlight.remove(key, mine);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /** Share of calls that were served by someone else's computation. */
+    public double coalescingRatio() {
+        double shared = followers.count();
+        double total = shared + leaders.count();
+        return total == 0 ? 0.0 : shared / total;
+    }
+
+    private static <V> V await(CompletableFuture<V> future, Duration timeout) {
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException ex) {
+            throw new SingleFlightTimeoutException("Timed out after " + timeout.toMillis() + " ms waiting for a shared read");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SingleFlightTimeoutException("Interrupted while waiting for a shared read");
+        }
+    }
+}
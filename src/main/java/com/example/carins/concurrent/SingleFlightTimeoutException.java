@@ -0,0 +1,10 @@
+package com.example.carins.concurrent;
+
+import com.example.carins.exception.ApiException;
+import org.springframework.http.HttpStatus;
+
+public class SingleFlightTimeoutException extends ApiException {
+    public SingleFlightTimeoutException(String message) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, message);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.carins.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrent map whose entries live {@code ttl} from the moment they are put, holding at most
+ * {@code maxEntries}. Every entry has the same lifetime, so put order is expiry order: each put drops
+ * expired entries and, past the bound, the oldest live ones from the head of a queue, in O(1) per entry.
+ * Reads never block and skip expired entries. Replacing a key's value restarts its lifetime.
+ */
+public class TtlCache<K, V> {
+
+    private record Entry<K, V>(K key, V value, long expiresAt) {}
+
+    private final ConcurrentHashMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry<K, V>> order = new ConcurrentLinkedQueue<>();
+    // entries in the queue, replaced ones included until they reach its head
+    private final AtomicInteger queued = new AtomicInteger();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    public TtlCache(Duration ttl, int maxEntries) {
+        this(ttl, maxEntries, System::nanoTime);
+    }
+
+    TtlCache(Duration ttl, int maxEntries, LongSupplier clock) {
+        if (ttl.isNegative() || ttl.isZero() || maxEntries <= 0) {
+            throw new IllegalArgumentException("ttl and maxEntries must be positive");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    public V get(K key) {
+        Entry<K, V> e = entries.get(key);
+        if (e == null) {
+            return null;
+        }
+        if (clock.getAsLong() - e.expiresAt() >= 0) {
+            entries.remove(key, e);
+            return null;
+        }
+        return e.value();
+    }
+
+    public void put(K key, V value) {
+        Entry<K, V> e = new Entry<>(key, value, clock.getAsLong() + ttlNanos);
+        entries.put(key, e);
+        order.add(e);
+        queued.incrementAndGet();
+        evict();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Drops expired entries without waiting for the next put. */
+    public void evictExpired() {
+        evict();
+    }
+
+    private void evict() {
+        long now = clock.getAsLong();
+        Entry<K, V> head;
+        while ((head = order.peek()) != null) {
+            if (now - head.expiresAt() < 0 && queued.get() <= maxEntries) {
+                return;
+            }
+            // another thread may be evicting the same head
+            if (order.remove(head)) {
+                queued.decrementAndGet();
+                entries.remove(head.key(), head);
+            }
+        }
+    }
+}
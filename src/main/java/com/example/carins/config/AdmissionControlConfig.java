@@ -0,0 +1,65 @@
+package com.example.carins.config;
+
+import com.example.carins.web.admission.AdmissionControlFilter;
+import com.example.carins.web.admission.AdmissionControlFilter.AdmissionProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Registers {@link AdmissionControlFilter} for the {@code /api} endpoints only, so health checks
+ * and diagnostics are never shed. Off by default, the prod profile turns it on.
+ *
+ * <p>An admitted request can hold up to {@code carins.composite-reads.max-parallel} connections at once, so
+ * the concurrency limit never goes above {@code pool-size} divided by that: past it, requests would only
+ * queue on the pool, which is what the limit exists to prevent.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "carins.admission", name = "enabled", havingValue = "true")
+public class AdmissionControlConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControlConfig.class);
+
+    @Bean
+    public AdmissionControlFilter admissionControlFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry registry,
+            @Value("${carins.admission.rate-per-second:50}") double ratePerSecond,
+            @Value("${carins.admission.burst:100}") int burst,
+            @Value("${carins.admission.max-clients:100000}") int maxClients,
+            @Value("${carins.admission.initial-limit:16}") int initialLimit,
+            @Value("${carins.admission.min-limit:4}") int minLimit,
+            @Value("${carins.admission.max-limit:64}") int maxLimit,
+            @Value("${carins.admission.target-latency:PT0.1S}") Duration targetLatency,
+            @Value("${carins.admission.api-keys:}") Set<String> apiKeys,
+            @Value("${carins.admission.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+            @Value("${carins.composite-reads.max-parallel:2}") int connectionsPerRequest) {
+        int connectionLimit = Math.max(minLimit, poolSize / connectionsPerRequest);
+        if (maxLimit > connectionLimit) {
+            log.info("Admission limit capped at {}: {} connections, up to {} per request",
+                    connectionLimit, poolSize, connectionsPerRequest);
+            maxLimit = connectionLimit;
+        }
+        return new AdmissionControlFilter(new AdmissionProperties(ratePerSecond, burst, maxClients,
+                initialLimit, minLimit, maxLimit, targetLatency, apiKeys), objectMapper, registry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlRegistration(AdmissionControlFilter filter) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/cars", "/api/cars/*", "/api/policies", "/api/policies/*",
+                "/api/owners/*", "/api/fleet/*", "/api/claims/*", "/api/changes/*", "/api/writes/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
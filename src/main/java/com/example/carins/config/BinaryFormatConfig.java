@@ -0,0 +1,22 @@
+package com.example.carins.config;
+
+import com.example.carins.web.binary.CompactBinaryModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Lets high-volume clients ask for {@code Accept: application/cbor} (and send CBOR bodies) on any endpoint.
+ * JSON stays the default; the CBOR mapper deliberately skips the JSON fast-path serializers.
+ */
+@Configuration(proxyBeanMethods = false)
+public class BinaryFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder.cbor()
+                .modulesToInstall(new CompactBinaryModule())
+                .build());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.carins.config;
+
+import com.example.carins.jfr.ContinuousRecording;
+import com.example.carins.jfr.FlightRecordingEndpoint;
+import com.example.carins.jfr.RepositoryQueryInstrumentation;
+import com.example.carins.jfr.RequestEventInterceptor;
+import com.example.carins.service.CarService;
+import com.example.carins.service.PolicyService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Java Flight Recorder events for requests, repository queries and expiry runs (package {@code jfr}).
+ * The events cost next to nothing until a recording enables them: one started with {@code jcmd <pid>
+ * JFR.start}, or the built-in continuous recording ({@code carins.jfr.recording.enabled=true}), which
+ * {@code POST /actuator/jfr} dumps on demand.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "carins.jfr", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class FlightRecorderConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestEventInterceptor()).addPathPatterns("/api/**");
+    }
+
+    @Bean
+    static RepositoryQueryInstrumentation repositoryQueryInstrumentation() {
+        return new RepositoryQueryInstrumentation(Set.of(CarService.class, PolicyService.class));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "carins.jfr.recording", name = "enabled", havingValue = "true")
+    public ContinuousRecording continuousRecording(
+            @Value("${carins.jfr.recording.settings:default}") String settings,
+            @Value("${carins.jfr.recording.max-age:PT30M}") Duration maxAge,
+            @Value("${carins.jfr.recording.max-size:100MB}") DataSize maxSize,
+            @Value("${carins.jfr.recording.threshold:PT0S}") Duration threshold,
+            @Value("${carins.jfr.recording.dump-dir:${java.io.tmpdir}/carins-jfr}") Path dumpDir) {
+        return new ContinuousRecording(settings, maxAge, maxSize.toBytes(), threshold, dumpDir);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "carins.jfr.recording", name = "enabled", havingValue = "true")
+    public FlightRecordingEndpoint flightRecordingEndpoint(ContinuousRecording recording) {
+        return new FlightRecordingEndpoint(recording);
+    }
+}
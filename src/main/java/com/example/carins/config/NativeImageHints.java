@@ -0,0 +1,87 @@
+package com.example.carins.config;
+
+import com.example.carins.constants.HistoryEventType;
+import com.example.carins.cronjob.ClaimArchiveJob;
+import com.example.carins.cronjob.PolicyExpiryJob;
+import com.example.carins.exception.dto.ApiError;
+import com.example.carins.exception.dto.FieldErrorDto;
+import com.example.carins.exception.dto.ValidationErrorResponse;
+import com.example.carins.model.ArchivedClaim;
+import com.example.carins.model.Car;
+import com.example.carins.model.CarHistoryEvent;
+import com.example.carins.model.Claim;
+import com.example.carins.model.IdempotencyRecord;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.JournalWatermark;
+import com.example.carins.model.Owner;
+import com.example.carins.model.OwnershipPeriod;
+import com.example.carins.repo.CarMakeModel;
+import com.example.carins.repo.ClaimText;
+import com.example.carins.repo.ClaimTotals;
+import com.example.carins.repo.OwnershipSpan;
+import com.example.carins.repo.PolicyEndDate;
+import com.example.carins.repo.PolicySpan;
+import com.example.carins.web.dto.*;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Reachability metadata for the native image ({@code mvn -Pnative package}) that AOT processing cannot
+ * infer on its own. Controller signatures only cover what they name, so DTOs returned through
+ * {@code ResponseEntity<?>} or nested in generic pages are registered here; so are the entities, the
+ * constructor-expression projections, and {@code import.sql}, which Hibernate loads as a classpath resource.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeImageHints.Registrar.class)
+public class NativeImageHints {
+
+    static final List<Class<?>> ENTITIES = List.of(
+            Car.class, Owner.class, InsurancePolicy.class, Claim.class, ArchivedClaim.class, CarHistoryEvent.class,
+            OwnershipPeriod.class, IdempotencyRecord.class, JournalWatermark.class);
+
+    static final List<Class<?>> DTOS = List.of(
+            CarDto.class, ChangePage.class, ClaimDto.class, ClaimSummaryDto.class, CreateClaimRequest.class,
+            HistoryEventDto.class, InsuranceValidityResponse.class, JournaledWriteResponse.class,
+            OwnerPortfolioPage.class, PolicyResponse.class, PolicyUpsertRequest.class, PortfolioCarDto.class,
+            FleetCoverageResponse.class, CarIdPage.class, ModelCoverageDto.class,
+            ClaimSearchResponse.class, ClaimSearchHitDto.class,
+            OwnerTransferRequest.class, OwnershipPeriodDto.class, CarOwnerResponse.class, OwnerCarsResponse.class,
+            ApiError.class, FieldErrorDto.class, ValidationErrorResponse.class);
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources().registerPattern("import.sql");
+
+            for (Class<?> entity : ENTITIES) {
+                hints.reflection().registerType(entity,
+                        MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+            // "select new ..." projections are instantiated reflectively by Hibernate
+            hints.reflection().registerType(ClaimTotals.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            hints.reflection().registerType(PolicyEndDate.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            hints.reflection().registerType(PolicySpan.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            hints.reflection().registerType(CarMakeModel.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            hints.reflection().registerType(ClaimText.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            hints.reflection().registerType(OwnershipSpan.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), DTOS.toArray(Class<?>[]::new));
+
+            // FastDtoJsonModule reads the @JsonProperty names off the constants
+            hints.reflection().registerType(HistoryEventType.class, MemberCategory.PUBLIC_FIELDS);
+
+            // scheduled methods are invoked reflectively
+            hints.reflection().registerType(PolicyExpiryJob.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.reflection().registerType(ClaimArchiveJob.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
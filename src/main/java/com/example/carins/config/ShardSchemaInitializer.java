@@ -0,0 +1,90 @@
+package com.example.carins.config;
+
+import com.example.carins.datasource.ShardMap;
+import com.example.carins.datasource.ShardRouting;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Brings shards 1..n-1 to the schema Hibernate has just given shard 0 ({@code spring.jpa.hibernate.ddl-auto}
+ * applied once per shard), then sets up id allocation on every shard so that ids never collide across shards
+ * and a car's or policy's id names its shard ({@link ShardMap}):
+ * <ul>
+ *   <li>{@code car} and {@code insurancepolicy} identities step by the shard count from the shard's number;</li>
+ *   <li>the sequences of shard {@code i} hand out values from {@code i << 40} on. Hibernate keeps one pooled
+ *       range per generator whatever shard it came from, so the ranges of different shards must not meet.</li>
+ * </ul>
+ * Both are re-applied on every start from what the shard already holds.
+ */
+public class ShardSchemaInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+    private static final int SEQUENCE_RANGE_BITS = 40;
+
+    private final CompletableFuture<Metadata> metadata;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbc;
+    private final ShardMap shards;
+
+    public ShardSchemaInitializer(CompletableFuture<Metadata> metadata, EntityManagerFactory entityManagerFactory,
+                                  DataSource dataSource, ShardMap shards) {
+        this.metadata = metadata;
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.shards = shards;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Metadata mapping = metadata.join();
+        int n = shards.count();
+        for (int shard = 0; shard < n; shard++) {
+            int i = shard;
+            ShardRouting.onShard(i, () -> {
+                if (i > 0) {
+                    // nothing to drop on close: each shard is closed with its pool
+                    SchemaManagementToolCoordinator.process(mapping, sessionFactory.getServiceRegistry(),
+                            sessionFactory.getProperties(), action -> {});
+                }
+                stride("car", i, n);
+                stride("insurancepolicy", i, n);
+                if (i > 0) {
+                    sequenceRanges(i);
+                }
+                return null;
+            });
+        }
+        log.info("Sharding across {} databases", n);
+    }
+
+    private void stride(String table, int shard, int n) {
+        long max = jdbc.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        // smallest id above max that belongs to this shard
+        long next = max + 1 + Math.floorMod(shard - (max + 1), (long) n);
+        jdbc.execute("alter table " + table + " alter column id restart with " + next + " set increment by " + n);
+    }
+
+    private void sequenceRanges(int shard) {
+        long base = (long) shard << SEQUENCE_RANGE_BITS;
+        List<Map<String, Object>> sequences = jdbc.queryForList(
+                "select sequence_name, base_value, increment from information_schema.sequences "
+                + "where sequence_schema = current_schema and base_value < ?", base);
+        for (Map<String, Object> seq : sequences) {
+            // the pooled optimizer hands out (value - increment, value]
+            jdbc.execute("alter sequence " + seq.get("SEQUENCE_NAME") + " restart with "
+                    + (base + ((Number) seq.get("INCREMENT")).longValue()));
+        }
+    }
+}
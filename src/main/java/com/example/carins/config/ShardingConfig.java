@@ -0,0 +1,113 @@
+package com.example.carins.config;
+
+import com.example.carins.datasource.ShardMap;
+import com.example.carins.datasource.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Replaces the auto-configured datasource with one pool per shard when
+ * {@code carins.datasource.sharding.enabled=true}: {@code carins.datasource.sharding.urls} lists the shards
+ * in order (their order must never change), and every pool shares the username, password and size below.
+ * Hibernate creates or updates the schema of shard 0 as usual; {@link ShardSchemaInitializer} repeats that on
+ * the others. {@code import.sql} is not loaded, its fixed car ids would land on the wrong shards.
+ *
+ * <p>Not combinable with read/write routing or the write journal: a journal batch spans cars of every shard.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "carins.datasource.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ShardPools shardPools(@Value("${carins.datasource.sharding.urls}") List<String> urls,
+                                 @Value("${carins.datasource.sharding.username:sa}") String username,
+                                 @Value("${carins.datasource.sharding.password:}") String password,
+                                 @Value("${carins.datasource.sharding.maximum-pool-size:8}") int poolSize,
+                                 @Value("${carins.datasource.routing.enabled:false}") boolean routing,
+                                 @Value("${carins.journal.enabled:false}") boolean journal) {
+        if (routing || journal) {
+            throw new IllegalStateException(
+                    "carins.datasource.sharding cannot be combined with carins.datasource.routing or carins.journal");
+        }
+        List<HikariDataSource> shards = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource ds = new HikariDataSource();
+            ds.setPoolName("carins-shard-" + i);
+            ds.setJdbcUrl(urls.get(i));
+            ds.setUsername(username);
+            ds.setPassword(password);
+            ds.setMaximumPoolSize(poolSize);
+            shards.add(ds);
+        }
+        return new ShardPools(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardPools shardPools) {
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(shardPools.pools());
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    static MetadataCapture shardMetadata() {
+        return new MetadataCapture();
+    }
+
+    @Bean
+    static HibernatePropertiesCustomizer shardHibernateProperties(MetadataCapture metadata) {
+        return properties -> {
+            properties.put(AvailableSettings.HBM2DDL_SKIP_DEFAULT_IMPORT_FILE, true);
+            properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(metadata));
+        };
+    }
+
+    // takes the entity manager factory so that shard 0 has its schema first
+    @Bean
+    ShardSchemaInitializer shardSchemaInitializer(MetadataCapture metadata, EntityManagerFactory entityManagerFactory,
+                                                  DataSource dataSource, ShardMap shards) {
+        return new ShardSchemaInitializer(metadata.metadata, entityManagerFactory, dataSource, shards);
+    }
+
+    public record ShardPools(List<HikariDataSource> pools) implements AutoCloseable {
+        @Override
+        public void close() {
+            pools.forEach(HikariDataSource::close);
+        }
+    }
+
+    /** Keeps the mapping metadata Hibernate built, so the schema can be exported to the other shards. */
+    static class MetadataCapture implements Integrator {
+
+        final CompletableFuture<Metadata> metadata = new CompletableFuture<>();
+
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+            this.metadata.complete(metadata);
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.carins.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Support for {@code spring.main.lazy-initialization} (the {@code faststart} profile). A lazy bean is
+ * only created when something asks for it, so beans that do work on their own ({@code @Scheduled} jobs,
+ * startup listeners, the journal replay in {@code @PostConstruct}) would silently never run. They stay
+ * eager; everything else is created on first use.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter selfStartingBeansAreEager() {
+        return (beanName, definition, type) -> type != null
+                && ReflectionUtils.getUniqueDeclaredMethods(type, StartupConfig::startsWork).length > 0;
+    }
+
+    private static boolean startsWork(Method m) {
+        return AnnotatedElementUtils.hasAnnotation(m, Scheduled.class)
+                || AnnotatedElementUtils.hasAnnotation(m, EventListener.class)
+                || AnnotatedElementUtils.hasAnnotation(m, PostConstruct.class);
+    }
+}
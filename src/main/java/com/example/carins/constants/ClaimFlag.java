@@ -0,0 +1,13 @@
+package com.example.carins.constants;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public enum ClaimFlag {
+    // same description and a close amount as a recent claim on the car
+    @JsonProperty("nearDuplicate")
+    NEAR_DUPLICATE,
+
+    // too many claims on the car within the burst window
+    @JsonProperty("burst")
+    BURST
+}
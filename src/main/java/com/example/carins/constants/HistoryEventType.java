@@ -10,5 +10,8 @@ public enum HistoryEventType {
     POLICY_ENDED,
 
     @JsonProperty("claimRegistered")
-    CLAIM_REGISTERED
+    CLAIM_REGISTERED,
+
+    @JsonProperty("ownershipTransferred")
+    OWNERSHIP_TRANSFERRED
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.example.carins.constants;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public enum IdempotentOperation {
+    @JsonProperty("createPolicy")
+    CREATE_POLICY,
+
+    @JsonProperty("registerClaim")
+    REGISTER_CLAIM
+}
@@ -0,0 +1,15 @@
+package com.example.carins.constants;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// the ordinal is the journal record type: append new operations at the end
+public enum JournaledOperation {
+    @JsonProperty("registerClaim")
+    REGISTER_CLAIM,
+
+    @JsonProperty("createPolicy")
+    CREATE_POLICY,
+
+    @JsonProperty("updatePolicy")
+    UPDATE_POLICY
+}
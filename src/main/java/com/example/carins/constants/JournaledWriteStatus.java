@@ -0,0 +1,14 @@
+package com.example.carins.constants;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public enum JournaledWriteStatus {
+    @JsonProperty("pending")
+    PENDING,
+
+    @JsonProperty("applied")
+    APPLIED,
+
+    @JsonProperty("rejected")
+    REJECTED
+}
@@ -0,0 +1,167 @@
+package com.example.carins.coverage;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmaps of car ids: one per loaded day holding the cars insured on it, one for the whole
+ * fleet and one per make/model. Readers get copies and combine them without holding any lock; writers
+ * patch the live bitmaps in place under a write lock, which takes microseconds per car.
+ *
+ * <p>Car ids must fit an {@code int}; at most {@code maxDays} days are held, the oldest loaded is dropped first.
+ */
+public final class CoverageIndex {
+
+    public record Span(LocalDate start, LocalDate end) {
+        boolean covers(LocalDate day) {
+            return !day.isBefore(start) && !day.isAfter(end);
+        }
+    }
+
+    public record MakeModel(String make, String model) {}
+
+    public record ModelCount(String make, String model, long cars, long insured) {}
+
+    private final int maxDays;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private final LinkedHashMap<LocalDate, RoaringBitmap> days = new LinkedHashMap<>();
+    private final RoaringBitmap cars = new RoaringBitmap();
+    private final Map<MakeModel, RoaringBitmap> byModel = new HashMap<>();
+
+    public CoverageIndex(int maxDays) {
+        this.maxDays = maxDays;
+    }
+
+    public static int carId(Long id) {
+        return Math.toIntExact(id);
+    }
+
+    public void addCar(int carId, String make, String model) {
+        lock.writeLock().lock();
+        try {
+            cars.add(carId);
+            byModel.computeIfAbsent(new MakeModel(make, model), k -> new RoaringBitmap()).add(carId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean hasCar(int carId) {
+        lock.readLock().lock();
+        try {
+            return cars.contains(carId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Drops every loaded day and installs {@code loaded} (a bulk rebuild). */
+    public void replaceDays(Map<LocalDate, RoaringBitmap> loaded) {
+        lock.writeLock().lock();
+        try {
+            days.clear();
+            loaded.forEach(this::install);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putDay(LocalDate day, RoaringBitmap insured) {
+        lock.writeLock().lock();
+        try {
+            install(day, insured);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Recomputes one car on every loaded day from all of its policy spans. */
+    public void applyCar(int carId, List<Span> spans) {
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<LocalDate, RoaringBitmap> e : days.entrySet()) {
+                LocalDate day = e.getKey();
+                if (spans.stream().anyMatch(s -> s.covers(day))) {
+                    e.getValue().add(carId);
+                } else {
+                    e.getValue().remove(carId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Copy of the cars insured on {@code day}, or null when the day is not loaded. */
+    public RoaringBitmap insuredOn(LocalDate day) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap b = days.get(day);
+            return b == null ? null : b.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Copy of the fleet, narrowed to a make and/or model when given. */
+    public RoaringBitmap cars(String make, String model) {
+        lock.readLock().lock();
+        try {
+            if (make == null && model == null) {
+                return cars.clone();
+            }
+            List<RoaringBitmap> matching = new ArrayList<>();
+            byModel.forEach((k, b) -> {
+                if ((make == null || make.equalsIgnoreCase(k.make())) && (model == null || model.equalsIgnoreCase(k.model()))) {
+                    matching.add(b);
+                }
+            });
+            return FastAggregation.or(matching.iterator());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Fleet and insured counts per make/model, ordered by make then model. */
+    public List<ModelCount> countByModel(RoaringBitmap insured) {
+        lock.readLock().lock();
+        try {
+            List<ModelCount> out = new ArrayList<>(byModel.size());
+            byModel.forEach((k, b) -> out.add(new ModelCount(k.make(), k.model(),
+                    b.getLongCardinality(), RoaringBitmap.andCardinality(b, insured))));
+            out.sort(Comparator.comparing(ModelCount::make, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                    .thenComparing(ModelCount::model, Comparator.nullsFirst(Comparator.<String>naturalOrder())));
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int dayCount() {
+        lock.readLock().lock();
+        try {
+            return days.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // caller holds the write lock
+    private void install(LocalDate day, RoaringBitmap insured) {
+        insured.runOptimize();
+        days.remove(day);
+        days.put(day, insured);
+        Iterator<LocalDate> eldest = days.keySet().iterator();
+        while (days.size() > maxDays) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.carins.cronjob;
+
+import com.example.carins.datasource.ShardMap;
+import com.example.carins.service.ClaimArchiveService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+@ConditionalOnProperty(prefix = "carins.claims.archive", name = "enabled", havingValue = "true")
+public class ClaimArchiveJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ClaimArchiveJob.class);
+    private final ClaimArchiveService archive;
+    private final ShardMap shards;
+    private final int batchSize;
+
+    public ClaimArchiveJob(ClaimArchiveService archive,
+                           ShardMap shards,
+                           @Value("${carins.claims.archive.batch-size:500}") int batchSize) {
+        this.archive = archive;
+        this.shards = shards;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${carins.claims.archive.cron:0 30 2 * * *}") // nightly, off-peak
+    public void archiveOldClaims() {
+        LocalDate cutoff = archive.cutoff(LocalDate.now());
+        long start = System.nanoTime();
+        int moved = shards.onEachShard(shard -> archive.archiveOlderThan(cutoff, batchSize))
+                .stream().mapToInt(Integer::intValue).sum();
+        if (moved > 0) {
+            log.info("Archived {} claims dated before {} in {} ms", moved, cutoff, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
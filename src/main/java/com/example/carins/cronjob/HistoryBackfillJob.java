@@ -0,0 +1,46 @@
+package com.example.carins.cronjob;
+
+import com.example.carins.service.CarTimelineService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(prefix = "carins.history.materialized", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class HistoryBackfillJob {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryBackfillJob.class);
+    private final CarTimelineService timeline;
+    private final int batchSize;
+    private final boolean async;
+
+    public HistoryBackfillJob(CarTimelineService timeline,
+                              @Value("${carins.history.materialized.backfill-batch-size:200}") int batchSize,
+                              @Value("${carins.history.materialized.backfill-async:false}") boolean async) {
+        this.timeline = timeline;
+        this.batchSize = batchSize;
+        this.async = async;
+    }
+
+    // history is served by the rebuild path until this finishes, so it may as well not hold up readiness
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!async) {
+            backfill();
+            return;
+        }
+        Thread t = new Thread(this::backfill, "history-backfill");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    void backfill() {
+        long start = System.nanoTime();
+        int rebuilt = timeline.backfill(batchSize);
+        log.info("Car history materialized ({} cars backfilled in {} ms)", rebuilt, (System.nanoTime() - start) / 1_000_000);
+    }
+}
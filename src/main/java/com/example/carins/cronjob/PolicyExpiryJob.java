@@ -1,43 +1,28 @@
 package com.example.carins.cronjob;
 
-import com.example.carins.model.InsurancePolicy;
-import com.example.carins.repo.InsurancePolicyRepository;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.example.carins.service.PolicyExpiryTimeline;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
-import java.util.List;
 
+/**
+ * Expiries are logged at midnight by {@link PolicyExpiryTimeline}; this is the low-frequency safety net
+ * that scans the table for anything the timeline lost (a failed tick, a write it did not see).
+ */
 @Component
 public class PolicyExpiryJob {
 
-    private static final Logger log = LoggerFactory.getLogger(PolicyExpiryJob.class);
-    private final InsurancePolicyRepository policyRepository;
+    private final PolicyExpiryTimeline timeline;
 
-    public PolicyExpiryJob(InsurancePolicyRepository policyRepository) {
-        this.policyRepository = policyRepository;
+    public PolicyExpiryJob(PolicyExpiryTimeline timeline) {
+        this.timeline = timeline;
     }
 
-
-    //saves every hour
-    @Scheduled(fixedRate = 60 * 60 * 1000) // every hour
+    // the timeline already covers startup, so the first scan waits
+    @Scheduled(fixedRateString = "${carins.policies.expiry.reconcile-interval:PT6H}",
+               initialDelayString = "${carins.policies.expiry.initial-delay:PT1H}")
     public void checkExpiredPolicies() {
-        LocalDate today = LocalDate.now();
-        List<InsurancePolicy> expired = policyRepository
-                .findByEndDateBeforeAndExpiryLoggedFalse(today.plusDays(1)); // midnight inclusive
-
-        for (InsurancePolicy policy : expired) {
-            log.info("Policy {} for car {} expired on {}",
-                    policy.getId(),
-                    policy.getCar().getId(),
-                    policy.getEndDate());
-            policy.setExpiryLogged(true);
-        }
-
-        if (!expired.isEmpty()) {
-            policyRepository.saveAll(expired);
-        }
+        timeline.reconcile(LocalDate.now());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.example.carins.datasource;
+
+/**
+ * Per-thread routing hint. Read-only transactions normally go to the replica; reads that need to see
+ * recent writes run {@link #routed routed} to the primary instead, see {@code CompositeReads#open(String, boolean)}.
+ */
+public final class ReadWriteRouting {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private ReadWriteRouting() {}
+
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PINNED_TO_PRIMARY.get());
+    }
+
+    /**
+     * Wraps {@code task} so that, on whatever thread runs it, it is pinned to the primary when
+     * {@code primary} is true. The thread's own pin is left as it was afterwards.
+     */
+    public static Runnable routed(Runnable task, boolean primary) {
+        if (!primary) {
+            return task;
+        }
+        return () -> {
+            if (isPinnedToPrimary()) {
+                task.run();
+                return;
+            }
+            PINNED_TO_PRIMARY.set(Boolean.TRUE);
+            try {
+                task.run();
+            } finally {
+                PINNED_TO_PRIMARY.remove();
+            }
+        };
+    }
+
+    public static void clear() {
+        PINNED_TO_PRIMARY.remove();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.carins.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which cars were written recently so reads for them stay on the primary until the
+ * replica has had {@code carins.datasource.routing.read-your-writes-window} to catch up.
+ * Without routing enabled the pin has no effect.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final long windowNanos;
+    private final ConcurrentHashMap<Long, Long> lastWriteNanos = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(@Value("${carins.datasource.routing.read-your-writes-window:PT2S}") Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    /** Starts the window once the surrounding transaction commits (immediately when there is none). */
+    public void recordWrite(Long carId) {
+        if (windowNanos <= 0 || carId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastWriteNanos.put(carId, System.nanoTime());
+                }
+            });
+        } else {
+            lastWriteNanos.put(carId, System.nanoTime());
+        }
+    }
+
+    public boolean isRecentlyWritten(Long carId) {
+        Long at = lastWriteNanos.get(carId);
+        if (at == null) {
+            return false;
+        }
+        if (System.nanoTime() - at < windowNanos) {
+            return true;
+        }
+        lastWriteNanos.remove(carId, at);
+        return false;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        lastWriteNanos.entrySet().removeIf(e -> now - e.getValue() >= windowNanos);
+    }
+}
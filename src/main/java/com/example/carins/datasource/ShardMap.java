@@ -0,0 +1,74 @@
+package com.example.carins.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Which shard holds a car. Car and policy ids are allocated by each shard in steps of the shard count,
+ * starting at the shard's number, so {@code id mod shards} names the shard of a car, of a policy, and of
+ * everything hanging off the car (its claims, history and ownership rows). Without
+ * {@code carins.datasource.sharding.enabled} there is one shard and binding is a no-op.
+ */
+@Component
+public class ShardMap {
+
+    private final boolean enabled;
+    private final int count;
+
+    public ShardMap(@Value("${carins.datasource.sharding.enabled:false}") boolean enabled,
+                    @Value("${carins.datasource.sharding.urls:}") List<String> urls) {
+        this.enabled = enabled;
+        this.count = enabled ? urls.size() : 1;
+        if (enabled && count == 0) {
+            throw new IllegalStateException("carins.datasource.sharding.urls lists no shards");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int shardOf(long id) {
+        return (int) Math.floorMod(id, (long) count);
+    }
+
+    /** Binds the current transaction to the car's shard. */
+    public void bindCar(Long carId) {
+        if (enabled) {
+            ShardRouting.bind(shardOf(carId));
+        }
+    }
+
+    /** Binds the current transaction to the policy's shard, the same as its car's. */
+    public void bindPolicy(Long policyId) {
+        bindCar(policyId);
+    }
+
+    /** Runs {@code work}, which opens its own transactions, on the car's shard. */
+    public <T> T onCar(Long carId, Supplier<T> work) {
+        return enabled ? ShardRouting.onShard(shardOf(carId), work) : work.get();
+    }
+
+    /**
+     * Runs {@code work}, which opens its own transactions, on every shard in turn and returns the results in
+     * shard order; for startup loads and jobs that cover all cars. Reads serving a request use
+     * {@code CompositeReads.scatter}, which reads the shards side by side.
+     */
+    public <T> List<T> onEachShard(IntFunction<T> work) {
+        List<T> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int shard = i;
+            results.add(enabled ? ShardRouting.onShard(shard, () -> work.apply(shard)) : work.apply(shard));
+        }
+        return results;
+    }
+}
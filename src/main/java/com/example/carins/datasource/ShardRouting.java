@@ -0,0 +1,69 @@
+package com.example.carins.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread shard key for {@link ShardRoutingDataSource}. A transaction works on one shard: it is bound
+ * before the first statement and released when the transaction completes, so after-commit callbacks
+ * still read from the shard that was written. Unbound work goes to shard 0.
+ */
+public final class ShardRouting {
+
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardRouting() {}
+
+    /** Binds the current transaction to {@code shard}; binding it to another shard fails. */
+    public static void bind(int shard) {
+        Integer bound = SHARD.get();
+        if (bound != null) {
+            if (bound != shard) {
+                throw new IllegalStateException("Transaction is bound to shard " + bound + ", not " + shard);
+            }
+            return;
+        }
+        SHARD.set(shard);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    SHARD.remove();
+                }
+            });
+        }
+    }
+
+    /** The bound shard, or null. */
+    public static Integer current() {
+        return SHARD.get();
+    }
+
+    /** Runs {@code work} on {@code shard}, for work that opens its own transactions; restores the previous key. */
+    public static <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = SHARD.get();
+        SHARD.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                SHARD.remove();
+            } else {
+                SHARD.set(previous);
+            }
+        }
+    }
+
+    /** Wraps {@code task} so that it runs on {@code shard} on whatever thread runs it; null leaves it unbound. */
+    public static Runnable routed(Runnable task, Integer shard) {
+        if (shard == null) {
+            return task;
+        }
+        return () -> onShard(shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+}
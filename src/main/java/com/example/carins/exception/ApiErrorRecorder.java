@@ -0,0 +1,104 @@
+package com.example.carins.exception;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts every client error and logs only a sample of them: the first {@code carins.errors.log-burst}
+ * per (exception type, status, endpoint) in each {@code carins.errors.log-interval}; the rest are
+ * summarized in one line when the next window opens. Endpoints are keyed by their route pattern
+ * ({@code /api/cars/{carId}/history}) so a flood of random ids stays a single key.
+ */
+@Component
+public class ApiErrorRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final MeterRegistry registry;
+    private final long intervalNanos;
+    private final int burst;
+    private final boolean stackTraces;
+    private final ConcurrentHashMap<ErrorKey, ErrorStats> stats = new ConcurrentHashMap<>();
+
+    public ApiErrorRecorder(MeterRegistry registry,
+                            @Value("${carins.errors.log-interval:PT10S}") Duration interval,
+                            @Value("${carins.errors.log-burst:5}") int burst,
+                            @Value("${carins.errors.log-stack-traces:false}") boolean stackTraces) {
+        this.registry = registry;
+        this.intervalNanos = interval.toNanos();
+        this.burst = burst;
+        this.stackTraces = stackTraces;
+    }
+
+    private record ErrorKey(Class<?> type, int status, String method, String endpoint) {}
+
+    private static final class ErrorStats {
+        final Counter counter;
+        final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+        final AtomicInteger logged = new AtomicInteger();
+        final AtomicLong suppressed = new AtomicLong();
+
+        ErrorStats(Counter counter) {
+            this.counter = counter;
+        }
+    }
+
+    public void record(String label, HttpStatus status, Throwable ex, HttpServletRequest req) {
+        ErrorKey key = new ErrorKey(ex.getClass(), status.value(), req.getMethod(), endpoint(req));
+        ErrorStats s = stats.computeIfAbsent(key, k -> new ErrorStats(Counter.builder("carins.api.errors")
+                .tag("exception", k.type().getSimpleName())
+                .tag("status", String.valueOf(k.status()))
+                .tag("endpoint", k.method() + " " + k.endpoint())
+                .register(registry)));
+        s.counter.increment();
+
+        long now = System.nanoTime();
+        long start = s.windowStart.get();
+        if (now - start >= intervalNanos && s.windowStart.compareAndSet(start, now)) {
+            long dropped = s.suppressed.getAndSet(0);
+            s.logged.set(0);
+            if (dropped > 0) {
+                log.warn("{}: {} more {} at {} {} -> {} not logged in the last {}s", label, dropped,
+                        key.type().getSimpleName(), key.method(), key.endpoint(), key.status(),
+                        Duration.ofNanos(intervalNanos).toSeconds());
+            }
+        }
+        if (s.logged.incrementAndGet() > burst) {
+            s.suppressed.incrementAndGet();
+            return;
+        }
+        if (stackTraces) {
+            log.warn("{} at {} {} -> {}: {}", label, req.getMethod(), req.getRequestURI(), status.value(),
+                    rootCauseMessage(ex), ex);
+        } else {
+            log.warn("{} at {} {} -> {}: {}", label, req.getMethod(), req.getRequestURI(), status.value(),
+                    rootCauseMessage(ex));
+        }
+    }
+
+    private static String endpoint(HttpServletRequest req) {
+        Object pattern = req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "unmapped";
+    }
+
+    // only called for the sampled errors
+    static String rootCauseMessage(Throwable t) {
+        Throwable cur = t;
+        while (cur.getCause() != null && cur.getCause() != cur) cur = cur.getCause();
+        String cls = cur.getClass().getSimpleName();
+        String msg = cur.getMessage();
+        return (msg == null || msg.isBlank()) ? cls : cls + ": " + msg;
+    }
+}
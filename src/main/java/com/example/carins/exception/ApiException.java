@@ -2,15 +2,24 @@ package com.example.carins.exception;
 
 import org.springframework.http.HttpStatus;
 
+/**
+ * Domain errors that map straight to an HTTP status. They are expected control flow (bad input,
+ * unknown ids), so no stack trace is captured - under an error storm filling it in costs more
+ * than the request itself.
+ */
 public abstract class ApiException extends RuntimeException {
     private final HttpStatus status;
 
     protected ApiException(HttpStatus status, String message) {
-        super(message);
+        this(status, message, null);
+    }
+
+    protected ApiException(HttpStatus status, String message, Throwable cause) {
+        super(message, cause, false, false);
         this.status = status;
     }
 
     public HttpStatus status() {
         return status;
     }
-}
\ No newline at end of file
+}
@@ -30,10 +30,15 @@ public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final ApiErrorRecorder errors;
+
+    public GlobalExceptionHandler(ApiErrorRecorder errors) {
+        this.errors = errors;
+    }
+
     @ExceptionHandler(ApiException.class)
     public ResponseEntity<ApiError> handleApi(ApiException ex, HttpServletRequest req) {
-        log.warn("API error at {} {} -> {}: {}", req.getMethod(), req.getRequestURI(),
-                ex.status().value(), rootCauseMessage(ex), ex);
+        errors.record("API error", ex.status(), ex, req);
         return build(ex.status(), "Request failed", ex, req, null);
     }
 
@@ -43,6 +48,7 @@ public class GlobalExceptionHandler {
         String msg = ex.getName().equals("date")
                 ? "Invalid date format, expected YYYY-MM-DD"
                 : "Invalid value for parameter '" + ex.getName() + "' (expected " + target + ")";
+        errors.record("Type mismatch", HttpStatus.BAD_REQUEST, ex, req);
         return build(HttpStatus.BAD_REQUEST, msg, ex, req, null);
     }
     // ---- ResponseStatusException (if any remain) ----
@@ -50,8 +56,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiError> handleResponseStatus(ResponseStatusException ex, HttpServletRequest req) {
         HttpStatus status = HttpStatus.valueOf(ex.getStatusCode().value());
         String msg = StringUtils.hasText(ex.getReason()) ? ex.getReason() : "Request failed";
-        log.warn("RSE at {} {} -> {}: {}", req.getMethod(), req.getRequestURI(),
-                status.value(), rootCauseMessage(ex), ex);
+        errors.record("RSE", status, ex, req);
         return build(status, msg, ex, req, null);
     }
 
@@ -88,7 +93,7 @@ public class GlobalExceptionHandler {
                     : "";
             msg = "Malformed JSON" + pathRef;
         }
-        log.warn("Bad JSON at {} {}: {}", req.getMethod(), req.getRequestURI(), rootCauseMessage(ex));
+        errors.record("Bad JSON", HttpStatus.BAD_REQUEST, ex, req);
         return build(HttpStatus.BAD_REQUEST, msg, ex, req, null);
     }
 
@@ -96,7 +101,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ApiError> handleDataIntegrity(DataIntegrityViolationException ex,
                                                         HttpServletRequest req) {
-        log.error("Data integrity violation at {} {}: {}", req.getMethod(), req.getRequestURI(), rootCauseMessage(ex), ex);
+        log.error("Data integrity violation at {} {}: {}", req.getMethod(), req.getRequestURI(),
+                ApiErrorRecorder.rootCauseMessage(ex), ex);
         return build(HttpStatus.CONFLICT, "Data integrity violation", ex, req, null);
     }
 
@@ -112,6 +118,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(org.springframework.web.bind.MissingServletRequestParameterException.class)
     public ResponseEntity<ApiError> handleMissingParam(MissingServletRequestParameterException ex, HttpServletRequest req) {
         String msg = "Missing required parameter '" + ex.getParameterName() + "'";
+        errors.record("Missing parameter", HttpStatus.BAD_REQUEST, ex, req);
         return build(HttpStatus.BAD_REQUEST, msg, ex, req, null);
     }
 
@@ -146,12 +153,4 @@ public class GlobalExceptionHandler {
         );
         return ResponseEntity.status(status).body(body);
     }
-
-    private static String rootCauseMessage(Throwable t) {
-        Throwable cur = t;
-        while (cur.getCause() != null) cur = cur.getCause();
-        String cls = cur.getClass().getSimpleName();
-        String msg = cur.getMessage();
-        return (msg == null || msg.isBlank()) ? cls : cls + ": " + msg;
-    }
 }
\ No newline at end of file
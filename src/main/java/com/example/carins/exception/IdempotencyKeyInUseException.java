@@ -0,0 +1,9 @@
+package com.example.carins.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class IdempotencyKeyInUseException extends ApiException {
+    public IdempotencyKeyInUseException(String message) {
+        super(HttpStatus.CONFLICT, message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.carins.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class IdempotencyKeyReusedException extends ApiException {
+    public IdempotencyKeyReusedException(String message) {
+        super(HttpStatus.UNPROCESSABLE_ENTITY, message);
+    }
+}
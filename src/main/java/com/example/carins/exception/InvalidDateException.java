@@ -7,6 +7,6 @@ public class InvalidDateException extends ApiException {
         super(HttpStatus.BAD_REQUEST, message);
     }
     public InvalidDateException(String message, Throwable cause) {
-        super(HttpStatus.BAD_REQUEST, message);
+        super(HttpStatus.BAD_REQUEST, message, cause);
     }
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.example.carins.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidIdempotencyKeyException extends ApiException {
+    public InvalidIdempotencyKeyException(String message) {
+        super(HttpStatus.BAD_REQUEST, message);
+    }
+}
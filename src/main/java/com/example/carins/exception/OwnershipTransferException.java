@@ -0,0 +1,9 @@
+package com.example.carins.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class OwnershipTransferException extends ApiException {
+    public OwnershipTransferException(String message) {
+        super(HttpStatus.CONFLICT, message);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.carins.jfr;
+
+import jakarta.annotation.PostConstruct;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * An always-on flight recording kept as a ring buffer: JFR's own {@code settings} (default: the
+ * low-overhead {@code default} profile) plus the application events, with everything older than
+ * {@code maxAge} or beyond {@code maxSize} dropped. {@link #dump} snapshots the buffer to a file.
+ */
+public class ContinuousRecording implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ContinuousRecording.class);
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Recording recording;
+    private final Path dumpDir;
+
+    public ContinuousRecording(String settings, Duration maxAge, long maxSizeBytes, Duration threshold, Path dumpDir) {
+        try {
+            this.recording = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Unknown JFR settings '" + settings + "'", e);
+        }
+        recording.setName("carins");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSizeBytes);
+        recording.enable(RequestEvent.class).withThreshold(threshold);
+        recording.enable(RepositoryQueryEvent.class).withThreshold(threshold);
+        recording.enable(PolicyExpiryRunEvent.class);
+        this.dumpDir = dumpDir;
+    }
+
+    @PostConstruct
+    public void start() {
+        recording.start();
+        log.info("Continuous flight recording started (max age {}, max size {} bytes)",
+                recording.getMaxAge(), recording.getMaxSize());
+    }
+
+    /** Writes everything currently in the buffer to a new file under the dump directory. */
+    public Path dump() {
+        try {
+            Files.createDirectories(dumpDir);
+            Path file = dumpDir.resolve("carins-" + LocalDateTime.now().format(FILE_STAMP) + ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        recording.close();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.carins.jfr;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * {@code POST /actuator/jfr} dumps the continuous recording and answers with the {@code .jfr} file
+ * (open it in JDK Mission Control or {@code jfr print}). The file also stays in the dump directory.
+ */
+@Endpoint(id = "jfr")
+public class FlightRecordingEndpoint {
+
+    private final ContinuousRecording recording;
+
+    public FlightRecordingEndpoint(ContinuousRecording recording) {
+        this.recording = recording;
+    }
+
+    @WriteOperation
+    public Resource dump() {
+        return new FileSystemResource(recording.dump());
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.carins.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("carins.PolicyExpiryRun")
+@Label("Policy Expiry Run")
+@Description("A midnight tick of the expiry timeline or a reconciliation scan by PolicyExpiryJob")
+@Category({"Car Insurance", "Jobs"})
+@StackTrace(false)
+public class PolicyExpiryRunEvent extends jdk.jfr.Event {
+
+    @Label("Source")
+    @Description("timeline or reconcile")
+    public String source;
+
+    @Label("Rows Scanned")
+    public int scanned;
+
+    @Label("Rows Updated")
+    public int updated;
+}
@@ -0,0 +1,32 @@
+package com.example.carins.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("carins.RepositoryQuery")
+@Label("Repository Query")
+@Description("A Spring Data repository call, including the time spent waiting for a connection")
+@Category({"Car Insurance", "Database"})
+@StackTrace(false)
+public class RepositoryQueryEvent extends jdk.jfr.Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Caller")
+    @Description("Service method the call was made from (CarService, PolicyService), empty otherwise")
+    public String caller;
+
+    @Label("Rows")
+    @Description("Size of a returned collection, 1 for a single result, 0 for none, -1 when not countable")
+    public int rows;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,142 @@
+package com.example.carins.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Emits a {@link RepositoryQueryEvent} around every repository call (Spring Data repositories and
+ * {@code @Repository} classes), and remembers which method of the {@code tracedCallers} services is
+ * running on the thread so the event can name it. The advice goes into
+ * the proxies the beans already have (Spring Data's repository proxy, the transactional proxy of the
+ * services), ahead of the transaction interceptor; beans without a usable proxy get one.
+ */
+public class RepositoryQueryInstrumentation implements BeanPostProcessor {
+
+    private static final ThreadLocal<String> CALLER = new ThreadLocal<>();
+
+    private final Set<Class<?>> tracedCallers;
+
+    public RepositoryQueryInstrumentation(Set<Class<?>> tracedCallers) {
+        this.tracedCallers = tracedCallers;
+    }
+
+    /** Wraps {@code task} so queries it runs on another thread are attributed to the current caller. */
+    public static Runnable withCaller(Runnable task) {
+        String caller = CALLER.get();
+        if (caller == null) {
+            return task;
+        }
+        return () -> {
+            String outer = CALLER.get();
+            CALLER.set(caller);
+            try {
+                task.run();
+            } finally {
+                if (outer == null) {
+                    CALLER.remove();
+                } else {
+                    CALLER.set(outer);
+                }
+            }
+        };
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Repository<?, ?>) {
+            return advise(bean, new QueryInterceptor(repositoryName(bean)), false);
+        }
+        // hand-written repositories, e.g. SparseFieldRepository
+        if (AnnotatedElementUtils.hasAnnotation(AopUtils.getTargetClass(bean), org.springframework.stereotype.Repository.class)) {
+            return advise(bean, new QueryInterceptor(AopUtils.getTargetClass(bean).getSimpleName()), true);
+        }
+        if (tracedCallers.contains(AopUtils.getTargetClass(bean))) {
+            return advise(bean, new CallerInterceptor(AopUtils.getTargetClass(bean).getSimpleName()), true);
+        }
+        return bean;
+    }
+
+    private static Object advise(Object bean, MethodInterceptor interceptor, boolean proxyTargetClass) {
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, interceptor);
+            return bean;
+        }
+        ProxyFactory factory = new ProxyFactory(bean);
+        factory.setProxyTargetClass(proxyTargetClass);
+        factory.addAdvice(interceptor);
+        return factory.getProxy();
+    }
+
+    private static String repositoryName(Object bean) {
+        for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(bean)) {
+            if (Repository.class.isAssignableFrom(type)) {
+                return type.getSimpleName();
+            }
+        }
+        return AopUtils.getTargetClass(bean).getSimpleName();
+    }
+
+    private record CallerInterceptor(String service) implements MethodInterceptor {
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            String outer = CALLER.get();
+            if (outer != null) {
+                return invocation.proceed();
+            }
+            CALLER.set(service + "." + invocation.getMethod().getName());
+            try {
+                return invocation.proceed();
+            } finally {
+                CALLER.remove();
+            }
+        }
+    }
+
+    private record QueryInterceptor(String repository) implements MethodInterceptor {
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            RepositoryQueryEvent event = new RepositoryQueryEvent();
+            if (!event.isEnabled()) {
+                return invocation.proceed();
+            }
+            event.begin();
+            Object result = null;
+            boolean failed = true;
+            try {
+                result = invocation.proceed();
+                failed = false;
+                return result;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    String caller = CALLER.get();
+                    event.repository = repository;
+                    event.method = invocation.getMethod().getName();
+                    event.caller = caller != null ? caller : "";
+                    event.rows = failed ? 0 : rows(result);
+                    event.failed = failed;
+                    event.commit();
+                }
+            }
+        }
+
+        private static int rows(Object result) {
+            if (result == null) return 0;
+            if (result instanceof Collection<?> c) return c.size();
+            if (result instanceof Optional<?> o) return o.isPresent() ? 1 : 0;
+            if (result instanceof Iterable<?> || result instanceof java.util.stream.Stream<?>) return -1;
+            return 1;
+        }
+    }
+}
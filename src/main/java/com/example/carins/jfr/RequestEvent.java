@@ -0,0 +1,36 @@
+package com.example.carins.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("carins.Request")
+@Label("API Request")
+@Description("An /api request, from handler selection until the response is complete")
+@Category({"Car Insurance", "HTTP"})
+@StackTrace(false)
+public class RequestEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Endpoint")
+    @Description("URI template of the matched handler, e.g. /api/cars/{carId}/history")
+    public String endpoint;
+
+    @Label("Handler")
+    public String handler;
+
+    @Label("Car Id")
+    @Description("The {carId} path variable, 0 when there is none")
+    public long carId;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Outcome")
+    @Description("success, clientError or serverError")
+    public String outcome;
+}
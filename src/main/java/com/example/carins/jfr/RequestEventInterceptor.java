@@ -0,0 +1,64 @@
+package com.example.carins.jfr;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Wraps each controller call in a {@link RequestEvent}. When no recording has the event enabled this is
+ * one allocation and a flag check per request.
+ */
+public class RequestEventInterceptor implements HandlerInterceptor {
+
+    private static final String EVENT = RequestEventInterceptor.class.getName() + ".event";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            RequestEvent event = new RequestEvent();
+            if (event.isEnabled()) {
+                event.begin();
+                request.setAttribute(EVENT, event);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(EVENT) instanceof RequestEvent event)) {
+            return;
+        }
+        request.removeAttribute(EVENT);
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        int status = ex != null && response.getStatus() < 400 ? 500 : response.getStatus();
+        event.method = request.getMethod();
+        event.endpoint = Objects.toString(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE), null);
+        HandlerMethod method = (HandlerMethod) handler;
+        event.handler = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        event.carId = carId(request);
+        event.status = status;
+        event.outcome = status >= 500 ? "serverError" : status >= 400 ? "clientError" : "success";
+        event.commit();
+    }
+
+    private static long carId(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> vars
+                && vars.get("carId") instanceof String id) {
+            try {
+                return Long.parseLong(id);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.carins.journal;
+
+import com.example.carins.exception.ApiException;
+import org.springframework.http.HttpStatus;
+
+public class JournalFullException extends ApiException {
+    public JournalFullException(String message) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, message);
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.carins.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal over memory-mapped, pre-sized segment files. Appending copies the
+ * record into the mapping under a short lock; durability comes from {@link MappedByteBuffer#force()}
+ * shared by concurrent appenders (group commit): whoever takes the sync lock forces everything written
+ * so far, the others find their record already covered. A segment is deleted once it is full (or the
+ * journal closed) and every record in it has been {@link #ack acknowledged}.
+ *
+ * <p>Record layout: {@code int length, int crc32, byte type, payload}, where length covers type and
+ * payload. Segments are zero-filled, so a zero length marks the end; a torn record fails the CRC check.
+ * Either ends the replay of that segment.
+ *
+ * <p>Every record has a log sequence number, its segment number in the high 32 bits and its offset in the
+ * low ones, which grows in append order across segments. A consumer that persists the last number it
+ * applied passes it to {@link #open(long)}: those records are skipped when a partly applied segment is
+ * replayed, and numbering resumes past it even if every segment file was deleted in between.
+ */
+public final class WriteAheadJournal implements Closeable {
+
+    public record Record(byte type, ByteBuffer payload, Position position) {}
+
+    /** Where a record was written: the segment to {@link #ack} and the record's log sequence number. */
+    public record Position(Segment segment, long lsn) {}
+
+    public static final class Segment {
+        private final Path path;
+        private final long seq;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private volatile boolean sealed;
+
+        private Segment(Path path, long seq) {
+            this.path = path;
+            this.seq = seq;
+        }
+
+        public Path path() {
+            return path;
+        }
+    }
+
+    private static final String SUFFIX = ".wal";
+    private static final int HEADER = 8;
+
+    private final Path dir;
+    private final String prefix;
+    private final int segmentBytes;
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+    private final AtomicLong forced = new AtomicLong();
+
+    private long nextSeq;
+    private Segment current;
+    private MappedByteBuffer mapped;
+    private int position;
+    private long written; // logical position across all segments
+
+    public WriteAheadJournal(Path dir, String prefix, int segmentBytes) {
+        this.dir = dir;
+        this.prefix = prefix;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /** Reads every record left over from a previous run, in append order, then starts a fresh segment. */
+    public List<Record> open() throws IOException {
+        return open(-1);
+    }
+
+    /** As {@link #open()}, leaving out records up to {@code appliedLsn}, which are acknowledged already. */
+    public List<Record> open(long appliedLsn) throws IOException {
+        Files.createDirectories(dir);
+        List<Path> files;
+        try (Stream<Path> s = Files.list(dir)) {
+            files = s.filter(p -> p.getFileName().toString().startsWith(prefix)
+                            && p.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        List<Record> out = new ArrayList<>();
+        nextSeq = (appliedLsn >> 32) + 1;
+        for (Path file : files) {
+            long seq = seqOf(file);
+            nextSeq = Math.max(nextSeq, seq + 1);
+            Segment seg = new Segment(file, seq);
+            seg.sealed = true;
+            for (Record r : read(file, seg)) {
+                if (r.position().lsn() <= appliedLsn) continue;
+                seg.outstanding.incrementAndGet();
+                out.add(r);
+            }
+            if (seg.outstanding.get() == 0) {
+                Files.deleteIfExists(file);
+            }
+        }
+        synchronized (writeLock) {
+            rotate();
+        }
+        return out;
+    }
+
+    /** Appends a record and returns once it is on disk. The returned position must be {@link #ack acked}. */
+    public Position append(byte type, byte[] payload) throws IOException {
+        int len = 1 + payload.length;
+        if (HEADER + len > segmentBytes) {
+            throw new IllegalArgumentException("Record of " + len + " bytes does not fit a journal segment");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+
+        Position pos;
+        long end;
+        synchronized (writeLock) {
+            if (mapped == null) {
+                throw new IOException("Journal is closed");
+            }
+            if (position + HEADER + len > segmentBytes) {
+                rotate();
+            }
+            pos = new Position(current, lsn(current.seq, position));
+            current.outstanding.incrementAndGet();
+            // payload before the length, so a reader never sees a length without its bytes
+            mapped.put(position + HEADER, type);
+            mapped.put(position + HEADER + 1, payload);
+            mapped.putInt(position + 4, (int) crc.getValue());
+            mapped.putInt(position, len);
+            position += HEADER + len;
+            written += HEADER + len;
+            end = written;
+        }
+        sync(end);
+        return pos;
+    }
+
+    /** The record has been applied; drop its segment once nothing in it is outstanding. */
+    public void ack(Position pos) {
+        Segment seg = pos.segment();
+        if (seg.outstanding.decrementAndGet() == 0 && seg.sealed) {
+            delete(seg);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            if (mapped == null) return;
+            mapped.force();
+            mapped = null;
+            current.sealed = true;
+            if (current.outstanding.get() == 0) {
+                delete(current);
+            }
+        }
+    }
+
+    private void sync(long end) {
+        if (forced.get() >= end) return;
+        synchronized (syncLock) {
+            if (forced.get() >= end) return;
+            long target;
+            MappedByteBuffer buf;
+            synchronized (writeLock) {
+                target = written;
+                buf = mapped;
+            }
+            // if a rotation slipped in, rotate() already forced the old mapping and covered this record
+            if (buf != null) {
+                buf.force();
+            }
+            forced.accumulateAndGet(target, Math::max);
+        }
+    }
+
+    // caller holds writeLock
+    private void rotate() throws IOException {
+        Segment previous = current;
+        if (mapped != null) {
+            mapped.force();
+            forced.accumulateAndGet(written, Math::max);
+        }
+        long seq = nextSeq++;
+        current = new Segment(dir.resolve(String.format("%s%020d%s", prefix, seq, SUFFIX)), seq);
+        try (FileChannel ch = FileChannel.open(current.path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the mapping stays valid after the channel is closed
+            mapped = ch.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        position = 0;
+        if (previous != null) {
+            previous.sealed = true;
+            if (previous.outstanding.get() == 0) {
+                delete(previous);
+            }
+        }
+    }
+
+    private static void delete(Segment seg) {
+        try {
+            Files.deleteIfExists(seg.path);
+        } catch (IOException ignored) {
+            // replay is idempotent, a leftover segment only costs a re-check on the next start
+        }
+    }
+
+    private static long lsn(long seq, int offset) {
+        return seq << 32 | offset;
+    }
+
+    private long seqOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static List<Record> read(Path file, Segment seg) throws IOException {
+        List<Record> records = new ArrayList<>();
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+        while (buf.remaining() >= HEADER) {
+            int offset = buf.position();
+            int len = buf.getInt();
+            int crc = buf.getInt();
+            if (len <= 0 || len > buf.remaining()) break;
+            CRC32 check = new CRC32();
+            check.update(buf.array(), buf.position(), len);
+            if ((int) check.getValue() != crc) break;
+            byte type = buf.get();
+            ByteBuffer payload = buf.slice(buf.position(), len - 1);
+            buf.position(buf.position() + len - 1);
+            records.add(new Record(type, payload, new Position(seg, lsn(seg.seq, offset))));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.carins.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Cold copy of a {@link Claim} older than the archive horizon. Keeps the original claim id,
+ * rows are only ever inserted by {@code ClaimArchiveJob}.
+ */
+@Entity
+@Table(name = "claim_archive", indexes = {
+        @Index(name = "idx_claim_archive_car_date", columnList = "car_id, claim_date"),
+        @Index(name = "idx_claim_archive_archived_at", columnList = "archived_at, id")
+})
+public class ArchivedClaim {
+    @Id
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private Car car;
+
+    @Column(nullable = false)
+    private LocalDate claimDate;
+
+    @Column(nullable = false, length = 1000)
+    private String description;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    public ArchivedClaim() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public Car getCar() {
+        return car;
+    }
+
+    public LocalDate getClaimDate() {
+        return claimDate;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -4,8 +4,14 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
 @Entity
-@Table(name = "car")
+@Table(name = "car", indexes = {
+        @Index(name = "idx_car_updated_at", columnList = "updated_at, id"),
+        @Index(name = "idx_car_owner", columnList = "owner_id, id")
+})
 public class Car {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -20,6 +26,12 @@ public class Car {
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private Owner owner;
 
+    @Version
+    private Long version;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
     public Car() {}
     public Car(String vin, String make, String model, int yearOfManufacture, Owner owner) {
         this.vin = vin; this.make = make; this.model = model; this.yearOfManufacture = yearOfManufacture; this.owner = owner;
@@ -36,4 +48,10 @@ public class Car {
     public void setYearOfManufacture(int y) { this.yearOfManufacture = y; }
     public Owner getOwner() { return owner; }
     public void setOwner(Owner owner) { this.owner = owner; }
+    public Long getVersion() { return version; }
+    public Instant getUpdatedAt() { return updatedAt; }
+
+    // change feed cursor; micros so the value survives the round trip through TIMESTAMP(6)
+    @PrePersist @PreUpdate
+    void touch() { this.updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS); }
 }
@@ -0,0 +1,82 @@
+package com.example.carins.model;
+
+import com.example.carins.constants.HistoryEventType;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDate;
+
+/**
+ * Pre-rendered history event of a car. Rows are written alongside the policy/claim they describe
+ * and read back with one range scan over {@code idx_car_history_event_order}, already in final order.
+ */
+@Entity
+@Table(name = "car_history_event",
+        indexes = @Index(name = "idx_car_history_event_order", columnList = "car_id, event_date, type_order, ref_id"))
+public class CarHistoryEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "car_history_event_seq")
+    @SequenceGenerator(name = "car_history_event_seq", sequenceName = "car_history_event_seq", allocationSize = 50)
+    private Long id;
+
+    // plain column, reads never need the car itself
+    @Column(name = "car_id", nullable = false)
+    private Long carId;
+
+    @Column(name = "event_date", nullable = false)
+    private LocalDate eventDate;
+
+    @Column(name = "type_order", nullable = false)
+    private int typeOrder;
+
+    // varchar rather than H2's native enum, so a new event type needs no schema change
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 32)
+    private HistoryEventType type;
+
+    @Column(name = "ref_id", nullable = false)
+    private Long refId;
+
+    @Column(nullable = false, length = 1200)
+    private String description;
+
+    public CarHistoryEvent() {}
+    public CarHistoryEvent(Long carId, LocalDate eventDate, int typeOrder, HistoryEventType type, Long refId, String description) {
+        this.carId = carId;
+        this.eventDate = eventDate;
+        this.typeOrder = typeOrder;
+        this.type = type;
+        this.refId = refId;
+        this.description = description;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getCarId() {
+        return carId;
+    }
+
+    public LocalDate getEventDate() {
+        return eventDate;
+    }
+
+    public int getTypeOrder() {
+        return typeOrder;
+    }
+
+    public HistoryEventType getType() {
+        return type;
+    }
+
+    public Long getRefId() {
+        return refId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
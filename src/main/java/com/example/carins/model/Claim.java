@@ -6,12 +6,17 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "claim")
+@Table(name = "claim", indexes = @Index(name = "idx_claim_updated_at", columnList = "updated_at, id"))
 public class Claim {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // sequence instead of IDENTITY so hibernate.jdbc.batch_size can batch claim inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "claim_seq")
+    @SequenceGenerator(name = "claim_seq", sequenceName = "claim_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -29,6 +34,16 @@ public class Claim {
     @Column(nullable = false, precision = 12, scale = 2)
     private BigDecimal amount;
 
+    // set for claims registered from the write journal, makes replay idempotent
+    @Column(name = "intake_handle", length = 36, unique = true)
+    private String intakeHandle;
+
+    @Version
+    private Long version;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
     public Claim() {}
     public Claim(Car car, LocalDate claimDate, String description, BigDecimal amount) {
         this.car = car;
@@ -76,4 +91,26 @@ public class Claim {
     public void setAmount(BigDecimal amount) {
         this.amount = amount;
     }
+
+    public String getIntakeHandle() {
+        return intakeHandle;
+    }
+
+    public void setIntakeHandle(String intakeHandle) {
+        this.intakeHandle = intakeHandle;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.example.carins.model;
+
+import com.example.carins.constants.IdempotentOperation;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * A client's Idempotency-Key for a write, stored in the write's own transaction: the key is inserted first,
+ * so a concurrent duplicate on another instance waits on it, and the JSON response is set once the write is
+ * done. {@code requestHash} tells a retry apart from a different request reusing the key. Rows older than
+ * {@code carins.idempotency.retention} are purged.
+ */
+@Entity
+@Table(name = "idempotency_key", indexes = @Index(name = "idx_idempotency_created", columnList = "created_at"))
+public class IdempotencyRecord {
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 32)
+    private IdempotentOperation operation;
+
+    @Column(nullable = false)
+    private Long carId;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(length = 8000)
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public IdempotencyRecord() {}
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public IdempotentOperation getOperation() { return operation; }
+    public Long getCarId() { return carId; }
+    public String getRequestHash() { return requestHash; }
+    public String getResponse() { return response; }
+    public Instant getCreatedAt() { return createdAt; }
+}
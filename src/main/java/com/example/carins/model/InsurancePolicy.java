@@ -5,10 +5,15 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotNull;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "insurancepolicy")
+@Table(name = "insurancepolicy", indexes = {
+        @Index(name = "idx_policy_updated_at", columnList = "updated_at, id"),
+        @Index(name = "idx_policy_end_date", columnList = "end_date, expiry_logged")
+})
 public class InsurancePolicy {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -32,6 +37,16 @@ public class InsurancePolicy {
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDate endDate;
 
+    // set for policies created from the write journal, makes replay idempotent
+    @Column(name = "intake_handle", length = 36, unique = true)
+    private String intakeHandle;
+
+    @Version
+    private Long version;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
     public InsurancePolicy() {}
     public InsurancePolicy(Car car, String provider, LocalDate startDate, LocalDate endDate) {
         this.car = car; this.provider = provider; this.startDate = startDate; this.endDate = endDate;
@@ -53,4 +68,11 @@ public class InsurancePolicy {
     public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
     public boolean isExpiryLogged() { return expiryLogged; }
     public void setExpiryLogged(boolean expiryLogged) { this.expiryLogged = expiryLogged; }
+    public String getIntakeHandle() { return intakeHandle; }
+    public void setIntakeHandle(String intakeHandle) { this.intakeHandle = intakeHandle; }
+    public Long getVersion() { return version; }
+    public Instant getUpdatedAt() { return updatedAt; }
+
+    @PrePersist @PreUpdate
+    void touch() { this.updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS); }
 }
@@ -0,0 +1,28 @@
+package com.example.carins.model;
+
+import jakarta.persistence.*;
+
+/**
+ * The log sequence number of the last journaled write applied to the database, advanced in the same
+ * transaction as the writes themselves, so a journal replay knows exactly which records to skip.
+ */
+@Entity
+@Table(name = "journal_watermark")
+public class JournalWatermark {
+    @Id
+    @Column(length = 64)
+    private String journal;
+
+    @Column(name = "applied_lsn", nullable = false)
+    private long appliedLsn;
+
+    public JournalWatermark() {}
+
+    public JournalWatermark(String journal, long appliedLsn) {
+        this.journal = journal;
+        this.appliedLsn = appliedLsn;
+    }
+
+    public String getJournal() { return journal; }
+    public long getAppliedLsn() { return appliedLsn; }
+}
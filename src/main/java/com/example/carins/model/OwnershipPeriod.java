@@ -0,0 +1,46 @@
+package com.example.carins.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * One owner's hold on a car over [startDate, endDate], both inclusive. A car's periods do not overlap;
+ * the current one has no end date. A null start date means "since before ownership was recorded": the
+ * startup backfill gives every car such a period for the owner it had at the time.
+ */
+@Entity
+@Table(name = "ownership_period", indexes = {
+        @Index(name = "idx_ownership_car_start", columnList = "car_id, start_date"),
+        @Index(name = "idx_ownership_owner_start", columnList = "owner_id, start_date")
+})
+public class OwnershipPeriod {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ownership_period_seq")
+    @SequenceGenerator(name = "ownership_period_seq", sequenceName = "ownership_period_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private Car car;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private Owner owner;
+
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    public OwnershipPeriod() {}
+    public OwnershipPeriod(Car car, Owner owner, LocalDate startDate) {
+        this.car = car; this.owner = owner; this.startDate = startDate;
+    }
+
+    public Long getId() { return id; }
+    public Car getCar() { return car; }
+    public Owner getOwner() { return owner; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+}
@@ -0,0 +1,159 @@
+package com.example.carins.ownership;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ownership periods of every car as sorted interval arrays: start/end epoch days and owner ids, one
+ * triple per period in start order. "Who owned car X on D" is a binary search over X's starts; "which
+ * cars did O own on D" runs that search for each car O ever owned. Writers swap a car's arrays whole
+ * under a write lock.
+ */
+public final class OwnershipIndex {
+
+    /** {@code start} null: owned since before ownership was recorded; {@code end} null: current owner. */
+    public record Period(long ownerId, LocalDate start, LocalDate end) {}
+
+    private record CarPeriods(int[] starts, int[] ends, long[] owners) {
+        Long ownerOn(int day) {
+            // last period starting on or before day; periods do not overlap, so starts are distinct
+            int i = Arrays.binarySearch(starts, day);
+            if (i < 0) {
+                i = -i - 2;
+            }
+            return i >= 0 && ends[i] >= day ? owners[i] : null;
+        }
+    }
+
+    private static final int UNRECORDED = Integer.MIN_VALUE;
+    private static final int OPEN = Integer.MAX_VALUE;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private final Map<Long, CarPeriods> byCar = new HashMap<>();
+    private final Map<Long, Set<Long>> carsByOwner = new HashMap<>();
+
+    /** Drops everything and installs {@code loaded}, car id to its periods in any order (a bulk load). */
+    public void replaceAll(Map<Long, List<Period>> loaded) {
+        lock.writeLock().lock();
+        try {
+            byCar.clear();
+            carsByOwner.clear();
+            loaded.forEach(this::install);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Replaces one car's periods, given in any order. */
+    public void replaceCar(long carId, List<Period> periods) {
+        lock.writeLock().lock();
+        try {
+            CarPeriods old = byCar.remove(carId);
+            if (old != null) {
+                for (long owner : old.owners()) {
+                    Set<Long> cars = carsByOwner.get(owner);
+                    if (cars != null && cars.remove(carId) && cars.isEmpty()) {
+                        carsByOwner.remove(owner);
+                    }
+                }
+            }
+            install(carId, periods);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean hasCar(long carId) {
+        lock.readLock().lock();
+        try {
+            return byCar.containsKey(carId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean hasOwner(long ownerId) {
+        lock.readLock().lock();
+        try {
+            return carsByOwner.containsKey(ownerId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The owner of the car on {@code date}, null when the car is not indexed or had none recorded then. */
+    public Long ownerOn(long carId, LocalDate date) {
+        int day = day(date);
+        lock.readLock().lock();
+        try {
+            CarPeriods periods = byCar.get(carId);
+            return periods == null ? null : periods.ownerOn(day);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ascending ids of the cars the owner held on {@code date}. */
+    public List<Long> carsOwnedOn(long ownerId, LocalDate date) {
+        int day = day(date);
+        List<Long> out = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Set<Long> cars = carsByOwner.get(ownerId);
+            if (cars == null) {
+                return out;
+            }
+            for (Long carId : cars) {
+                Long owner = byCar.get(carId).ownerOn(day);
+                if (owner != null && owner == ownerId) {
+                    out.add(carId);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        out.sort(null);
+        return out;
+    }
+
+    public int carCount() {
+        lock.readLock().lock();
+        try {
+            return byCar.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void install(Long carId, List<Period> periods) {
+        if (periods.isEmpty()) {
+            return;
+        }
+        List<Period> sorted = new ArrayList<>(periods);
+        sorted.sort(Comparator.comparingInt(p -> start(p.start())));
+        int n = sorted.size();
+        int[] starts = new int[n];
+        int[] ends = new int[n];
+        long[] owners = new long[n];
+        for (int i = 0; i < n; i++) {
+            Period p = sorted.get(i);
+            starts[i] = start(p.start());
+            ends[i] = p.end() == null ? OPEN : day(p.end());
+            owners[i] = p.ownerId();
+            carsByOwner.computeIfAbsent(p.ownerId(), k -> new HashSet<>()).add(carId);
+        }
+        byCar.put(carId, new CarPeriods(starts, ends, owners));
+    }
+
+    private static int start(LocalDate start) {
+        return start == null ? UNRECORDED : day(start);
+    }
+
+    private static int day(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+}
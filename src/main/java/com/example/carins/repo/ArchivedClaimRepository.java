@@ -0,0 +1,42 @@
+package com.example.carins.repo;
+
+import com.example.carins.model.ArchivedClaim;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedClaimRepository extends JpaRepository<ArchivedClaim, Long> {
+
+    List<ArchivedClaim> findByCarIdAndClaimDateBetweenOrderByClaimDateAscIdAsc(Long carId, LocalDate from, LocalDate to);
+
+    @Query("select new com.example.carins.repo.ClaimTotals(a.car.id, count(a), sum(a.amount), max(a.claimDate)) " +
+           "from ArchivedClaim a where a.car.id in :carIds group by a.car.id")
+    List<ClaimTotals> totalsForCars(@Param("carIds") Collection<Long> carIds);
+
+    @Query("select new com.example.carins.repo.ClaimText(a.id, a.car.id, a.claimDate, a.description, a.amount) " +
+           "from ArchivedClaim a where a.id > :afterId order by a.id asc")
+    List<ClaimText> findTextsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select max(a.claimDate) from ArchivedClaim a")
+    Optional<LocalDate> findNewestClaimDate();
+
+    // change feed tombstones, keyset on (archivedAt, id) like the live tables' findChangedSince
+    @Query("select a from ArchivedClaim a " +
+           "where (a.archivedAt > :since or (a.archivedAt = :since and a.id > :afterId)) and a.archivedAt <= :upTo " +
+           "order by a.archivedAt asc, a.id asc")
+    List<ArchivedClaim> findArchivedSince(@Param("since") Instant since, @Param("afterId") Long afterId,
+                                          @Param("upTo") Instant upTo, Limit limit);
+
+    @Modifying
+    @Query("insert into ArchivedClaim (id, car, claimDate, description, amount, archivedAt) " +
+           "select c.id, c.car, c.claimDate, c.description, c.amount, :archivedAt from Claim c where c.id in :ids")
+    int copyFromClaims(@Param("ids") Collection<Long> ids, @Param("archivedAt") Instant archivedAt);
+}
@@ -0,0 +1,39 @@
+package com.example.carins.repo;
+
+import com.example.carins.constants.HistoryEventType;
+import com.example.carins.model.CarHistoryEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface CarHistoryEventRepository extends JpaRepository<CarHistoryEvent, Long> {
+
+    // (car_id, event_date, type_order, ref_id) is covered by idx_car_history_event_order
+    List<CarHistoryEvent> findByCarIdAndEventDateBetweenOrderByEventDateAscTypeOrderAscRefIdAsc(
+            Long carId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("delete from CarHistoryEvent e where e.carId = :carId")
+    int deleteByCarId(@Param("carId") Long carId);
+
+    @Modifying
+    @Query("delete from CarHistoryEvent e where e.carId = :carId and e.refId = :refId and e.type in :types")
+    int deleteByRef(@Param("carId") Long carId, @Param("refId") Long refId,
+                    @Param("types") Collection<HistoryEventType> types);
+
+    // the car ids keep this on idx_car_history_event_order
+    @Modifying
+    @Query("delete from CarHistoryEvent e where e.carId in :carIds and e.type = :type and e.refId in :refIds")
+    int deleteByRefIn(@Param("carIds") Collection<Long> carIds, @Param("type") HistoryEventType type,
+                      @Param("refIds") Collection<Long> refIds);
+
+    // schemas created before the type column was mapped as varchar have it as an enum of the old types
+    @Modifying
+    @Query(value = "alter table car_history_event alter column type set data type varchar(32)", nativeQuery = true)
+    void widenTypeColumn();
+}
@@ -0,0 +1,4 @@
+package com.example.carins.repo;
+
+/** See {@link CarRepository#findMakeModelsAfter}. */
+public record CarMakeModel(Long id, String make, String model) {}
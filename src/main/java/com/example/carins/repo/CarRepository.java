@@ -1,9 +1,12 @@
 package com.example.carins.repo;
 
 import com.example.carins.model.*;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -14,4 +17,42 @@ public interface CarRepository extends JpaRepository<Car, Long> {
     @EntityGraph(attributePaths = {"owner"})
     List<Car> findAll();
     Optional<Car> findByVin(String vin);
-}
\ No newline at end of file
+
+    // car list page (all cars with Limit.unlimited()), keyset on id; merged across shards by id
+    @EntityGraph(attributePaths = {"owner"})
+    List<Car> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // owner portfolio page, keyset on id (idx_car_owner)
+    List<Car> findByOwnerIdAndIdGreaterThanOrderByIdAsc(Long ownerId, Long afterId, Limit limit);
+
+    // keyset page for the change feed, (updatedAt, id) is covered by idx_car_updated_at
+    @EntityGraph(attributePaths = {"owner"})
+    @Query("select c from Car c " +
+           "where (c.updatedAt > :since or (c.updatedAt = :since and c.id > :afterId)) and c.updatedAt <= :upTo " +
+           "order by c.updatedAt asc, c.id asc")
+    List<Car> findChangedSince(@Param("since") Instant since, @Param("afterId") Long afterId,
+                               @Param("upTo") Instant upTo, Limit limit);
+
+    // fleet coverage: make/model of every car, keyset on id
+    @Query("select new com.example.carins.repo.CarMakeModel(c.id, c.make, c.model) from Car c " +
+           "where c.id > :afterId order by c.id asc")
+    List<CarMakeModel> findMakeModelsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // serializes timeline rebuilds with concurrent writes to the same car
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c.id from Car c where c.id = :id")
+    Optional<Long> lockById(@Param("id") Long id);
+
+    // cars with no materialized history yet, in id order for the backfill
+    @Query("select c.id from Car c where c.id > :afterId " +
+           "and not exists (select 1 from CarHistoryEvent e where e.carId = c.id) order by c.id asc")
+    List<Long> findIdsWithoutHistory(@Param("afterId") Long afterId, Limit limit);
+
+    // cars with no ownership period yet, in id order for the ownership backfill
+    @Query("select c.id from Car c where c.id > :afterId " +
+           "and not exists (select 1 from OwnershipPeriod p where p.car.id = c.id) order by c.id asc")
+    List<Long> findIdsWithoutOwnership(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select c.owner.id from Car c where c.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
+}
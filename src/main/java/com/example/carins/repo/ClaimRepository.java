@@ -1,10 +1,49 @@
 package com.example.carins.repo;
 
 import com.example.carins.model.Claim;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ClaimRepository extends JpaRepository<Claim, Long> {
     List<Claim> findByCarIdOrderByClaimDateAsc(Long carId);
+
+    List<Claim> findByCarIdAndClaimDateBetweenOrderByClaimDateAscIdAsc(Long carId, LocalDate from, LocalDate to);
+
+    // archival batches, oldest ids first
+    @Query("select c.id from Claim c where c.claimDate < :cutoff order by c.id asc")
+    List<Long> findIdsWithClaimDateBefore(@Param("cutoff") LocalDate cutoff, Limit limit);
+
+    @Query("select distinct c.car.id from Claim c where c.id in :ids order by c.car.id")
+    List<Long> findCarIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Claim c where c.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    Optional<Claim> findByIntakeHandle(String intakeHandle);
+
+    // owner portfolio: one grouped query per page of cars
+    @Query("select new com.example.carins.repo.ClaimTotals(c.car.id, count(c), sum(c.amount), max(c.claimDate)) " +
+           "from Claim c where c.car.id in :carIds group by c.car.id")
+    List<ClaimTotals> totalsForCars(@Param("carIds") Collection<Long> carIds);
+
+    @Query("select c from Claim c " +
+           "where (c.updatedAt > :since or (c.updatedAt = :since and c.id > :afterId)) and c.updatedAt <= :upTo " +
+           "order by c.updatedAt asc, c.id asc")
+    List<Claim> findChangedSince(@Param("since") Instant since, @Param("afterId") Long afterId,
+                                 @Param("upTo") Instant upTo, Limit limit);
+
+    // search index build, keyset by id
+    @Query("select new com.example.carins.repo.ClaimText(c.id, c.car.id, c.claimDate, c.description, c.amount) " +
+           "from Claim c where c.id > :afterId order by c.id asc")
+    List<ClaimText> findTextsAfter(@Param("afterId") Long afterId, Limit limit);
 }
\ No newline at end of file
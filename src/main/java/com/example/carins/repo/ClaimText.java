@@ -0,0 +1,7 @@
+package com.example.carins.repo;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** A claim as the search index sees it, see {@link ClaimRepository#findTextsAfter} and {@link ArchivedClaimRepository#findTextsAfter}. */
+public record ClaimText(Long id, Long carId, LocalDate claimDate, String description, BigDecimal amount) {}
@@ -0,0 +1,7 @@
+package com.example.carins.repo;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** Per-car claim aggregate, see {@link ClaimRepository#totalsForCars} and {@link ArchivedClaimRepository#totalsForCars}. */
+public record ClaimTotals(Long carId, Long count, BigDecimal amount, LocalDate lastClaimDate) {}
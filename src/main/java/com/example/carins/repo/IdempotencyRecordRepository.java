@@ -0,0 +1,28 @@
+package com.example.carins.repo;
+
+import com.example.carins.constants.IdempotentOperation;
+import com.example.carins.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // a plain insert, so a taken key fails on the primary key instead of being merged into
+    @Modifying
+    @Query("insert into IdempotencyRecord (idempotencyKey, operation, carId, requestHash, createdAt) " +
+           "values (:key, :operation, :carId, :requestHash, :createdAt)")
+    int reserve(@Param("key") String key, @Param("operation") IdempotentOperation operation, @Param("carId") Long carId,
+                @Param("requestHash") String requestHash, @Param("createdAt") Instant createdAt);
+
+    @Modifying
+    @Query("update IdempotencyRecord r set r.response = :response where r.idempotencyKey = :key")
+    int complete(@Param("key") String key, @Param("response") String response);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
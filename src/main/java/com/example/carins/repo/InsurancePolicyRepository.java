@@ -1,10 +1,13 @@
 package com.example.carins.repo;
 
 import com.example.carins.model.*;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +24,44 @@ public interface InsurancePolicyRepository extends JpaRepository<InsurancePolicy
 
     List<InsurancePolicy> findByCarId(Long carId);
 
+    // policy list page (all policies with Limit.unlimited()), keyset on id; merged across shards by id
+    List<InsurancePolicy> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // owner portfolio: policies valid on :date for a whole page of cars in one IN-list query
+    @Query("select p from InsurancePolicy p " +
+           "where p.car.id in :carIds " +
+           "and p.startDate <= :date " +
+           "and (p.endDate is null or p.endDate >= :date) " +
+           "order by p.car.id asc, p.startDate asc, p.id asc")
+    List<InsurancePolicy> findActiveOnDateForCars(@Param("carIds") Collection<Long> carIds, @Param("date") LocalDate date);
+
+    Optional<InsurancePolicy> findByIntakeHandle(String intakeHandle);
+
+    // fleet coverage bulk build: policies overlapping [from, to], keyset on id
+    @Query("select new com.example.carins.repo.PolicySpan(p.id, p.car.id, p.startDate, p.endDate) " +
+           "from InsurancePolicy p " +
+           "where p.startDate <= :to and p.endDate >= :from and p.id > :afterId " +
+           "order by p.id asc")
+    List<PolicySpan> findSpansOverlapping(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                          @Param("afterId") Long afterId, Limit limit);
+
+    @Query("select new com.example.carins.repo.PolicySpan(p.id, p.car.id, p.startDate, p.endDate) " +
+           "from InsurancePolicy p where p.car.id = :carId")
+    List<PolicySpan> findSpansByCarId(@Param("carId") Long carId);
+
     List<InsurancePolicy> findByEndDateBeforeAndExpiryLoggedFalse(LocalDate localDate);
 
+    // expiry timeline load: unlogged policies ending in (after, until], keyset on id (idx_policy_end_date)
+    @Query("select new com.example.carins.repo.PolicyEndDate(p.id, p.endDate) from InsurancePolicy p " +
+           "where p.expiryLogged = false and p.endDate > :after and p.endDate <= :until and p.id > :afterId " +
+           "order by p.id asc")
+    List<PolicyEndDate> findUnloggedEndingBetween(@Param("after") LocalDate after, @Param("until") LocalDate until,
+                                                  @Param("afterId") Long afterId, Limit limit);
+
+    @Query("select p from InsurancePolicy p " +
+           "where (p.updatedAt > :since or (p.updatedAt = :since and p.id > :afterId)) and p.updatedAt <= :upTo " +
+           "order by p.updatedAt asc, p.id asc")
+    List<InsurancePolicy> findChangedSince(@Param("since") Instant since, @Param("afterId") Long afterId,
+                                           @Param("upTo") Instant upTo, Limit limit);
+
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.example.carins.repo;
+
+import com.example.carins.model.JournalWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface JournalWatermarkRepository extends JpaRepository<JournalWatermark, String> {
+
+    @Modifying
+    @Query("update JournalWatermark w set w.appliedLsn = :lsn where w.journal = :journal and w.appliedLsn < :lsn")
+    int advance(@Param("journal") String journal, @Param("lsn") long lsn);
+}
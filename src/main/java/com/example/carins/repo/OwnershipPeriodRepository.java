@@ -0,0 +1,33 @@
+package com.example.carins.repo;
+
+import com.example.carins.model.OwnershipPeriod;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface OwnershipPeriodRepository extends JpaRepository<OwnershipPeriod, Long> {
+
+    // (car_id, start_date) is covered by idx_ownership_car_start; nulls (unrecorded start) sort first
+    @EntityGraph(attributePaths = {"owner"})
+    @Query("select p from OwnershipPeriod p where p.car.id = :carId order by p.startDate asc nulls first, p.id asc")
+    List<OwnershipPeriod> findByCarIdInOrder(@Param("carId") Long carId);
+
+    @Query("select p from OwnershipPeriod p where p.car.id = :carId and p.endDate is null")
+    Optional<OwnershipPeriod> findCurrent(@Param("carId") Long carId);
+
+    boolean existsByCarId(Long carId);
+
+    // ownership index load, keyset on id
+    @Query("select new com.example.carins.repo.OwnershipSpan(p.id, p.car.id, p.owner.id, p.startDate, p.endDate) " +
+           "from OwnershipPeriod p where p.id > :afterId order by p.id asc")
+    List<OwnershipSpan> findSpansAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select new com.example.carins.repo.OwnershipSpan(p.id, p.car.id, p.owner.id, p.startDate, p.endDate) " +
+           "from OwnershipPeriod p where p.car.id = :carId")
+    List<OwnershipSpan> findSpansByCarId(@Param("carId") Long carId);
+}
@@ -0,0 +1,6 @@
+package com.example.carins.repo;
+
+import java.time.LocalDate;
+
+/** An ownership period without its entities, see {@link OwnershipPeriodRepository#findSpansAfter}. */
+public record OwnershipSpan(Long id, Long carId, Long ownerId, LocalDate startDate, LocalDate endDate) {}
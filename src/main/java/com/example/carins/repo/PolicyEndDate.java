@@ -0,0 +1,6 @@
+package com.example.carins.repo;
+
+import java.time.LocalDate;
+
+/** Policy id and end date, see {@link InsurancePolicyRepository#findUnloggedEndingBetween}. */
+public record PolicyEndDate(Long id, LocalDate endDate) {}
@@ -0,0 +1,6 @@
+package com.example.carins.repo;
+
+import java.time.LocalDate;
+
+/** A policy's validity interval, see {@link InsurancePolicyRepository#findSpansOverlapping}. */
+public record PolicySpan(Long id, Long carId, LocalDate startDate, LocalDate endDate) {}
@@ -0,0 +1,85 @@
+package com.example.carins.repo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Rows for {@code fields=} selections. Each query is a Criteria tuple query selecting exactly the requested
+ * attribute paths, so the SQL reads only those columns and joins an association only when a path reaches
+ * past its id (a foreign key is read from the row itself). Rows come back as field name to value maps in
+ * the order of {@code fields}; no entity is loaded or managed.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class SparseFieldRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * @param fields  field name to dot-separated attribute path, in output order
+     * @param where   restriction on the root, or null for every row
+     * @param limit   first rows to return in {@code orderBy} order
+     * @param orderBy attribute paths to sort by, ascending
+     */
+    public <E> List<Map<String, Object>> findFields(Class<E> entity, Map<String, String> fields,
+                                                    BiFunction<CriteriaBuilder, Root<E>, Predicate> where,
+                                                    Limit limit, String... orderBy) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entity);
+
+        List<Selection<?>> columns = new ArrayList<>(fields.size());
+        fields.forEach((name, path) -> columns.add(path(root, path).alias(name)));
+        query.multiselect(columns);
+        if (where != null) {
+            query.where(where.apply(cb, root));
+        }
+        List<Order> order = new ArrayList<>(orderBy.length);
+        for (String path : orderBy) {
+            order.add(cb.asc(path(root, path)));
+        }
+        query.orderBy(order);
+
+        TypedQuery<Tuple> typed = em.createQuery(query);
+        if (limit.isLimited()) {
+            typed.setMaxResults(limit.max());
+        }
+        List<Tuple> tuples = typed.getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple t : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String name : fields.keySet()) {
+                row.put(name, t.get(name));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static Path<?> path(Root<?> root, String dotted) {
+        Path<?> p = root;
+        for (String attribute : dotted.split("\\.")) {
+            p = p.get(attribute);
+        }
+        return p;
+    }
+}
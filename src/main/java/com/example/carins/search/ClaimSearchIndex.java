@@ -0,0 +1,251 @@
+package com.example.carins.search;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over claim descriptions. Each claim becomes a document number in insertion order; its
+ * car, date, amount (in cents) and token count sit in parallel primitive arrays, and every term keeps its
+ * postings as a growing {@code int[]} of document numbers with a matching {@code int[]} of term frequencies,
+ * sorted because documents are only ever appended.
+ *
+ * <p>A search intersects the postings of all query terms (rarest first, galloping through the longer lists),
+ * applies the filters from the arrays, and keeps the best {@code k} in a heap, ranked by BM25 or by date.
+ * Tokens are lower-cased, accent-stripped runs of letters and digits.
+ */
+public final class ClaimSearchIndex {
+
+    public enum Order { RELEVANCE, DATE }
+
+    public record Filter(Long carId, LocalDate from, LocalDate to, BigDecimal minAmount, BigDecimal maxAmount) {
+        public static final Filter NONE = new Filter(null, null, null, null, null);
+    }
+
+    public record Hit(long claimId, long carId, LocalDate claimDate, String description, BigDecimal amount, double score) {}
+
+    public record Result(int matched, List<Hit> hits) {}
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // BM25 defaults
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final class Postings {
+        int[] docs = new int[2];
+        int[] freqs = new int[2];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final Map<Long, Integer> docByClaim = new HashMap<>();
+    private long[] claimIds = new long[1024];
+    private long[] carIds = new long[1024];
+    private long[] amountCents = new long[1024];
+    private int[] epochDays = new int[1024];
+    private int[] lengths = new int[1024];
+    private String[] descriptions = new String[1024];
+    private int size;
+    private long totalLength;
+
+    /** Lower-cased, accent-stripped runs of letters and digits. */
+    public static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> out = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                out.add(token);
+            }
+        }
+        return out;
+    }
+
+    /** Indexes a claim; returns false when it is already indexed (claims never change once registered). */
+    public boolean add(long claimId, long carId, LocalDate claimDate, String description, BigDecimal amount) {
+        List<String> tokens = tokenize(description);
+        Map<String, Integer> freqs = new LinkedHashMap<>();
+        for (String t : tokens) {
+            freqs.merge(t, 1, Integer::sum);
+        }
+        lock.writeLock().lock();
+        try {
+            if (docByClaim.putIfAbsent(claimId, size) != null) {
+                return false;
+            }
+            if (size == claimIds.length) {
+                grow();
+            }
+            int doc = size++;
+            claimIds[doc] = claimId;
+            carIds[doc] = carId;
+            epochDays[doc] = Math.toIntExact(claimDate.toEpochDay());
+            amountCents[doc] = cents(amount, RoundingMode.HALF_UP);
+            lengths[doc] = tokens.size();
+            descriptions[doc] = description;
+            totalLength += tokens.size();
+            freqs.forEach((t, f) -> terms.computeIfAbsent(t, k -> new Postings()).add(doc, f));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Claims containing every term of {@code text} that pass {@code filter}, best {@code k} first. */
+    public Result search(String text, Filter filter, Order order, int k) {
+        List<String> queryTerms = tokenize(text).stream().distinct().toList();
+        if (queryTerms.isEmpty() || k <= 0) {
+            return new Result(0, List.of());
+        }
+        boolean byCar = filter.carId() != null;
+        long car = byCar ? filter.carId() : 0;
+        int day0 = filter.from() != null ? Math.toIntExact(filter.from().toEpochDay()) : Integer.MIN_VALUE;
+        int day1 = filter.to() != null ? Math.toIntExact(filter.to().toEpochDay()) : Integer.MAX_VALUE;
+        long cents0 = filter.minAmount() != null ? cents(filter.minAmount(), RoundingMode.CEILING) : Long.MIN_VALUE;
+        long cents1 = filter.maxAmount() != null ? cents(filter.maxAmount(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[queryTerms.size()];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = terms.get(queryTerms.get(i));
+                if (lists[i] == null) {
+                    return new Result(0, List.of());
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(p -> p.size));
+            double[] idf = new double[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                idf[i] = Math.log(1 + (size - lists[i].size + 0.5) / (lists[i].size + 0.5));
+            }
+            double avgLength = size == 0 ? 1 : Math.max(1, (double) totalLength / size);
+
+            Comparator<Scored> worstFirst = order == Order.DATE
+                    ? Comparator.comparingInt((Scored s) -> epochDays[s.doc]).thenComparingLong(s -> claimIds[s.doc])
+                    : Comparator.comparingDouble((Scored s) -> s.score)
+                            .thenComparingInt(s -> epochDays[s.doc]).thenComparingLong(s -> claimIds[s.doc]);
+            PriorityQueue<Scored> top = new PriorityQueue<>(k, worstFirst);
+            int[] cursors = new int[lists.length];
+            int matched = 0;
+
+            Postings rarest = lists[0];
+            candidates:
+            for (int p = 0; p < rarest.size; p++) {
+                int doc = rarest.docs[p];
+                for (int i = 1; i < lists.length; i++) {
+                    cursors[i] = advance(lists[i], cursors[i], doc);
+                    if (cursors[i] == lists[i].size) {
+                        break candidates;
+                    }
+                    if (lists[i].docs[cursors[i]] != doc) {
+                        continue candidates;
+                    }
+                }
+                if ((byCar && carIds[doc] != car)
+                        || epochDays[doc] < day0 || epochDays[doc] > day1
+                        || amountCents[doc] < cents0 || amountCents[doc] > cents1) {
+                    continue;
+                }
+                matched++;
+                double score = 0;
+                double norm = K1 * (1 - B + B * lengths[doc] / avgLength);
+                for (int i = 0; i < lists.length; i++) {
+                    int tf = i == 0 ? rarest.freqs[p] : lists[i].freqs[cursors[i]];
+                    score += idf[i] * tf * (K1 + 1) / (tf + norm);
+                }
+                Scored candidate = new Scored(doc, score);
+                if (top.size() < k) {
+                    top.add(candidate);
+                } else if (worstFirst.compare(candidate, top.peek()) > 0) {
+                    top.poll();
+                    top.add(candidate);
+                }
+            }
+
+            Hit[] hits = new Hit[top.size()];
+            for (int i = hits.length - 1; i >= 0; i--) {
+                Scored s = top.poll();
+                hits[i] = new Hit(claimIds[s.doc], carIds[s.doc], LocalDate.ofEpochDay(epochDays[s.doc]),
+                        descriptions[s.doc], BigDecimal.valueOf(amountCents[s.doc], 2), s.score);
+            }
+            return new Result(matched, List.of(hits));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Scored(int doc, double score) {}
+
+    // first position at or after from whose doc is >= target; gallops, then binary-searches the last step
+    private static int advance(Postings list, int from, int target) {
+        int[] docs = list.docs;
+        if (from >= list.size || docs[from] >= target) {
+            return from;
+        }
+        int step = 1;
+        int lo = from;
+        int hi = from + 1;
+        while (hi < list.size && docs[hi] < target) {
+            lo = hi;
+            step <<= 1;
+            hi = from + step;
+        }
+        hi = Math.min(hi, list.size);
+        int pos = Arrays.binarySearch(docs, lo + 1, hi, target);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    private static long cents(BigDecimal amount, RoundingMode rounding) {
+        return amount.setScale(2, rounding).unscaledValue().longValueExact();
+    }
+
+    // caller holds the write lock
+    private void grow() {
+        int capacity = claimIds.length * 2;
+        claimIds = Arrays.copyOf(claimIds, capacity);
+        carIds = Arrays.copyOf(carIds, capacity);
+        amountCents = Arrays.copyOf(amountCents, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+    }
+}
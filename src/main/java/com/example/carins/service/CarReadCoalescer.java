@@ -0,0 +1,58 @@
+package com.example.carins.service;
+
+import com.example.carins.concurrent.SingleFlight;
+import com.example.carins.datasource.ReadYourWritesTracker;
+import com.example.carins.web.dto.HistoryEventDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Single-flight front for the hot per-car reads: identical concurrent requests share one
+ * {@link CarService} call. Cars written in the read-your-writes window bypass coalescing,
+ * otherwise a writer could join a read that started before its own commit.
+ */
+@Component
+public class CarReadCoalescer {
+
+    private record ReadKey(String endpoint, Long carId, LocalDate from, LocalDate to) {}
+
+    private final CarService service;
+    private final ReadYourWritesTracker readYourWrites;
+    private final SingleFlight<ReadKey, List<HistoryEventDto>> history;
+    private final SingleFlight<ReadKey, Boolean> validity;
+    private final boolean enabled;
+    private final Duration timeout;
+
+    public CarReadCoalescer(CarService service,
+                            ReadYourWritesTracker readYourWrites,
+                            MeterRegistry registry,
+                            @Value("${carins.coalescing.enabled:true}") boolean enabled,
+                            @Value("${carins.coalescing.timeout:PT5S}") Duration timeout) {
+        this.service = service;
+        this.readYourWrites = readYourWrites;
+        this.history = new SingleFlight<>("history", registry);
+        this.validity = new SingleFlight<>("insurance-valid", registry);
+        this.enabled = enabled;
+        this.timeout = timeout;
+    }
+
+    public List<HistoryEventDto> getHistory(Long carId, LocalDate from, LocalDate to) {
+        if (!enabled || readYourWrites.isRecentlyWritten(carId)) {
+            return service.getHistory(carId, from, to);
+        }
+        return history.execute(new ReadKey("history", carId, from, to), () -> service.getHistory(carId, from, to), timeout);
+    }
+
+    public boolean isInsuranceValid(Long carId, LocalDate date) {
+        if (!enabled || readYourWrites.isRecentlyWritten(carId)) {
+            return service.isInsuranceValid(carId, date);
+        }
+        return validity.execute(new ReadKey("insurance-valid", carId, date, date),
+                () -> service.isInsuranceValid(carId, date), timeout);
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.carins.service;
 
-import com.example.carins.constants.HistoryEventType;
+import com.example.carins.concurrent.CompositeRead;
+import com.example.carins.datasource.ReadYourWritesTracker;
+import com.example.carins.datasource.ShardMap;
 import com.example.carins.exception.InvalidDateException;
 import com.example.carins.exception.ResourceNotFoundException;
 import com.example.carins.exception.policy.PolicyEndDateException;
@@ -10,47 +12,133 @@ import com.example.carins.model.InsurancePolicy;
 import com.example.carins.repo.CarRepository;
 import com.example.carins.repo.ClaimRepository;
 import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.SparseFieldRepository;
 import com.example.carins.web.dto.ClaimDto;
 import com.example.carins.web.dto.CreateClaimRequest;
 import com.example.carins.web.dto.HistoryEventDto;
 import com.example.carins.web.dto.PolicyResponse;
-import jakarta.transaction.Transactional;
-import org.springframework.http.HttpStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.function.Supplier;
 
 @Service
 public class CarService {
 
+    /** Fields of a car for {@code fields=}, in {@code CarDto} order; only the owner's name and email need the join. */
+    public static final Map<String, String> CAR_FIELDS = FieldSet.catalog(
+            "id", "id",
+            "vin", "vin",
+            "make", "make",
+            "model", "model",
+            "year", "yearOfManufacture",
+            "ownerId", "owner.id",
+            "ownerName", "owner.name",
+            "ownerEmail", "owner.email");
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
     private final CarRepository carRepository;
     private final InsurancePolicyRepository policyRepository;
     private final ClaimRepository claimRepository;
+    private final ReadYourWritesTracker readYourWrites;
+    private final CarTimelineService timeline;
+    private final PolicyExpiryTimeline expiries;
+    private final FleetCoverageService coverage;
+    private final ClaimSearchService claimSearch;
+    private final ClaimAnomalyDetector anomalies;
+    private final CompositeReads reads;
+    private final SparseFieldRepository sparse;
+    private final ShardMap shards;
+    private final TransactionTemplate readTx;
 
-    public CarService(CarRepository carRepository, InsurancePolicyRepository policyRepository, ClaimRepository claimRepository) {
+    public CarService(CarRepository carRepository, InsurancePolicyRepository policyRepository, ClaimRepository claimRepository,
+                      ReadYourWritesTracker readYourWrites, CarTimelineService timeline, PolicyExpiryTimeline expiries,
+                      FleetCoverageService coverage, ClaimSearchService claimSearch, ClaimAnomalyDetector anomalies,
+                      CompositeReads reads, SparseFieldRepository sparse, ShardMap shards,
+                      PlatformTransactionManager transactionManager) {
         this.carRepository = carRepository;
         this.policyRepository = policyRepository;
         this.claimRepository = claimRepository;
-
+        this.readYourWrites = readYourWrites;
+        this.timeline = timeline;
+        this.expiries = expiries;
+        this.coverage = coverage;
+        this.claimSearch = claimSearch;
+        this.anomalies = anomalies;
+        this.reads = reads;
+        this.sparse = sparse;
+        this.shards = shards;
+        // forks of a composite read each run in one of these, so that routing sends them to the replica
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
     }
 
+    /** Every car in id order; sharded, one read-only transaction per shard side by side. */
     public List<Car> listCars() {
-        return carRepository.findAll();
+        return listCars(0L, Limit.unlimited());
+    }
+
+    /**
+     * Cars with id greater than {@code afterId} (null = from the start), at most {@code limit} of them
+     * ({@link #DEFAULT_LIMIT} when not positive, capped at {@link #MAX_LIMIT}), in id order.
+     */
+    public List<Car> listCars(Long afterId, int limit) {
+        return listCars(afterId != null ? afterId : 0L, Limit.of(limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT)));
+    }
+
+    // each shard returns its own first page, the merge keeps the first page overall
+    private List<Car> listCars(long afterId, Limit limit) {
+        return CompositeReads.merge(
+                reads.scatter("cars", shard ->
+                        readTx.execute(s -> carRepository.findByIdGreaterThanOrderByIdAsc(afterId, limit))),
+                Comparator.comparing(Car::getId), limit.isLimited() ? limit.max() : Integer.MAX_VALUE);
+    }
+
+    /**
+     * Only the selected columns of every car in id order, without the owner join unless an owner field is
+     * selected. The id is always selected: the shards merge on it and the next page starts after it.
+     */
+    public List<Map<String, Object>> listCars(FieldSet fields) {
+        return listCars(fields, 0L, Limit.unlimited());
     }
 
+    /** {@link #listCars(FieldSet)} paged like {@link #listCars(Long, int)}. */
+    public List<Map<String, Object>> listCars(FieldSet fields, Long afterId, int limit) {
+        return listCars(fields, afterId != null ? afterId : 0L,
+                Limit.of(limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT)));
+    }
+
+    private List<Map<String, Object>> listCars(FieldSet fields, long afterId, Limit limit) {
+        Map<String, String> paths = fields.including("id", CAR_FIELDS).paths();
+        return CompositeReads.merge(
+                reads.scatter("car-fields", shard -> sparse.findFields(Car.class, paths,
+                        (cb, car) -> cb.greaterThan(car.get("id"), afterId), limit, "id")),
+                Comparator.comparing(row -> (Long) row.get("id")), limit.isLimited() ? limit.max() : Integer.MAX_VALUE);
+    }
+
+    // not transactional: the two reads run side by side, each in a read-only transaction of its own
     public boolean isInsuranceValid(Long carId, LocalDate date) {
         int y = date.getYear();
         if (y < 1900 || y > 2100) {
             throw new InvalidDateException("Date out of supported range (1900–2100): " + date);
         }
-        if (!carRepository.existsById(carId)) {
-            throw new ResourceNotFoundException("Car " + carId + " not found");
-        }
-        return policyRepository.existsActiveOnDate(carId, date);
+        return shards.onCar(carId, () -> {
+            try (CompositeRead read = reads.open("insurance-valid", readYourWrites.isRecentlyWritten(carId))) {
+                read.check("car", () -> requireCar(carId));
+                Supplier<Boolean> active =
+                        read.fork("policy", () -> readTx.execute(s -> policyRepository.existsActiveOnDate(carId, date)));
+                read.join();
+                return active.get();
+            }
+        });
     }
 
     public LocalDate parseDate(String input) {
@@ -61,8 +149,16 @@ public class CarService {
         }
     }
 
+    @Transactional
     public PolicyResponse createPolicy(Long carId, LocalDate startDate, LocalDate endDate, String provider) {
+        return createPolicy(carId, startDate, endDate, provider, null);
+    }
+
+    /** {@code intakeHandle} is set for writes applied from the journal, see {@link JournaledWriteService}. */
+    @Transactional
+    public PolicyResponse createPolicy(Long carId, LocalDate startDate, LocalDate endDate, String provider, String intakeHandle) {
         validateDates(startDate, endDate);
+        shards.bindCar(carId);
 
         Car car = carRepository.findById(carId)
                 .orElseThrow(() -> new ResourceNotFoundException("Car not found"));
@@ -72,13 +168,20 @@ public class CarService {
         p.setProvider(provider);
         p.setStartDate(startDate);
         p.setEndDate(endDate);
+        p.setIntakeHandle(intakeHandle);
 
         InsurancePolicy saved = policyRepository.save(p);
+        timeline.policyCreated(saved);
+        expiries.policySaved(saved);
+        coverage.policyChanged(carId);
+        readYourWrites.recordWrite(carId);
         return toPolicyResponse(saved);
     }
 
+    @Transactional
     public PolicyResponse updatePolicy(Long policyId, LocalDate startDate, LocalDate endDate, String provider) {
         validateDates(startDate, endDate);
+        shards.bindPolicy(policyId);
 
         InsurancePolicy existing = policyRepository.findById(policyId)
                 .orElseThrow(() -> new ResourceNotFoundException("Policy not found"));
@@ -88,24 +191,39 @@ public class CarService {
         existing.setEndDate(endDate);
 
         InsurancePolicy saved = policyRepository.save(existing);
+        timeline.policyUpdated(saved);
+        expiries.policySaved(saved);
+        coverage.policyChanged(saved.getCar().getId());
+        readYourWrites.recordWrite(saved.getCar().getId());
         return toPolicyResponse(saved);
     }
 
     @Transactional
     public ClaimDto registerClaim(Long carId, CreateClaimRequest req) {
+        return registerClaim(carId, req, null);
+    }
+
+    @Transactional
+    public ClaimDto registerClaim(Long carId, CreateClaimRequest req, String intakeHandle) {
+        shards.bindCar(carId);
         Car car = carRepository.findById(carId)
                 .orElseThrow(() -> new ResourceNotFoundException("Car not found"));
 
         Claim claim = new Claim(car, req.claimDate(), req.description(), req.amount());
+        claim.setIntakeHandle(intakeHandle);
         Claim saved = claimRepository.save(claim);
-
-        return new ClaimDto(
+        ClaimDto dto = new ClaimDto(
                 saved.getId(),
                 saved.getCar().getId(),
                 saved.getClaimDate(),
                 saved.getDescription(),
-                saved.getAmount()
+                saved.getAmount(),
+                anomalies.screen(saved.getId(), carId, saved.getClaimDate(), saved.getDescription(), saved.getAmount())
         );
+        timeline.claimRegistered(dto);
+        claimSearch.claimRegistered(dto);
+        readYourWrites.recordWrite(carId);
+        return dto;
     }
 
     private PolicyResponse toPolicyResponse(InsurancePolicy p) {
@@ -118,72 +236,52 @@ public class CarService {
         );
     }
 
-    // ------ Car history service merge ------
+    // ------ Car history ------
 
-    private static final Map<HistoryEventType, Integer> SAME_DAY_ORDER;
-    static {
-        Map<HistoryEventType, Integer> order = new HashMap<>();
-        order.put(HistoryEventType.POLICY_ENDED, 0);
-        order.put(HistoryEventType.POLICY_STARTED, 1);
-        order.put(HistoryEventType.CLAIM_REGISTERED, 2);
-        SAME_DAY_ORDER = Map.copyOf(order);
+    /**
+     * Events dated within [from, to]; either bound may be null for an open window. The car check and the
+     * event read run side by side, each in a read-only transaction; an unknown car cancels the event read.
+     */
+    public List<HistoryEventDto> getHistory(Long carId, LocalDate from, LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new InvalidDateException("'to' must be on or after 'from'");
+        }
+        return shards.onCar(carId, () -> {
+            try (CompositeRead read = reads.open("history", readYourWrites.isRecentlyWritten(carId))) {
+                read.check("car", () -> requireCar(carId));
+                Supplier<List<HistoryEventDto>> events =
+                        read.fork("events", () -> readTx.execute(s -> timeline.history(carId, from, to)));
+                read.join();
+                return events.get();
+            }
+        });
     }
 
-    public List<HistoryEventDto> getHistory(Long carId) {
-        if (!carRepository.existsById(carId)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Car " + carId + " not found");
+    /** {@link #getHistory} restricted to the selected fields; the event read selects only their columns. */
+    public List<Map<String, Object>> getHistory(Long carId, LocalDate from, LocalDate to, FieldSet fields) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new InvalidDateException("'to' must be on or after 'from'");
         }
-
-        List<HistoryEventDto> events = new ArrayList<>();
-        DateTimeFormatter fmt = DateTimeFormatter.ISO_DATE;
-
-        // Policies → start/end (refId = policy id)
-        List<InsurancePolicy> policies = policyRepository.findByCarId(carId);
-        for (InsurancePolicy p : policies) {
-            events.add(new HistoryEventDto(
-                    p.getStartDate(),
-                    HistoryEventType.POLICY_STARTED,
-                    "Policy #" + p.getId() + " (" + safe(p.getProvider()) + ") started on " + fmt.format(p.getStartDate()),
-                    p.getId()
-            ));
-            if (p.getEndDate() != null) {
-                events.add(new HistoryEventDto(
-                        p.getEndDate(),
-                        HistoryEventType.POLICY_ENDED,
-                        "Policy #" + p.getId() + " (" + safe(p.getProvider()) + ") ended on " + fmt.format(p.getEndDate()),
-                        p.getId()
-                ));
+        return shards.onCar(carId, () -> {
+            try (CompositeRead read = reads.open("history", readYourWrites.isRecentlyWritten(carId))) {
+                read.check("car", () -> requireCar(carId));
+                Supplier<List<Map<String, Object>>> events =
+                        read.fork("events", () -> readTx.execute(s -> timeline.history(carId, from, to, fields)));
+                read.join();
+                return events.get();
             }
-        }
+        });
+    }
 
-        // Claims (refId = claim id)
-        List<Claim> claims = claimRepository.findByCarIdOrderByClaimDateAsc(carId);
-        for (Claim c : claims) {
-            events.add(new HistoryEventDto(
-                    c.getClaimDate(),
-                    HistoryEventType.CLAIM_REGISTERED,
-                    "Claim #" + c.getId() + " on " + fmt.format(c.getClaimDate()) +
-                            " for amount " + c.getAmount() + " — " + c.getDescription(),
-                    c.getId()
-            ));
+    private void requireCar(Long carId) {
+        if (!Boolean.TRUE.equals(readTx.execute(s -> carRepository.existsById(carId)))) {
+            throw new ResourceNotFoundException("Car " + carId + " not found");
         }
-
-        // Chronological order, then domain order for same-day ties, then a stable tiebreaker
-        events.sort(Comparator
-                .comparing(HistoryEventDto::date)
-                .thenComparing(e -> SAME_DAY_ORDER.getOrDefault(e.type(), Integer.MAX_VALUE))
-                .thenComparing(HistoryEventDto::type)   // stable fallback
-                .thenComparing(e -> e.refId() == null ? Long.MAX_VALUE : e.refId())); // final stability
-
-        return events;
     }
 
-    private static String safe(String s) {
-        return s == null ? "Unknown" : s;
-    }
     // ------ Validation helpers ------
 
-    private static void validateDates(LocalDate start, LocalDate end) {
+    static void validateDates(LocalDate start, LocalDate end) {
         if (start == null) throw new PolicyEndDateException("startDate is required");
         if (end == null) throw new PolicyEndDateException("endDate is required");
         if (end.isBefore(start)) throw new PolicyEndDateException("endDate must be on or after startDate");
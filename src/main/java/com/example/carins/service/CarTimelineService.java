@@ -0,0 +1,368 @@
+package com.example.carins.service;
+
+import com.example.carins.concurrent.CompositeRead;
+import com.example.carins.constants.HistoryEventType;
+import com.example.carins.datasource.ShardMap;
+import com.example.carins.model.CarHistoryEvent;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+import com.example.carins.model.OwnershipPeriod;
+import com.example.carins.repo.CarHistoryEventRepository;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.OwnershipPeriodRepository;
+import com.example.carins.repo.SparseFieldRepository;
+import com.example.carins.web.dto.ClaimDto;
+import com.example.carins.web.dto.HistoryEventDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Car history, either rebuilt from policies, claims and ownership periods or read from the materialized
+ * {@code car_history_event} table. Writers append to the table in their own transaction; until the
+ * startup backfill has finished, a write rebuilds the whole car instead so that every car with rows
+ * in the table is complete, and reads keep using the rebuild path. The table only holds hot claims:
+ * archived ones are merged back in from the archive when the window reaches it.
+ */
+@Service
+public class CarTimelineService {
+
+    /** Fields of a history event for {@code fields=}, in {@code HistoryEventDto} order, as columns of the table. */
+    public static final Map<String, String> HISTORY_FIELDS = FieldSet.catalog(
+            "date", "eventDate",
+            "type", "type",
+            "description", "description",
+            "refId", "refId");
+
+    private static final Map<HistoryEventType, Integer> SAME_DAY_ORDER;
+    static {
+        Map<HistoryEventType, Integer> order = new HashMap<>();
+        order.put(HistoryEventType.POLICY_ENDED, 0);
+        order.put(HistoryEventType.POLICY_STARTED, 1);
+        order.put(HistoryEventType.CLAIM_REGISTERED, 2);
+        // appended so that type_order values already in the table stay valid
+        order.put(HistoryEventType.OWNERSHIP_TRANSFERRED, 3);
+        SAME_DAY_ORDER = Map.copyOf(order);
+    }
+
+    // Chronological order, then domain order for same-day ties, then a stable tiebreaker
+    private static final Comparator<HistoryEventDto> EVENT_ORDER = Comparator
+            .comparing(HistoryEventDto::date)
+            .thenComparing(e -> typeOrder(e.type()))
+            .thenComparing(HistoryEventDto::type)   // stable fallback
+            .thenComparing(e -> e.refId() == null ? Long.MAX_VALUE : e.refId()); // final stability
+
+    private static final Set<HistoryEventType> POLICY_TYPES =
+            EnumSet.of(HistoryEventType.POLICY_STARTED, HistoryEventType.POLICY_ENDED);
+
+    private final CarHistoryEventRepository eventRepository;
+    private final CarRepository carRepository;
+    private final InsurancePolicyRepository policyRepository;
+    private final OwnershipPeriodRepository ownershipRepository;
+    private final ClaimArchiveService claimArchive;
+    private final CompositeReads reads;
+    private final SparseFieldRepository sparse;
+    private final ShardMap shards;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readTx;
+    private final boolean enabled;
+    private final AtomicBoolean backfillComplete = new AtomicBoolean();
+
+    public CarTimelineService(CarHistoryEventRepository eventRepository,
+                              CarRepository carRepository,
+                              InsurancePolicyRepository policyRepository,
+                              OwnershipPeriodRepository ownershipRepository,
+                              ClaimArchiveService claimArchive,
+                              CompositeReads reads,
+                              SparseFieldRepository sparse,
+                              ShardMap shards,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${carins.history.materialized.enabled:true}") boolean enabled) {
+        this.eventRepository = eventRepository;
+        this.carRepository = carRepository;
+        this.policyRepository = policyRepository;
+        this.ownershipRepository = ownershipRepository;
+        this.claimArchive = claimArchive;
+        this.reads = reads;
+        this.sparse = sparse;
+        this.shards = shards;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    /** True once every car's history is in the table and reads can use it. */
+    public boolean isMaterialized() {
+        return enabled && backfillComplete.get();
+    }
+
+    /**
+     * Events dated within [from, to]; either bound may be null for an open window. Caller checks the car exists.
+     * Not transactional: until the table is complete, the policies, claims and owners are read side by side,
+     * each in a read-only transaction (the caller's, when the reads run on its thread). From the table, the read
+     * runs in the caller's transaction.
+     */
+    public List<HistoryEventDto> history(Long carId, LocalDate from, LocalDate to) {
+        if (!isMaterialized()) {
+            try (CompositeRead read = reads.open("history-rebuild")) {
+                Supplier<List<InsurancePolicy>> policies =
+                        read.fork("policies", () -> readTx.execute(s -> policyRepository.findByCarId(carId)));
+                Supplier<List<ClaimDto>> claims = read.fork("claims", () -> claimArchive.claimsForCar(carId, from, to));
+                Supplier<List<OwnershipPeriod>> owners =
+                        read.fork("owners", () -> readTx.execute(s -> ownershipRepository.findByCarIdInOrder(carId)));
+                read.join();
+                return events(policies.get(), claims.get(), owners.get(), from, to);
+            }
+        }
+        return materialized(carId, from, to, claimArchive.archivedClaimsForCar(carId, from, to));
+    }
+
+    private List<HistoryEventDto> materialized(Long carId, LocalDate from, LocalDate to, List<ClaimDto> archived) {
+        LocalDate lo = from != null ? from : ClaimArchiveService.EARLIEST;
+        LocalDate hi = to != null ? to : ClaimArchiveService.LATEST;
+        List<HistoryEventDto> events = eventRepository
+                .findByCarIdAndEventDateBetweenOrderByEventDateAscTypeOrderAscRefIdAsc(carId, lo, hi)
+                .stream()
+                .map(e -> new HistoryEventDto(e.getEventDate(), e.getType(), e.getDescription(), e.getRefId()))
+                .toList();
+        if (archived.isEmpty()) {
+            return events;
+        }
+        List<HistoryEventDto> merged = new ArrayList<>(events);
+        for (ClaimDto c : archived) {
+            merged.add(claimEvent(c));
+        }
+        merged.sort(EVENT_ORDER);
+        return merged;
+    }
+
+    /**
+     * {@link #history} restricted to the selected fields; from the table, only their columns are read unless
+     * archived claims have to be merged in.
+     */
+    public List<Map<String, Object>> history(Long carId, LocalDate from, LocalDate to, FieldSet fields) {
+        if (!isMaterialized()) {
+            return history(carId, from, to).stream().map(e -> pick(e, fields)).toList();
+        }
+        List<ClaimDto> archived = claimArchive.archivedClaimsForCar(carId, from, to);
+        if (!archived.isEmpty()) {
+            return materialized(carId, from, to, archived).stream().map(e -> pick(e, fields)).toList();
+        }
+        LocalDate lo = from != null ? from : ClaimArchiveService.EARLIEST;
+        LocalDate hi = to != null ? to : ClaimArchiveService.LATEST;
+        return sparse.findFields(CarHistoryEvent.class, fields.paths(),
+                (cb, e) -> cb.and(cb.equal(e.get("carId"), carId), cb.between(e.<LocalDate>get("eventDate"), lo, hi)),
+                Limit.unlimited(), "eventDate", "typeOrder", "refId");
+    }
+
+    private static Map<String, Object> pick(HistoryEventDto e, FieldSet fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String name : fields.names()) {
+            row.put(name, switch (name) {
+                case "date" -> e.date();
+                case "type" -> e.type();
+                case "description" -> e.description();
+                case "refId" -> e.refId();
+                default -> throw new IllegalArgumentException(name);
+            });
+        }
+        return row;
+    }
+
+    // ------ Writes, in the caller's transaction ------
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void policyCreated(InsurancePolicy p) {
+        if (!enabled) return;
+        Long carId = p.getCar().getId();
+        if (!backfillComplete.get()) {
+            materialize(carId);
+            return;
+        }
+        eventRepository.saveAll(toRows(carId, policyEvents(p, null, null)));
+    }
+
+    /** Replaces the events of an updated policy. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void policyUpdated(InsurancePolicy p) {
+        if (!enabled) return;
+        Long carId = p.getCar().getId();
+        if (!backfillComplete.get()) {
+            materialize(carId);
+            return;
+        }
+        eventRepository.deleteByRef(carId, p.getId(), POLICY_TYPES);
+        eventRepository.saveAll(toRows(carId, policyEvents(p, null, null)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void claimRegistered(ClaimDto c) {
+        if (!enabled) return;
+        if (!backfillComplete.get()) {
+            materialize(c.carId());
+            return;
+        }
+        eventRepository.save(toRow(c.carId(), claimEvent(c)));
+    }
+
+    /** {@code period} has just been opened for the new owner, {@code previous} held the car until the day before. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ownershipTransferred(OwnershipPeriod period, Owner previous) {
+        if (!enabled) return;
+        Long carId = period.getCar().getId();
+        if (!backfillComplete.get()) {
+            materialize(carId);
+            return;
+        }
+        eventRepository.save(toRow(carId, transferEvent(previous, period)));
+    }
+
+    // ------ Backfill ------
+
+    /**
+     * Materializes every car that has no rows yet, shard by shard and {@code batchSize} cars per transaction,
+     * then switches reads to the table. Cars that already have rows were kept complete by the writers. Returns the number
+     * of cars rebuilt.
+     */
+    public int backfill(int batchSize) {
+        if (!enabled) return 0;
+        int rebuilt = shards.onEachShard(shard -> backfillShard(batchSize)).stream().mapToInt(Integer::intValue).sum();
+        backfillComplete.set(true);
+        return rebuilt;
+    }
+
+    private int backfillShard(int batchSize) {
+        tx.executeWithoutResult(s -> eventRepository.widenTypeColumn());
+        int rebuilt = 0;
+        long afterId = 0;
+        while (true) {
+            long cursor = afterId;
+            List<Long> ids = tx.execute(s -> {
+                List<Long> batch = carRepository.findIdsWithoutHistory(cursor, Limit.of(batchSize));
+                batch.forEach(this::materialize);
+                return batch;
+            });
+            if (ids.isEmpty()) break;
+            rebuilt += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+        return rebuilt;
+    }
+
+    // the car row lock orders this against concurrent writers doing the same for the car
+    private void materialize(Long carId) {
+        carRepository.lockById(carId);
+        eventRepository.deleteByCarId(carId);
+        eventRepository.saveAll(toRows(carId, events(policyRepository.findByCarId(carId),
+                claimArchive.hotClaimsForCar(carId), ownershipRepository.findByCarIdInOrder(carId), null, null)));
+    }
+
+    // ------ Rebuild from source rows ------
+
+    // claims come already windowed (archived ones only when the window reaches back that far),
+    // ownership periods in start order
+    private static List<HistoryEventDto> events(List<InsurancePolicy> policies, List<ClaimDto> claims,
+                                                List<OwnershipPeriod> owners, LocalDate from, LocalDate to) {
+        List<HistoryEventDto> events = new ArrayList<>();
+
+        // Policies → start/end (refId = policy id)
+        for (InsurancePolicy p : policies) {
+            events.addAll(policyEvents(p, from, to));
+        }
+
+        // Claims (refId = claim id)
+        for (ClaimDto c : claims) {
+            events.add(claimEvent(c));
+        }
+
+        // Every period after the first is a transfer (refId = period id)
+        for (int i = 1; i < owners.size(); i++) {
+            OwnershipPeriod p = owners.get(i);
+            if (inWindow(p.getStartDate(), from, to)) {
+                events.add(transferEvent(owners.get(i - 1).getOwner(), p));
+            }
+        }
+
+        events.sort(EVENT_ORDER);
+        return events;
+    }
+
+    private static List<HistoryEventDto> policyEvents(InsurancePolicy p, LocalDate from, LocalDate to) {
+        DateTimeFormatter fmt = DateTimeFormatter.ISO_DATE;
+        List<HistoryEventDto> events = new ArrayList<>(2);
+        if (inWindow(p.getStartDate(), from, to)) {
+            events.add(new HistoryEventDto(
+                    p.getStartDate(),
+                    HistoryEventType.POLICY_STARTED,
+                    "Policy #" + p.getId() + " (" + safe(p.getProvider()) + ") started on " + fmt.format(p.getStartDate()),
+                    p.getId()
+            ));
+        }
+        if (p.getEndDate() != null && inWindow(p.getEndDate(), from, to)) {
+            events.add(new HistoryEventDto(
+                    p.getEndDate(),
+                    HistoryEventType.POLICY_ENDED,
+                    "Policy #" + p.getId() + " (" + safe(p.getProvider()) + ") ended on " + fmt.format(p.getEndDate()),
+                    p.getId()
+            ));
+        }
+        return events;
+    }
+
+    private static HistoryEventDto claimEvent(ClaimDto c) {
+        return new HistoryEventDto(
+                c.claimDate(),
+                HistoryEventType.CLAIM_REGISTERED,
+                "Claim #" + c.id() + " on " + DateTimeFormatter.ISO_DATE.format(c.claimDate()) +
+                        " for amount " + c.amount() + " — " + c.description(),
+                c.id()
+        );
+    }
+
+    private static HistoryEventDto transferEvent(Owner previous, OwnershipPeriod period) {
+        return new HistoryEventDto(
+                period.getStartDate(),
+                HistoryEventType.OWNERSHIP_TRANSFERRED,
+                "Ownership transferred from " + previous.getName() + " (#" + previous.getId() + ") to " +
+                        period.getOwner().getName() + " (#" + period.getOwner().getId() + ") on " +
+                        DateTimeFormatter.ISO_DATE.format(period.getStartDate()),
+                period.getId()
+        );
+    }
+
+    private static List<CarHistoryEvent> toRows(Long carId, List<HistoryEventDto> events) {
+        List<CarHistoryEvent> rows = new ArrayList<>(events.size());
+        for (HistoryEventDto e : events) {
+            rows.add(toRow(carId, e));
+        }
+        return rows;
+    }
+
+    private static CarHistoryEvent toRow(Long carId, HistoryEventDto e) {
+        return new CarHistoryEvent(carId, e.date(), typeOrder(e.type()), e.type(), e.refId(), e.description());
+    }
+
+    private static int typeOrder(HistoryEventType type) {
+        return SAME_DAY_ORDER.getOrDefault(type, Integer.MAX_VALUE);
+    }
+
+    private static String safe(String s) {
+        return s == null ? "Unknown" : s;
+    }
+
+    private static boolean inWindow(LocalDate date, LocalDate from, LocalDate to) {
+        return (from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to));
+    }
+}
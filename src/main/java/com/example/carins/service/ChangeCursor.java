@@ -0,0 +1,38 @@
+package com.example.carins.service;
+
+import com.example.carins.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Position in a change feed: the (updatedAt, id) of the last row a consumer has seen.
+ * Serialized as an opaque url-safe token so clients don't start building their own.
+ */
+public record ChangeCursor(Instant updatedAt, long id) {
+
+    public static final ChangeCursor START = new ChangeCursor(Instant.EPOCH, 0L);
+
+    public String encode() {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, updatedAt);
+        String raw = micros + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static ChangeCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int sep = raw.indexOf(':');
+            long micros = Long.parseLong(raw.substring(0, sep));
+            long id = Long.parseLong(raw.substring(sep + 1));
+            return new ChangeCursor(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new InvalidCursorException("Invalid change cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.carins.service;
+
+import com.example.carins.model.ArchivedClaim;
+import com.example.carins.model.Car;
+import com.example.carins.model.Claim;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.repo.ArchivedClaimRepository;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.web.dto.CarDto;
+import com.example.carins.web.dto.ChangePage;
+import com.example.carins.web.dto.ClaimDto;
+import com.example.carins.web.dto.PolicyResponse;
+import com.example.carins.web.mapper.CarMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Incremental sync for downstream consumers. Rows are returned in (updatedAt, id) order,
+ * starting strictly after the cursor, so a consumer can keep polling with the last
+ * {@code nextCursor} it received and only ever see rows that changed since then.
+ * <p>
+ * updatedAt is stamped when the row is flushed, not when its transaction commits, so a slow
+ * transaction can commit a row behind a cursor that was already handed out. The feed therefore
+ * never reads past {@code now - carins.changes.settle}: every row stamped before that horizon has
+ * committed, as long as the setting is longer than the slowest write transaction.
+ * <p>
+ * Archived claims leave the claim table; the claims feed reports them as tombstones in
+ * {@link ChangePage#removed()}, ordered by archivedAt in the same keyset as the live rows.
+ * <p>
+ * With sharding, every shard reads its first page after the cursor and the pages are merged in feed order;
+ * ids are unique across shards, so the cursor means the same on all of them.
+ */
+@Service
+public class ChangeFeedService {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private final CarRepository carRepository;
+    private final InsurancePolicyRepository policyRepository;
+    private final ClaimRepository claimRepository;
+    private final ArchivedClaimRepository archivedClaimRepository;
+    private final CarMapper carMapper;
+    private final CompositeReads reads;
+    private final TransactionTemplate readTx;
+    private final Duration settle;
+
+    public ChangeFeedService(CarRepository carRepository,
+                             InsurancePolicyRepository policyRepository,
+                             ClaimRepository claimRepository,
+                             ArchivedClaimRepository archivedClaimRepository,
+                             CarMapper carMapper,
+                             CompositeReads reads,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${carins.changes.settle:PT5S}") Duration settle) {
+        this.carRepository = carRepository;
+        this.policyRepository = policyRepository;
+        this.claimRepository = claimRepository;
+        this.archivedClaimRepository = archivedClaimRepository;
+        this.carMapper = carMapper;
+        this.reads = reads;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.settle = settle;
+    }
+
+    /** Not transactional: each shard is read in a read-only transaction of its own. */
+    public ChangePage<CarDto> carsChangedSince(String since, int limit) {
+        ChangeCursor cursor = ChangeCursor.decode(since);
+        int size = clamp(limit);
+        Instant upTo = horizon();
+        return page(scatter("car-changes", size, () -> changes(
+                carRepository.findChangedSince(cursor.updatedAt(), cursor.id(), upTo, Limit.of(size + 1)),
+                Car::getUpdatedAt, Car::getId, carMapper::toDto)), size, cursor);
+    }
+
+    public ChangePage<PolicyResponse> policiesChangedSince(String since, int limit) {
+        ChangeCursor cursor = ChangeCursor.decode(since);
+        int size = clamp(limit);
+        Instant upTo = horizon();
+        return page(scatter("policy-changes", size, () -> changes(
+                policyRepository.findChangedSince(cursor.updatedAt(), cursor.id(), upTo, Limit.of(size + 1)),
+                InsurancePolicy::getUpdatedAt, InsurancePolicy::getId, p -> new PolicyResponse(
+                        p.getId(),
+                        p.getCar().getId(),
+                        p.getProvider(),
+                        p.getStartDate(),
+                        p.getEndDate()
+                ))), size, cursor);
+    }
+
+    public ChangePage<ClaimDto> claimsChangedSince(String since, int limit) {
+        ChangeCursor cursor = ChangeCursor.decode(since);
+        int size = clamp(limit);
+        Instant upTo = horizon();
+        return page(scatter("claim-changes", size, () -> {
+            List<Claim> rows = claimRepository.findChangedSince(cursor.updatedAt(), cursor.id(), upTo, Limit.of(size + 1));
+            List<ArchivedClaim> archived = archivedClaimRepository.findArchivedSince(cursor.updatedAt(), cursor.id(),
+                    upTo, Limit.of(size + 1));
+            List<Change<ClaimDto>> changes = new ArrayList<>(changes(rows, Claim::getUpdatedAt, Claim::getId,
+                    c -> new ClaimDto(
+                            c.getId(),
+                            c.getCar().getId(),
+                            c.getClaimDate(),
+                            c.getDescription(),
+                            c.getAmount()
+                    )));
+            changes.addAll(changes(archived, ArchivedClaim::getArchivedAt, ArchivedClaim::getId, a -> null));
+            changes.sort(IN_FEED_ORDER);
+            return changes;
+        }), size, cursor);
+    }
+
+    // each shard returns its own first changes after the cursor, the merge keeps the first ones overall
+    private <D> List<Change<D>> scatter(String name, int size, Supplier<List<Change<D>>> read) {
+        return CompositeReads.merge(reads.scatter(name, shard -> readTx.execute(s -> read.get())),
+                IN_FEED_ORDER, size + 1);
+    }
+
+    // rows stamped after this may still belong to an open transaction
+    private Instant horizon() {
+        return Instant.now().minus(settle);
+    }
+
+    // a changed row, or a tombstone (item == null) for a row that left the table
+    private record Change<D>(Instant at, long id, D item) {}
+
+    private static final Comparator<Change<?>> IN_FEED_ORDER =
+            Comparator.<Change<?>, Instant>comparing(Change::at).thenComparingLong(Change::id);
+
+    private static <E, D> List<Change<D>> changes(List<E> rows,
+                                                  Function<E, Instant> at,
+                                                  Function<E, Long> id,
+                                                  Function<E, D> mapper) {
+        return rows.stream().map(r -> new Change<>(at.apply(r), id.apply(r), mapper.apply(r))).toList();
+    }
+
+    // one extra row per source is fetched to know whether another page exists without a count query
+    private static <D> ChangePage<D> page(List<Change<D>> changes, int size, ChangeCursor from) {
+        boolean hasMore = changes.size() > size;
+        List<Change<D>> slice = hasMore ? changes.subList(0, size) : changes;
+        if (slice.isEmpty()) {
+            return new ChangePage<>(List.of(), List.of(), from.encode(), false);
+        }
+        Change<D> last = slice.get(slice.size() - 1);
+        ChangeCursor next = new ChangeCursor(last.at(), last.id());
+        return new ChangePage<>(
+                slice.stream().map(Change::item).filter(item -> item != null).toList(),
+                slice.stream().filter(c -> c.item() == null).map(Change::id).toList(),
+                next.encode(),
+                hasMore);
+    }
+
+    private static int clamp(int limit) {
+        if (limit <= 0) return DEFAULT_LIMIT;
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
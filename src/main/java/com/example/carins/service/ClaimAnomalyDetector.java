@@ -0,0 +1,195 @@
+package com.example.carins.service;
+
+import com.example.carins.constants.ClaimFlag;
+import com.example.carins.search.ClaimSearchIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Online screening of claims as they are registered, so suspicious ones are flagged at intake instead of in
+ * the next offline export. Each car keeps its last {@code ring-size} claims (epoch day, amount in
+ * cents, description fingerprint) in fixed primitive ring buffers, so a check is a bounded scan of that ring
+ * and never touches the claim table. The fingerprint ignores case, accents, punctuation and word order.
+ *
+ * <ul>
+ *   <li>{@link ClaimFlag#NEAR_DUPLICATE}: a recent claim on the car within {@code duplicate-window-days}
+ *       has the same fingerprint and an amount within {@code amount-tolerance}.</li>
+ *   <li>{@link ClaimFlag#BURST}: {@code burst-threshold} or more claims on the car, this one included,
+ *       within {@code burst-window-days} of each other's dates.</li>
+ * </ul>
+ *
+ * Rings live in memory only, for at most {@code max-cars} recently claimed cars; after a restart a car's
+ * history starts empty. Flags are advisory and never reject a claim.
+ */
+@Service
+public class ClaimAnomalyDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(ClaimAnomalyDetector.class);
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final class Ring {
+        final int[] days;
+        final long[] cents;
+        final long[] prints;
+        int next;
+        int count;
+
+        Ring(int size) {
+            days = new int[size];
+            cents = new long[size];
+            prints = new long[size];
+        }
+
+        void add(int day, long amount, long print) {
+            days[next] = day;
+            cents[next] = amount;
+            prints[next] = print;
+            next = (next + 1) % days.length;
+            if (count < days.length) count++;
+        }
+    }
+
+    private final boolean enabled;
+    private final int ringSize;
+    private final int duplicateWindowDays;
+    private final double amountTolerance;
+    private final int burstWindowDays;
+    private final int burstThreshold;
+    private final Counter nearDuplicates;
+    private final Counter bursts;
+
+    // guarded by itself; access-ordered, so the car claimed on longest ago is dropped first
+    private final Map<Long, Ring> rings;
+
+    public ClaimAnomalyDetector(MeterRegistry registry,
+                                @Value("${carins.claims.screening.enabled:true}") boolean enabled,
+                                @Value("${carins.claims.screening.ring-size:8}") int ringSize,
+                                @Value("${carins.claims.screening.max-cars:100000}") int maxCars,
+                                @Value("${carins.claims.screening.duplicate-window-days:30}") int duplicateWindowDays,
+                                @Value("${carins.claims.screening.amount-tolerance:0.05}") double amountTolerance,
+                                @Value("${carins.claims.screening.burst-window-days:7}") int burstWindowDays,
+                                @Value("${carins.claims.screening.burst-threshold:3}") int burstThreshold) {
+        this.enabled = enabled;
+        this.ringSize = ringSize;
+        this.duplicateWindowDays = duplicateWindowDays;
+        this.amountTolerance = amountTolerance;
+        this.burstWindowDays = burstWindowDays;
+        this.burstThreshold = burstThreshold;
+        this.nearDuplicates = Counter.builder("carins.claims.flagged").tag("flag", "nearDuplicate").register(registry);
+        this.bursts = Counter.builder("carins.claims.flagged").tag("flag", "burst").register(registry);
+        this.rings = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Ring> eldest) {
+                return size() > maxCars;
+            }
+        };
+    }
+
+    /**
+     * Checks a just-saved claim against the car's recent claims. The claim joins the car's ring, and is counted
+     * and logged if flagged, once the surrounding transaction commits (immediately when there is none), so a
+     * rolled-back or retried registration leaves nothing behind.
+     */
+    public List<ClaimFlag> screen(Long claimId, Long carId, LocalDate claimDate, String description, BigDecimal amount) {
+        if (!enabled) {
+            return List.of();
+        }
+        int day = Math.toIntExact(claimDate.toEpochDay());
+        long cents = amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        long print = fingerprint(description);
+
+        Ring ring;
+        synchronized (rings) {
+            ring = rings.get(carId);
+        }
+        boolean duplicate = false;
+        int inBurst = 1;
+        if (ring != null) {
+            synchronized (ring) {
+                for (int i = 0; i < ring.count; i++) {
+                    int gap = Math.abs(ring.days[i] - day);
+                    if (gap <= duplicateWindowDays && ring.prints[i] == print && close(ring.cents[i], cents)) {
+                        duplicate = true;
+                    }
+                    if (gap <= burstWindowDays) {
+                        inBurst++;
+                    }
+                }
+            }
+        }
+
+        List<ClaimFlag> flags = new ArrayList<>(2);
+        if (duplicate) {
+            flags.add(ClaimFlag.NEAR_DUPLICATE);
+        }
+        if (inBurst >= burstThreshold) {
+            flags.add(ClaimFlag.BURST);
+        }
+        List<ClaimFlag> result = List.copyOf(flags);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(claimId, carId, day, cents, print, result);
+                }
+            });
+        } else {
+            remember(claimId, carId, day, cents, print, result);
+        }
+        return result;
+    }
+
+    private void remember(Long claimId, Long carId, int day, long cents, long print, List<ClaimFlag> flags) {
+        Ring ring;
+        synchronized (rings) {
+            ring = rings.computeIfAbsent(carId, k -> new Ring(ringSize));
+        }
+        synchronized (ring) {
+            ring.add(day, cents, print);
+        }
+        if (flags.isEmpty()) {
+            return;
+        }
+        if (flags.contains(ClaimFlag.NEAR_DUPLICATE)) {
+            nearDuplicates.increment();
+        }
+        if (flags.contains(ClaimFlag.BURST)) {
+            bursts.increment();
+        }
+        log.info("Claim {} on car {} flagged {}", claimId, carId, flags);
+    }
+
+    private boolean close(long a, long b) {
+        return Math.abs(a - b) <= amountTolerance * Math.max(Math.abs(a), Math.abs(b));
+    }
+
+    // FNV-1a over the sorted distinct tokens
+    static long fingerprint(String description) {
+        long h = FNV_OFFSET;
+        for (String token : new TreeSet<>(ClaimSearchIndex.tokenize(description))) {
+            for (byte b : token.getBytes(StandardCharsets.UTF_8)) {
+                h = (h ^ (b & 0xff)) * FNV_PRIME;
+            }
+            h = (h ^ ' ') * FNV_PRIME;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.carins.service;
+
+import com.example.carins.constants.HistoryEventType;
+import com.example.carins.datasource.ShardRouting;
+import com.example.carins.model.ArchivedClaim;
+import com.example.carins.model.Claim;
+import com.example.carins.repo.ArchivedClaimRepository;
+import com.example.carins.repo.CarHistoryEventRepository;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.ClaimTotals;
+import com.example.carins.web.dto.ClaimDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hot/cold split for claims. Claims dated before {@code today - carins.claims.archive.horizon} are
+ * moved to {@code claim_archive} in batches, and their events leave {@code car_history_event} with them;
+ * readers ask for a date window and the archive is only queried when that window reaches back past the
+ * archive boundary. With sharding, every shard has its own archive and boundary, and these methods work on
+ * the shard the caller is bound to.
+ */
+@Service
+public class ClaimArchiveService {
+
+    // DATE columns can't hold LocalDate.MIN/MAX
+    static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private static final Comparator<ClaimDto> CLAIM_ORDER =
+            Comparator.comparing(ClaimDto::claimDate).thenComparing(ClaimDto::id);
+
+    private final ClaimRepository claimRepository;
+    private final ArchivedClaimRepository archiveRepository;
+    private final CarRepository carRepository;
+    private final CarHistoryEventRepository eventRepository;
+    private final TransactionTemplate tx;
+    private final Period horizon;
+
+    // newest archived claim date per shard, loaded on first use
+    private final Map<Integer, Optional<LocalDate>> newestArchived = new ConcurrentHashMap<>();
+
+    public ClaimArchiveService(ClaimRepository claimRepository,
+                               ArchivedClaimRepository archiveRepository,
+                               CarRepository carRepository,
+                               CarHistoryEventRepository eventRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${carins.claims.archive.horizon:P2Y}") Period horizon) {
+        this.claimRepository = claimRepository;
+        this.archiveRepository = archiveRepository;
+        this.carRepository = carRepository;
+        this.eventRepository = eventRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.horizon = horizon;
+    }
+
+    public LocalDate cutoff(LocalDate today) {
+        return today.minus(horizon);
+    }
+
+    /**
+     * Moves every claim dated before {@code cutoff}, one transaction per batch, and drops their materialized
+     * history events. Returns the number moved.
+     */
+    public int archiveOlderThan(LocalDate cutoff, int batchSize) {
+        int moved = 0;
+        int last;
+        do {
+            last = tx.execute(s -> {
+                List<Long> ids = claimRepository.findIdsWithClaimDateBefore(cutoff, Limit.of(batchSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                // same lock as a timeline rebuild, so none can write back an event for a claim moved here
+                List<Long> carIds = claimRepository.findCarIdsByIdIn(ids);
+                carIds.forEach(carRepository::lockById);
+                archiveRepository.copyFromClaims(ids, Instant.now());
+                claimRepository.deleteByIdIn(ids);
+                eventRepository.deleteByRefIn(carIds, HistoryEventType.CLAIM_REGISTERED, ids);
+                return ids.size();
+            });
+            moved += last;
+        } while (last == batchSize);
+
+        if (moved > 0) {
+            newestArchived.put(currentShard(), archiveRepository.findNewestClaimDate());
+        }
+        return moved;
+    }
+
+    /** Claims of a car dated within [from, to] (null = open), hot and archived merged in date order. */
+    @Transactional(readOnly = true)
+    public List<ClaimDto> claimsForCar(Long carId, LocalDate from, LocalDate to) {
+        LocalDate lo = from != null ? from : EARLIEST;
+        LocalDate hi = to != null ? to : LATEST;
+
+        List<ClaimDto> hot = claimRepository.findByCarIdAndClaimDateBetweenOrderByClaimDateAscIdAsc(carId, lo, hi)
+                .stream().map(ClaimArchiveService::toDto).toList();
+        return merge(archivedClaimsForCar(carId, lo, hi), hot);
+    }
+
+    /**
+     * Archived claims of a car dated within [from, to] (null = open), in date order; empty, without a query,
+     * unless the window reaches back to the archive.
+     */
+    @Transactional(readOnly = true)
+    public List<ClaimDto> archivedClaimsForCar(Long carId, LocalDate from, LocalDate to) {
+        LocalDate lo = from != null ? from : EARLIEST;
+        LocalDate hi = to != null ? to : LATEST;
+        if (!needsArchive(lo)) {
+            return List.of();
+        }
+        return archiveRepository.findByCarIdAndClaimDateBetweenOrderByClaimDateAscIdAsc(carId, lo, hi)
+                .stream().map(ClaimArchiveService::toDto).toList();
+    }
+
+    /** Claims of a car still in the hot table, in date order: what the materialized history holds. */
+    @Transactional(readOnly = true)
+    public List<ClaimDto> hotClaimsForCar(Long carId) {
+        return claimRepository.findByCarIdAndClaimDateBetweenOrderByClaimDateAscIdAsc(carId, EARLIEST, LATEST)
+                .stream().map(ClaimArchiveService::toDto).toList();
+    }
+
+    /** Claim count, total and latest date per car, hot and archived combined; cars without claims are absent. */
+    @Transactional(readOnly = true)
+    public Map<Long, ClaimTotals> totalsForCars(Collection<Long> carIds) {
+        Map<Long, ClaimTotals> out = new HashMap<>();
+        if (carIds.isEmpty()) {
+            return out;
+        }
+        for (ClaimTotals t : claimRepository.totalsForCars(carIds)) {
+            out.put(t.carId(), t);
+        }
+        if (newestArchived() != null) {
+            for (ClaimTotals t : archiveRepository.totalsForCars(carIds)) {
+                out.merge(t.carId(), t, ClaimArchiveService::combine);
+            }
+        }
+        return out;
+    }
+
+    // nothing dated on/after the cutoff is archived, and nothing newer than the newest archived row exists there
+    boolean needsArchive(LocalDate from) {
+        if (from.isBefore(cutoff(LocalDate.now()))) {
+            return true;
+        }
+        LocalDate newest = newestArchived();
+        return newest != null && !from.isAfter(newest);
+    }
+
+    private LocalDate newestArchived() {
+        int shard = currentShard();
+        Optional<LocalDate> newest = newestArchived.get(shard);
+        if (newest == null) {
+            newest = archiveRepository.findNewestClaimDate();
+            newestArchived.put(shard, newest);
+        }
+        return newest.orElse(null);
+    }
+
+    private static int currentShard() {
+        Integer shard = ShardRouting.current();
+        return shard != null ? shard : 0;
+    }
+
+    private static List<ClaimDto> merge(List<ClaimDto> a, List<ClaimDto> b) {
+        if (a.isEmpty()) return b;
+        if (b.isEmpty()) return a;
+        List<ClaimDto> out = new ArrayList<>(a.size() + b.size());
+        int i = 0, j = 0;
+        while (i < a.size() && j < b.size()) {
+            out.add(CLAIM_ORDER.compare(a.get(i), b.get(j)) <= 0 ? a.get(i++) : b.get(j++));
+        }
+        while (i < a.size()) out.add(a.get(i++));
+        while (j < b.size()) out.add(b.get(j++));
+        return out;
+    }
+
+    private static ClaimTotals combine(ClaimTotals a, ClaimTotals b) {
+        LocalDate last = a.lastClaimDate().isAfter(b.lastClaimDate()) ? a.lastClaimDate() : b.lastClaimDate();
+        return new ClaimTotals(a.carId(), a.count() + b.count(), a.amount().add(b.amount()), last);
+    }
+
+    private static ClaimDto toDto(Claim c) {
+        return new ClaimDto(c.getId(), c.getCar().getId(), c.getClaimDate(), c.getDescription(), c.getAmount());
+    }
+
+    private static ClaimDto toDto(ArchivedClaim c) {
+        return new ClaimDto(c.getId(), c.getCar().getId(), c.getClaimDate(), c.getDescription(), c.getAmount());
+    }
+}
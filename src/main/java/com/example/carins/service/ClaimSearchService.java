@@ -0,0 +1,156 @@
+package com.example.carins.service;
+
+import com.example.carins.datasource.ShardMap;
+import com.example.carins.exception.InvalidDateException;
+import com.example.carins.exception.InvalidSearchException;
+import com.example.carins.repo.ArchivedClaimRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.ClaimText;
+import com.example.carins.search.ClaimSearchIndex;
+import com.example.carins.web.dto.ClaimDto;
+import com.example.carins.web.dto.ClaimSearchHitDto;
+import com.example.carins.web.dto.ClaimSearchResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiFunction;
+
+/**
+ * Full-text search over claim descriptions from a {@link ClaimSearchIndex}, so no query ever needs a
+ * {@code LIKE '%...%'} scan of the claim table. The index is bulk-built at startup from the hot table and
+ * then the archive of each shard (in that order, so a claim archived mid-build is still seen), and fed by
+ * {@code registerClaim} once each claim commits. Claims are never edited, and archiving keeps the id and
+ * text, so nothing else has to be followed.
+ */
+@Service
+public class ClaimSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClaimSearchService.class);
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private final ClaimRepository claimRepository;
+    private final ArchivedClaimRepository archiveRepository;
+    private final ShardMap shards;
+    private final int batchSize;
+    private final ClaimSearchIndex index = new ClaimSearchIndex();
+
+    private volatile boolean built;
+
+    public ClaimSearchService(ClaimRepository claimRepository,
+                              ArchivedClaimRepository archiveRepository,
+                              ShardMap shards,
+                              @Value("${carins.claims.search.batch-size:1000}") int batchSize) {
+        this.claimRepository = claimRepository;
+        this.archiveRepository = archiveRepository;
+        this.shards = shards;
+        this.batchSize = batchSize;
+    }
+
+    // searches during the build answer from what is indexed so far, flagged incomplete
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread t = new Thread(this::build, "claim-search-build");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    void build() {
+        long start = System.nanoTime();
+        int added = shards.onEachShard(shard -> load(claimRepository::findTextsAfter) + load(archiveRepository::findTextsAfter))
+                .stream().mapToInt(Integer::intValue).sum();
+        built = true;
+        log.info("Claim search index built ({} claims, {} terms in {} ms)",
+                added, index.termCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Called by {@code registerClaim}, inside its transaction; indexed once it commits. */
+    public void claimRegistered(ClaimDto claim) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(claim);
+                }
+            });
+        } else {
+            add(claim);
+        }
+    }
+
+    public ClaimSearchResponse search(String q, Long carId, LocalDate from, LocalDate to,
+                                      BigDecimal minAmount, BigDecimal maxAmount, String sort, int limit) {
+        if (ClaimSearchIndex.tokenize(q).isEmpty()) {
+            throw new InvalidSearchException("Query must contain at least one word");
+        }
+        ClaimSearchIndex.Order order = parseOrder(sort);
+        validateRange(from, to);
+        if (minAmount != null && maxAmount != null && minAmount.compareTo(maxAmount) > 0) {
+            throw new InvalidSearchException("minAmount must not be greater than maxAmount");
+        }
+        int k = limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+
+        ClaimSearchIndex.Result result = index.search(q,
+                new ClaimSearchIndex.Filter(carId, from, to, minAmount, maxAmount), order, k);
+        List<ClaimSearchHitDto> hits = result.hits().stream()
+                .map(h -> new ClaimSearchHitDto(h.claimId(), h.carId(), h.claimDate(), h.description(), h.amount(), h.score()))
+                .toList();
+        return new ClaimSearchResponse(q, order.name().toLowerCase(Locale.ROOT), result.matched(), built, hits);
+    }
+
+    private void add(ClaimDto c) {
+        index.add(c.id(), c.carId(), c.claimDate(), c.description(), c.amount());
+    }
+
+    private int load(BiFunction<Long, Limit, List<ClaimText>> chunks) {
+        int added = 0;
+        long afterId = 0;
+        List<ClaimText> chunk;
+        do {
+            chunk = chunks.apply(afterId, Limit.of(batchSize));
+            for (ClaimText c : chunk) {
+                if (index.add(c.id(), c.carId(), c.claimDate(), c.description(), c.amount())) {
+                    added++;
+                }
+            }
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).id();
+            }
+        } while (chunk.size() == batchSize);
+        return added;
+    }
+
+    private static ClaimSearchIndex.Order parseOrder(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return ClaimSearchIndex.Order.RELEVANCE;
+        }
+        try {
+            return ClaimSearchIndex.Order.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSearchException("Unknown sort '" + sort + "', expected relevance or date");
+        }
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        for (LocalDate d : new LocalDate[]{from, to}) {
+            if (d != null && (d.getYear() < 1900 || d.getYear() > 2100)) {
+                throw new InvalidDateException("Date out of supported range (1900–2100): " + d);
+            }
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidDateException("from must not be after to");
+        }
+    }
+}
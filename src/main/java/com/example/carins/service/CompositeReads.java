@@ -0,0 +1,110 @@
+package com.example.carins.service;
+
+import com.example.carins.concurrent.CompositeRead;
+import com.example.carins.datasource.ReadWriteRouting;
+import com.example.carins.datasource.ShardMap;
+import com.example.carins.datasource.ShardRouting;
+import com.example.carins.jfr.RepositoryQueryInstrumentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Opens {@link CompositeRead} scopes for the services. Each read runs in a transaction of its own on its
+ * own connection, so a method that forks must not be transactional itself: it would hold a connection
+ * while its reads wait for theirs. Reads inherit the routing pin, the shard and the query-event caller of
+ * the thread that forks them. At most {@code max-parallel} reads of a request run at once, which bounds the
+ * connections a request holds (see {@code AdmissionControlConfig}). With
+ * {@code carins.composite-reads.enabled=false} the reads run one after another on the calling thread instead.
+ */
+@Component
+public class CompositeReads {
+
+    private final boolean enabled;
+    private final Duration timeout;
+    private final int maxParallel;
+    private final ShardMap shards;
+
+    public CompositeReads(@Value("${carins.composite-reads.enabled:true}") boolean enabled,
+                          @Value("${carins.composite-reads.timeout:PT2S}") Duration timeout,
+                          @Value("${carins.composite-reads.max-parallel:2}") int maxParallel,
+                          ShardMap shards) {
+        this.enabled = enabled;
+        this.timeout = timeout;
+        this.maxParallel = maxParallel;
+        this.shards = shards;
+    }
+
+    /** A scope whose reads route like the current thread. */
+    public CompositeRead open(String name) {
+        return open(name, ReadWriteRouting.isPinnedToPrimary());
+    }
+
+    /** A scope whose reads go to the primary when {@code primary}, e.g. for a car written moments ago. */
+    public CompositeRead open(String name, boolean primary) {
+        return open(name, primary, maxParallel);
+    }
+
+    private CompositeRead open(String name, boolean primary, int parallel) {
+        Integer shard = ShardRouting.current();
+        UnaryOperator<Runnable> decorator = task -> RepositoryQueryInstrumentation.withCaller(
+                ShardRouting.routed(ReadWriteRouting.routed(task, primary), shard));
+        return enabled ? CompositeRead.open(name, timeout, parallel, decorator) : CompositeRead.sequential(name, decorator);
+    }
+
+    /**
+     * Runs {@code read} once per shard, side by side, and returns the results in shard order; with a single
+     * database it simply runs on the calling thread. Merging them is up to the caller. Each shard has its own
+     * pool, so all shards are read at once whatever {@code max-parallel} says.
+     */
+    public <T> List<T> scatter(String name, IntFunction<T> read) {
+        if (!shards.isEnabled()) {
+            return List.of(read.apply(0));
+        }
+        try (CompositeRead scope = open(name, ReadWriteRouting.isPinnedToPrimary(), shards.count())) {
+            List<Supplier<T>> parts = new ArrayList<>(shards.count());
+            for (int i = 0; i < shards.count(); i++) {
+                int shard = i;
+                parts.add(scope.fork("shard-" + shard, () -> ShardRouting.onShard(shard, () -> read.apply(shard))));
+            }
+            scope.join();
+            return parts.stream().map(Supplier::get).toList();
+        }
+    }
+
+    /** Merges per-shard lists, each already sorted by {@code order}, keeping the first {@code limit} rows. */
+    public static <T> List<T> merge(List<List<T>> parts, Comparator<? super T> order, int limit) {
+        if (parts.size() == 1) {
+            List<T> only = parts.get(0);
+            return only.size() <= limit ? only : only.subList(0, limit);
+        }
+        // heads of the parts as {part, position}, smallest row first
+        PriorityQueue<int[]> heads = new PriorityQueue<>(
+                (a, b) -> order.compare(parts.get(a[0]).get(a[1]), parts.get(b[0]).get(b[1])));
+        int total = 0;
+        for (int i = 0; i < parts.size(); i++) {
+            total += parts.get(i).size();
+            if (!parts.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+        List<T> out = new ArrayList<>(Math.min(total, limit));
+        while (out.size() < limit && !heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<T> part = parts.get(head[0]);
+            out.add(part.get(head[1]));
+            if (++head[1] < part.size()) {
+                heads.add(head);
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.carins.service;
+
+import com.example.carins.exception.InvalidFieldsException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A parsed {@code fields=} parameter: the requested fields of a resource in the resource's own order,
+ * each mapped to the entity attribute path it is read from ({@code owner.name} reaches through the
+ * owner association).
+ */
+public record FieldSet(Map<String, String> paths) {
+
+    /** A resource's fields in output order, from alternating field names and attribute paths. */
+    public static Map<String, String> catalog(String... namesAndPaths) {
+        Map<String, String> catalog = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndPaths.length; i += 2) {
+            catalog.put(namesAndPaths[i], namesAndPaths[i + 1]);
+        }
+        return Collections.unmodifiableMap(catalog);
+    }
+
+    /** Comma-separated field names, each of which must be in {@code catalog}. */
+    public static FieldSet parse(String fields, Map<String, String> catalog) {
+        Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(f -> !f.isEmpty())
+                .collect(Collectors.toSet());
+        if (requested.isEmpty()) {
+            throw new InvalidFieldsException("fields must name at least one of " + catalog.keySet());
+        }
+        for (String f : requested) {
+            if (!catalog.containsKey(f)) {
+                throw new InvalidFieldsException("Unknown field '" + f + "', expected any of " + catalog.keySet());
+            }
+        }
+        Map<String, String> paths = new LinkedHashMap<>();
+        catalog.forEach((name, path) -> {
+            if (requested.contains(name)) {
+                paths.put(name, path);
+            }
+        });
+        return new FieldSet(Collections.unmodifiableMap(paths));
+    }
+
+    /** This selection with {@code name} added, still in {@code catalog} order. */
+    public FieldSet including(String name, Map<String, String> catalog) {
+        if (paths.containsKey(name)) {
+            return this;
+        }
+        Map<String, String> included = new LinkedHashMap<>();
+        catalog.forEach((n, path) -> {
+            if (n.equals(name) || paths.containsKey(n)) {
+                included.put(n, path);
+            }
+        });
+        return new FieldSet(Collections.unmodifiableMap(included));
+    }
+
+    public Set<String> names() {
+        return paths.keySet();
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.carins.service;
+
+import com.example.carins.coverage.CoverageIndex;
+import com.example.carins.datasource.ShardMap;
+import com.example.carins.exception.InvalidDateException;
+import com.example.carins.repo.CarMakeModel;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.PolicySpan;
+import com.example.carins.web.dto.CarIdPage;
+import com.example.carins.web.dto.FleetCoverageResponse;
+import com.example.carins.web.dto.ModelCoverageDto;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fleet-wide "who is insured on date D", answered from a {@link CoverageIndex} instead of one
+ * {@code existsActiveOnDate} per car. Days from {@code today - window-back} to {@code today + window-ahead}
+ * are built in bulk at startup (and by {@link #rebuild}) from a single keyset scan of the policies; any
+ * other day is built with one query the first time it is asked for.
+ *
+ * <p>Policy writes call {@link #policyChanged}; once the transaction commits the car is recomputed on
+ * every loaded day from its own policies. Cars changed while a build is running are recomputed again
+ * when it is installed, so a build never overwrites a newer write. Cars enter the fleet when it is loaded
+ * or when one of their policies is written; cars inserted behind the application's back wait for a rebuild.
+ * With sharding, the fleet and the days are scanned shard by shard into the one index.
+ */
+@Service
+public class FleetCoverageService {
+
+    private static final Logger log = LoggerFactory.getLogger(FleetCoverageService.class);
+
+    public static final int DEFAULT_LIMIT = 1000;
+    public static final int MAX_LIMIT = 10_000;
+
+    private final CarRepository carRepository;
+    private final InsurancePolicyRepository policyRepository;
+    private final ShardMap shards;
+    private final TransactionTemplate readTx;
+    private final CoverageIndex index;
+    private final Period windowBack;
+    private final Period windowAhead;
+    private final int batchSize;
+
+    private final CompletableFuture<Void> fleetLoaded = new CompletableFuture<>();
+    private final AtomicInteger buildsRunning = new AtomicInteger();
+    private final Set<Long> changedDuringBuild = ConcurrentHashMap.newKeySet();
+    // serializes read-then-apply per car, so an older read never lands after a newer one
+    private final Object[] carLocks = new Object[64];
+
+    public FleetCoverageService(CarRepository carRepository,
+                                InsurancePolicyRepository policyRepository,
+                                ShardMap shards,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${carins.coverage.window-back:P1Y}") Period windowBack,
+                                @Value("${carins.coverage.window-ahead:P90D}") Period windowAhead,
+                                @Value("${carins.coverage.max-days:600}") int maxDays,
+                                @Value("${carins.coverage.batch-size:5000}") int batchSize) {
+        this.carRepository = carRepository;
+        this.policyRepository = policyRepository;
+        this.shards = shards;
+        // runs after the writer's commit, so it needs a transaction of its own
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.index = new CoverageIndex(maxDays);
+        this.windowBack = windowBack;
+        this.windowAhead = windowAhead;
+        this.batchSize = batchSize;
+        for (int i = 0; i < carLocks.length; i++) {
+            carLocks[i] = new Object();
+        }
+    }
+
+    // until this finishes, each queried day is built on demand
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread t = new Thread(this::rebuild, "coverage-build");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** Reloads the fleet and rebuilds the window around today in bulk. */
+    public void rebuild() {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        buildsRunning.incrementAndGet();
+        try {
+            try {
+                loadCars();
+                fleetLoaded.complete(null);
+            } catch (RuntimeException e) {
+                fleetLoaded.completeExceptionally(e);
+                throw e;
+            }
+            index.replaceDays(build(today.minus(windowBack), today.plus(windowAhead)));
+        } finally {
+            buildFinished();
+        }
+        log.info("Fleet coverage built ({} days in {} ms)", index.dayCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Called by policy writes, inside their transaction; applied once it commits. */
+    public void policyChanged(Long carId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshCar(carId);
+                }
+            });
+        } else {
+            refreshCar(carId);
+        }
+    }
+
+    public FleetCoverageResponse coverage(LocalDate date, String make, String model) {
+        RoaringBitmap cars = cars(make, model);
+        long insured = RoaringBitmap.andCardinality(cars, insuredOn(date));
+        long total = cars.getLongCardinality();
+        return new FleetCoverageResponse(date, make, model, total, insured, total - insured);
+    }
+
+    public CarIdPage cars(LocalDate date, boolean insured, String make, String model, Long after, int limit) {
+        RoaringBitmap cars = cars(make, model);
+        RoaringBitmap onDate = insuredOn(date);
+        return page(insured ? RoaringBitmap.and(cars, onDate) : RoaringBitmap.andNot(cars, onDate), after, limit);
+    }
+
+    /** Cars insured on {@code insuredOn} but not on {@code notInsuredOn}. */
+    public CarIdPage lapsed(LocalDate insuredOn, LocalDate notInsuredOn, String make, String model, Long after, int limit) {
+        RoaringBitmap lapsed = RoaringBitmap.andNot(insuredOn(insuredOn), insuredOn(notInsuredOn));
+        if (make != null || model != null) {
+            lapsed.and(cars(make, model));
+        }
+        return page(lapsed, after, limit);
+    }
+
+    public List<ModelCoverageDto> byModel(LocalDate date) {
+        RoaringBitmap insured = insuredOn(date);
+        fleetLoaded.join();
+        return index.countByModel(insured).stream()
+                .map(c -> new ModelCoverageDto(c.make(), c.model(), c.cars(), c.insured(), c.cars() - c.insured()))
+                .toList();
+    }
+
+    // the fleet is loaded first thing at startup, before any day
+    private RoaringBitmap cars(String make, String model) {
+        fleetLoaded.join();
+        return index.cars(make, model);
+    }
+
+    private RoaringBitmap insuredOn(LocalDate date) {
+        int y = date.getYear();
+        if (y < 1900 || y > 2100) {
+            throw new InvalidDateException("Date out of supported range (1900–2100): " + date);
+        }
+        RoaringBitmap insured = index.insuredOn(date);
+        if (insured != null) {
+            return insured;
+        }
+        buildsRunning.incrementAndGet();
+        try {
+            insured = build(date, date).get(date);
+            index.putDay(date, insured.clone());
+        } finally {
+            buildFinished();
+        }
+        return insured;
+    }
+
+    private void refreshCar(Long carId) {
+        if (buildsRunning.get() > 0) {
+            changedDuringBuild.add(carId);
+        }
+        int id = CoverageIndex.carId(carId);
+        synchronized (carLocks[id & (carLocks.length - 1)]) {
+            readTx.executeWithoutResult(s -> {
+                if (!index.hasCar(id)) {
+                    carRepository.findById(carId).ifPresent(c -> index.addCar(id, c.getMake(), c.getModel()));
+                }
+                List<CoverageIndex.Span> spans = policyRepository.findSpansByCarId(carId).stream()
+                        .map(p -> new CoverageIndex.Span(p.startDate(), p.endDate()))
+                        .toList();
+                index.applyCar(id, spans);
+            });
+        }
+    }
+
+    private void buildFinished() {
+        if (buildsRunning.decrementAndGet() > 0) {
+            return;
+        }
+        for (Long carId : List.copyOf(changedDuringBuild)) {
+            changedDuringBuild.remove(carId);
+            refreshCar(carId);
+        }
+    }
+
+    private void loadCars() {
+        shards.onEachShard(shard -> {
+            loadCarsOfShard();
+            return null;
+        });
+    }
+
+    private void loadCarsOfShard() {
+        long afterId = 0;
+        List<CarMakeModel> chunk;
+        do {
+            chunk = carRepository.findMakeModelsAfter(afterId, Limit.of(batchSize));
+            for (CarMakeModel c : chunk) {
+                index.addCar(CoverageIndex.carId(c.id()), c.make(), c.model());
+            }
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).id();
+            }
+        } while (chunk.size() == batchSize);
+    }
+
+    private Map<LocalDate, RoaringBitmap> build(LocalDate from, LocalDate to) {
+        Map<LocalDate, RoaringBitmap> days = new LinkedHashMap<>();
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            days.put(d, new RoaringBitmap());
+        }
+        shards.onEachShard(shard -> {
+            addPolicies(days, from, to);
+            return null;
+        });
+        return days;
+    }
+
+    private void addPolicies(Map<LocalDate, RoaringBitmap> days, LocalDate from, LocalDate to) {
+        long afterId = 0;
+        List<PolicySpan> chunk;
+        do {
+            chunk = policyRepository.findSpansOverlapping(from, to, afterId, Limit.of(batchSize));
+            for (PolicySpan p : chunk) {
+                int car = CoverageIndex.carId(p.carId());
+                LocalDate first = p.startDate().isBefore(from) ? from : p.startDate();
+                LocalDate last = p.endDate().isAfter(to) ? to : p.endDate();
+                for (LocalDate d = first; !d.isAfter(last); d = d.plusDays(1)) {
+                    days.get(d).add(car);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).id();
+            }
+        } while (chunk.size() == batchSize);
+    }
+
+    private static CarIdPage page(RoaringBitmap ids, Long after, int limit) {
+        int size = limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        PeekableIntIterator it = ids.getIntIterator();
+        if (after != null) {
+            it.advanceIfNeeded(CoverageIndex.carId(after) + 1);
+        }
+        List<Long> out = new ArrayList<>(Math.min(size, ids.getCardinality()));
+        while (out.size() < size && it.hasNext()) {
+            long carId = it.next();
+            out.add(carId);
+        }
+        Long nextAfter = out.isEmpty() ? after : out.get(out.size() - 1);
+        return new CarIdPage(ids.getLongCardinality(), out, nextAfter, it.hasNext());
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.carins.service;
+
+import com.example.carins.concurrent.TtlCache;
+import com.example.carins.constants.IdempotentOperation;
+import com.example.carins.datasource.ShardMap;
+import com.example.carins.datasource.ShardRouting;
+import com.example.carins.exception.IdempotencyKeyInUseException;
+import com.example.carins.exception.IdempotencyKeyReusedException;
+import com.example.carins.exception.InvalidIdempotencyKeyException;
+import com.example.carins.model.IdempotencyRecord;
+import com.example.carins.repo.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for policy creation and claim registration. The first request with a key inserts
+ * it into {@code idempotency_key} and runs the write in the same transaction, then stores the response
+ * there. Retries get that response back without the write running again: from a bounded in-memory cache for
+ * {@code carins.idempotency.ttl}, then from the table until {@code carins.idempotency.retention} has passed.
+ * Duplicates arriving while the first request is still running wait for its result, up to
+ * {@code carins.idempotency.wait-timeout}. A key sent again with a different request is rejected.
+ *
+ * <p>With the journal enabled the write is the journal append, so the stored response is the {@code 202} with
+ * the write's handle: a retry gets that handle back, and the write is journaled once.
+ *
+ * <p>With sharding the key is stored on the car's shard, so reuse of a key for a car on another shard is
+ * only caught while the key is cached.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 255;
+
+    /** A write's response, and whether it was answered from an earlier request with the same key. */
+    public record Outcome<T>(T body, boolean replayed) {
+        public static <T> Outcome<T> written(T body) {
+            return new Outcome<>(body, false);
+        }
+    }
+
+    private record Completed(String requestHash, Object response) {}
+    private record Flight(String requestHash, CompletableFuture<Object> result) {}
+
+    private final IdempotencyRecordRepository repository;
+    private final ShardMap shards;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+    private final TtlCache<String, Completed> completed;
+    private final ConcurrentHashMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Duration waitTimeout;
+    private final Duration retention;
+
+    private final Counter written;
+    private final Counter cached;
+    private final Counter stored;
+    private final Counter coalesced;
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ShardMap shards,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry registry,
+                              @Value("${carins.idempotency.ttl:PT10M}") Duration ttl,
+                              @Value("${carins.idempotency.max-entries:10000}") int maxEntries,
+                              @Value("${carins.idempotency.wait-timeout:PT10S}") Duration waitTimeout,
+                              @Value("${carins.idempotency.retention:P1D}") Duration retention) {
+        this.repository = repository;
+        this.shards = shards;
+        this.objectMapper = objectMapper;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.completed = new TtlCache<>(ttl, maxEntries);
+        this.waitTimeout = waitTimeout;
+        this.retention = retention;
+        this.written = counter(registry, "written");
+        this.cached = counter(registry, "cached");
+        this.stored = counter(registry, "stored");
+        this.coalesced = counter(registry, "coalesced");
+    }
+
+    /**
+     * Runs {@code write} once per {@code key}. {@code request} is the request body; together with the
+     * operation and car it must match whatever the key was first used for.
+     */
+    public <T> Outcome<T> execute(String key, IdempotentOperation operation, Long carId, Object request,
+                                  Class<T> responseType, Supplier<T> write) {
+        checkKey(key);
+        String hash = requestHash(operation, carId, request);
+        Completed done = completed.get(key);
+        if (done != null) {
+            checkSameRequest(key, done.requestHash(), hash);
+            cached.increment();
+            return new Outcome<>(responseType.cast(done.response()), true);
+        }
+
+        Flight mine = new Flight(hash, new CompletableFuture<>());
+        Flight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            checkSameRequest(key, running.requestHash(), hash);
+            coalesced.increment();
+            return new Outcome<>(responseType.cast(await(key, running.result())), true);
+        }
+        try {
+            Outcome<T> outcome = lead(key, operation, carId, hash, responseType, write);
+            // cached before the flight ends, so a duplicate always finds one or the other
+            completed.put(key, new Completed(hash, outcome.body()));
+            inFlight.remove(key, mine);
+            mine.result().complete(outcome.body());
+            return outcome;
+        } catch (RuntimeException | Error ex) {
+            inFlight.remove(key, mine);
+            mine.result().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${carins.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        completed.evictExpired();
+        Instant cutoff = Instant.now().minus(retention);
+        int removed = 0;
+        for (int shard = 0; shard < shards.count(); shard++) {
+            removed += ShardRouting.onShard(shard, () -> tx.execute(s -> repository.deleteCreatedBefore(cutoff)));
+        }
+        if (removed > 0) {
+            log.info("Purged {} idempotency keys created before {}", removed, cutoff);
+        }
+    }
+
+    // the key was free a moment ago: answer from the table if an earlier run stored it, else write
+    private <T> Outcome<T> lead(String key, IdempotentOperation operation, Long carId, String hash,
+                                Class<T> responseType, Supplier<T> write) {
+        Completed again = completed.get(key);
+        if (again != null) {
+            checkSameRequest(key, again.requestHash(), hash);
+            cached.increment();
+            return new Outcome<>(responseType.cast(again.response()), true);
+        }
+        return shards.onCar(carId, () -> {
+            Optional<IdempotencyRecord> existing = repository.findById(key);
+            if (existing.isPresent()) {
+                return replay(key, existing.get(), hash, responseType);
+            }
+            Outcome<T> outcome = tx.execute(s -> {
+                if (!reserve(key, operation, carId, hash)) {
+                    s.setRollbackOnly();
+                    return null;
+                }
+                T body = write.get();
+                repository.complete(key, toJson(body));
+                return Outcome.written(body);
+            });
+            if (outcome == null) {
+                // another instance took the key between the lookup and the insert, and has committed since
+                IdempotencyRecord winner = repository.findById(key).orElseThrow(() -> new IdempotencyKeyInUseException(
+                        "A request with Idempotency-Key " + key + " is still in progress"));
+                return replay(key, winner, hash, responseType);
+            }
+            written.increment();
+            return outcome;
+        });
+    }
+
+    // false when the key is already in the table; any other failure, including the write's own, propagates
+    private boolean reserve(String key, IdempotentOperation operation, Long carId, String hash) {
+        try {
+            repository.reserve(key, operation, carId, hash, Instant.now());
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            if (ex.getCause() instanceof ConstraintViolationException cve
+                    && cve.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                return false;
+            }
+            throw ex;
+        }
+    }
+
+    private <T> Outcome<T> replay(String key, IdempotencyRecord record, String hash, Class<T> responseType) {
+        checkSameRequest(key, record.getRequestHash(), hash);
+        stored.increment();
+        try {
+            return new Outcome<>(objectMapper.readValue(record.getResponse(), responseType), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for idempotency key " + key + " is unreadable", e);
+        }
+    }
+
+    private Object await(String key, CompletableFuture<Object> result) {
+        try {
+            return result.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException ex) {
+            throw new IdempotencyKeyInUseException("A request with Idempotency-Key " + key + " is still in progress");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInUseException("Interrupted while waiting for the request with Idempotency-Key " + key);
+        }
+    }
+
+    private static void checkKey(String key) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    private static void checkSameRequest(String key, String expected, String actual) {
+        if (!expected.equals(actual)) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key " + key + " was already used for a different request");
+        }
+    }
+
+    private String requestHash(IdempotentOperation operation, Long carId, Object request) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update((operation.name() + '\n' + carId + '\n').getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(sha.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+        return Counter.builder("carins.idempotency.requests").tag("outcome", outcome).register(registry);
+    }
+}
@@ -0,0 +1,453 @@
+package com.example.carins.service;
+
+import com.example.carins.constants.JournaledOperation;
+import com.example.carins.constants.JournaledWriteStatus;
+import com.example.carins.exception.ApiException;
+import com.example.carins.exception.ResourceNotFoundException;
+import com.example.carins.journal.JournalFullException;
+import com.example.carins.journal.WriteAheadJournal;
+import com.example.carins.model.Claim;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.JournalWatermark;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.JournalWatermarkRepository;
+import com.example.carins.web.dto.CreateClaimRequest;
+import com.example.carins.web.dto.JournaledWriteResponse;
+import com.example.carins.web.dto.PolicyResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Journaled writes ({@code carins.journal.enabled}). Policy create/update and claim registration are
+ * validated, appended to the {@link WriteAheadJournal} and acknowledged with a handle once on disk; a
+ * single apply thread replays them through {@link CarService} in journal order, up to
+ * {@code batch-size} writes or {@code flush-interval} per transaction. Each transaction also advances the
+ * {@link JournalWatermark} to its last record, so on startup only records past the watermark are applied
+ * again. Side effects outside the database wait for the commit, so a batch that fails and is re-run write
+ * by write leaves no trace of the first attempt. Creates also carry their handle into {@code intake_handle},
+ * which keeps the replay of journals written before the watermark existed from creating duplicates.
+ */
+@Service
+public class JournaledWriteService {
+
+    private static final Logger log = LoggerFactory.getLogger(JournaledWriteService.class);
+    private static final int MAX_RESULTS = 10_000;
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(1);
+    private static final String JOURNAL = "writes";
+
+    sealed interface Command permits CreatePolicy, UpdatePolicy, RegisterClaim {}
+    record CreatePolicy(long carId, LocalDate startDate, LocalDate endDate, String provider) implements Command {}
+    record UpdatePolicy(long policyId, LocalDate startDate, LocalDate endDate, String provider) implements Command {}
+    record RegisterClaim(long carId, LocalDate claimDate, String description, BigDecimal amount) implements Command {}
+
+    private record Pending(UUID handle, Command command, Long carId, WriteAheadJournal.Position position, boolean replayed) {}
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Path journalDir;
+    private final int segmentBytes;
+
+    private final CarService carService;
+    private final CarRepository carRepository;
+    private final InsurancePolicyRepository policyRepository;
+    private final ClaimRepository claimRepository;
+    private final JournalWatermarkRepository watermarks;
+    private final TransactionTemplate tx;
+
+    private final Semaphore capacity;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final ConcurrentHashMap<UUID, Pending> pending = new ConcurrentHashMap<>();
+    // cars and policies are never deleted, so positive lookups can be remembered
+    private final Set<Long> knownCars = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<Long, Long> policyCars = new ConcurrentHashMap<>();
+    private final Map<UUID, JournaledWriteResponse> results = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, JournaledWriteResponse> eldest) {
+            return size() > MAX_RESULTS;
+        }
+    });
+
+    private final Counter rejectedCount;
+    private final DistributionSummary batchSizes;
+
+    private WriteAheadJournal journal;
+    private Thread applier;
+    private volatile boolean running;
+
+    public JournaledWriteService(@Value("${carins.journal.enabled:false}") boolean enabled,
+                                 @Value("${carins.journal.batch-size:500}") int batchSize,
+                                 @Value("${carins.journal.flush-interval:PT0.05S}") Duration flushInterval,
+                                 @Value("${carins.journal.queue-capacity:50000}") int queueCapacity,
+                                 @Value("${carins.journal.dir:./data/journal}") Path journalDir,
+                                 @Value("${carins.journal.segment-size:64MB}") DataSize segmentSize,
+                                 CarService carService,
+                                 CarRepository carRepository,
+                                 InsurancePolicyRepository policyRepository,
+                                 ClaimRepository claimRepository,
+                                 JournalWatermarkRepository watermarks,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry registry) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.journalDir = journalDir;
+        this.segmentBytes = Math.toIntExact(segmentSize.toBytes());
+        this.carService = carService;
+        this.carRepository = carRepository;
+        this.policyRepository = policyRepository;
+        this.claimRepository = claimRepository;
+        this.watermarks = watermarks;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.capacity = new Semaphore(queueCapacity);
+        this.rejectedCount = Counter.builder("carins.journal.rejected").register(registry);
+        this.batchSizes = DistributionSummary.builder("carins.journal.batch").register(registry);
+        Gauge.builder("carins.journal.pending", pending, ConcurrentHashMap::size).register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) return;
+        long applied = tx.execute(s -> watermarks.findById(JOURNAL)
+                .orElseGet(() -> watermarks.save(new JournalWatermark(JOURNAL, -1)))).getAppliedLsn();
+        journal = new WriteAheadJournal(journalDir, JOURNAL + "-", segmentBytes);
+        List<WriteAheadJournal.Record> replay = journal.open(applied);
+
+        running = true;
+        applier = new Thread(this::applyLoop, "journal-applier");
+        applier.setDaemon(true);
+        applier.start();
+
+        for (WriteAheadJournal.Record r : replay) {
+            capacity.acquireUninterruptibly();
+            ByteBuffer payload = r.payload();
+            UUID handle = new UUID(payload.getLong(), payload.getLong());
+            Command command = decode(r.type(), payload);
+            enqueue(new Pending(handle, command, carOf(command), r.position(), true));
+        }
+        if (!replay.isEmpty()) {
+            log.info("Replaying {} journaled writes from {}", replay.size(), journalDir);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (!enabled) return;
+        running = false;
+        applier.join();
+        journal.close();
+    }
+
+    // ------ Accepting writes ------
+
+    public JournaledWriteResponse createPolicy(Long carId, LocalDate startDate, LocalDate endDate, String provider) {
+        CarService.validateDates(startDate, endDate);
+        requireCar(carId);
+        return submit(new CreatePolicy(carId, startDate, endDate, provider), carId);
+    }
+
+    public JournaledWriteResponse updatePolicy(Long policyId, LocalDate startDate, LocalDate endDate, String provider) {
+        CarService.validateDates(startDate, endDate);
+        Long carId = policyCars.get(policyId);
+        if (carId == null) {
+            carId = policyRepository.findById(policyId)
+                    .map(p -> p.getCar().getId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Policy not found"));
+            policyCars.put(policyId, carId);
+        }
+        return submit(new UpdatePolicy(policyId, startDate, endDate, provider), carId);
+    }
+
+    public JournaledWriteResponse registerClaim(Long carId, CreateClaimRequest req) {
+        requireCar(carId);
+        return submit(new RegisterClaim(carId, req.claimDate(), req.description(), req.amount()), carId);
+    }
+
+    public JournaledWriteResponse status(UUID handle) {
+        Pending p = pending.get(handle);
+        if (p != null) {
+            return new JournaledWriteResponse(handle.toString(), operationOf(p.command()), JournaledWriteStatus.PENDING,
+                    p.carId(), null, null);
+        }
+        JournaledWriteResponse result = results.get(handle);
+        if (result != null) {
+            return result;
+        }
+        // older creates are still traceable through their intake handle
+        String h = handle.toString();
+        return claimRepository.findByIntakeHandle(h)
+                .map(c -> applied(handle, JournaledOperation.REGISTER_CLAIM, c.getCar().getId(), c.getId()))
+                .or(() -> policyRepository.findByIntakeHandle(h)
+                        .map(pol -> applied(handle, JournaledOperation.CREATE_POLICY, pol.getCar().getId(), pol.getId())))
+                .orElseThrow(() -> new ResourceNotFoundException("Journaled write " + handle + " not found"));
+    }
+
+    private void requireCar(Long carId) {
+        if (!knownCars.contains(carId)) {
+            if (!carRepository.existsById(carId)) {
+                throw new ResourceNotFoundException("Car not found");
+            }
+            knownCars.add(carId);
+        }
+    }
+
+    private JournaledWriteResponse submit(Command command, Long carId) {
+        if (!enabled) {
+            throw new IllegalStateException("Journaled writes are disabled");
+        }
+        if (!capacity.tryAcquire()) {
+            throw new JournalFullException("Write journal is full, retry later");
+        }
+        UUID handle = UUID.randomUUID();
+        WriteAheadJournal.Position position;
+        try {
+            position = journal.append(typeOf(command), encode(handle, command));
+        } catch (IOException ex) {
+            capacity.release();
+            throw new UncheckedIOException("Could not journal write", ex);
+        }
+        enqueue(new Pending(handle, command, carId, position, false));
+        return new JournaledWriteResponse(handle.toString(), operationOf(command), JournaledWriteStatus.PENDING,
+                carId, null, null);
+    }
+
+    private void enqueue(Pending p) {
+        pending.put(p.handle(), p);
+        queue.add(p);
+    }
+
+    // ------ Applying ------
+
+    private void applyLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0) break;
+                    Pending next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                applyBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void applyBatch(List<Pending> batch) throws InterruptedException {
+        List<JournaledWriteResponse> applied;
+        try {
+            applied = tx.execute(s -> {
+                List<JournaledWriteResponse> out = batch.stream().map(this::apply).toList();
+                watermarks.advance(JOURNAL, batch.getLast().position().lsn());
+                return out;
+            });
+        } catch (RuntimeException ex) {
+            // find the write that failed; everything else still goes in, in journal order
+            for (Pending p : batch) {
+                if (!applyOne(p)) return;
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            done(batch.get(i), applied.get(i));
+        }
+        batchSizes.record(batch.size());
+    }
+
+    // false when the write could not be applied and stays journaled (shutting down)
+    private boolean applyOne(Pending p) throws InterruptedException {
+        while (true) {
+            try {
+                done(p, tx.execute(s -> {
+                    JournaledWriteResponse out = apply(p);
+                    watermarks.advance(JOURNAL, p.position().lsn());
+                    return out;
+                }));
+                return true;
+            } catch (ApiException | DataIntegrityViolationException ex) {
+                log.warn("Rejected journaled {} {}: {}", operationOf(p.command()), p.handle(), ex.getMessage());
+                rejectedCount.increment();
+                skip(p);
+                done(p, new JournaledWriteResponse(p.handle().toString(), operationOf(p.command()),
+                        JournaledWriteStatus.REJECTED, p.carId(), null, "Write could not be applied"));
+                return true;
+            } catch (RuntimeException ex) {
+                if (!running) {
+                    log.warn("Journaled write {} not applied before shutdown, it stays in the journal", p.handle(), ex);
+                    return false;
+                }
+                log.warn("Applying journaled write {} failed, retrying", p.handle(), ex);
+                Thread.sleep(RETRY_BACKOFF.toMillis());
+            }
+        }
+    }
+
+    // a rejected write would only be rejected again, so the watermark moves past it too
+    private void skip(Pending p) {
+        try {
+            tx.executeWithoutResult(s -> watermarks.advance(JOURNAL, p.position().lsn()));
+        } catch (RuntimeException ex) {
+            log.warn("Could not advance the journal watermark past rejected write {}", p.handle(), ex);
+        }
+    }
+
+    private JournaledWriteResponse apply(Pending p) {
+        String h = p.handle().toString();
+        return switch (p.command()) {
+            case CreatePolicy c -> {
+                // a replayed create may have been applied just before the crash
+                Long id = (p.replayed() ? policyRepository.findByIntakeHandle(h).map(InsurancePolicy::getId) : Optional.<Long>empty())
+                        .orElseGet(() -> carService.createPolicy(c.carId(), c.startDate(), c.endDate(), c.provider(), h).id());
+                yield applied(p.handle(), JournaledOperation.CREATE_POLICY, c.carId(), id);
+            }
+            case UpdatePolicy u -> {
+                PolicyResponse updated = carService.updatePolicy(u.policyId(), u.startDate(), u.endDate(), u.provider());
+                yield applied(p.handle(), JournaledOperation.UPDATE_POLICY, updated.carId(), updated.id());
+            }
+            case RegisterClaim r -> {
+                Long id = (p.replayed() ? claimRepository.findByIntakeHandle(h).map(Claim::getId) : Optional.<Long>empty())
+                        .orElseGet(() -> carService.registerClaim(r.carId(),
+                                new CreateClaimRequest(r.claimDate(), r.description(), r.amount()), h).id());
+                yield applied(p.handle(), JournaledOperation.REGISTER_CLAIM, r.carId(), id);
+            }
+        };
+    }
+
+    private void done(Pending p, JournaledWriteResponse result) {
+        // result first, so status() never misses a write between the two maps
+        results.put(p.handle(), result);
+        pending.remove(p.handle());
+        capacity.release();
+        journal.ack(p.position());
+    }
+
+    private static JournaledWriteResponse applied(UUID handle, JournaledOperation op, Long carId, Long entityId) {
+        return new JournaledWriteResponse(handle.toString(), op, JournaledWriteStatus.APPLIED, carId, entityId, null);
+    }
+
+    // ------ Record encoding ------
+
+    private static JournaledOperation operationOf(Command command) {
+        return switch (command) {
+            case CreatePolicy c -> JournaledOperation.CREATE_POLICY;
+            case UpdatePolicy u -> JournaledOperation.UPDATE_POLICY;
+            case RegisterClaim r -> JournaledOperation.REGISTER_CLAIM;
+        };
+    }
+
+    private static Long carOf(Command command) {
+        return switch (command) {
+            case CreatePolicy c -> c.carId();
+            case UpdatePolicy u -> null; // known once applied
+            case RegisterClaim r -> r.carId();
+        };
+    }
+
+    private static byte typeOf(Command command) {
+        return (byte) (operationOf(command).ordinal() + 1);
+    }
+
+    static byte[] encode(UUID handle, Command command) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(handle.getMostSignificantBits());
+            out.writeLong(handle.getLeastSignificantBits());
+            switch (command) {
+                case CreatePolicy c -> {
+                    out.writeLong(c.carId());
+                    out.writeLong(c.startDate().toEpochDay());
+                    out.writeLong(c.endDate().toEpochDay());
+                    writeString(out, c.provider());
+                }
+                case UpdatePolicy u -> {
+                    out.writeLong(u.policyId());
+                    out.writeLong(u.startDate().toEpochDay());
+                    out.writeLong(u.endDate().toEpochDay());
+                    writeString(out, u.provider());
+                }
+                case RegisterClaim r -> {
+                    out.writeLong(r.carId());
+                    out.writeLong(r.claimDate().toEpochDay());
+                    writeString(out, r.description());
+                    writeString(out, r.amount().toPlainString());
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    // payload positioned after the handle
+    static Command decode(byte type, ByteBuffer in) {
+        JournaledOperation op = JournaledOperation.values()[type - 1];
+        return switch (op) {
+            case CREATE_POLICY -> new CreatePolicy(in.getLong(), LocalDate.ofEpochDay(in.getLong()),
+                    LocalDate.ofEpochDay(in.getLong()), readString(in));
+            case UPDATE_POLICY -> new UpdatePolicy(in.getLong(), LocalDate.ofEpochDay(in.getLong()),
+                    LocalDate.ofEpochDay(in.getLong()), readString(in));
+            case REGISTER_CLAIM -> new RegisterClaim(in.getLong(), LocalDate.ofEpochDay(in.getLong()),
+                    readString(in), new BigDecimal(readString(in)));
+        };
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int len = in.getInt();
+        if (len < 0) return null;
+        byte[] bytes = new byte[len];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
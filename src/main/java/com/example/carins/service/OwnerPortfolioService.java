@@ -0,0 +1,163 @@
+package com.example.carins.service;
+
+import com.example.carins.concurrent.CompositeRead;
+import com.example.carins.datasource.ShardMap;
+import com.example.carins.exception.InvalidDateException;
+import com.example.carins.exception.ResourceNotFoundException;
+import com.example.carins.model.Car;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimTotals;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.web.dto.ClaimSummaryDto;
+import com.example.carins.web.dto.OwnerPortfolioPage;
+import com.example.carins.web.dto.PolicyResponse;
+import com.example.carins.web.dto.PortfolioCarDto;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * An owner's cars with the policies valid on a date and a claim summary per car. Each page costs a
+ * fixed number of queries whatever its size: the owner, the page of cars (keyset on car id), the
+ * policies of all those cars as one IN-list, and one grouped claim query per claim table. The owner and
+ * the car page are read side by side, then the policies and the claim totals. With sharding, owners are on
+ * every shard; each shard reads its own page of the owner's cars and the details of those cars, and the pages
+ * are merged by car id.
+ */
+@Service
+public class OwnerPortfolioService {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 500;
+
+    private static final ClaimSummaryDto NO_CLAIMS = new ClaimSummaryDto(0, BigDecimal.ZERO, null);
+
+    private final OwnerRepository ownerRepository;
+    private final CarRepository carRepository;
+    private final InsurancePolicyRepository policyRepository;
+    private final ClaimArchiveService claims;
+    private final CompositeReads reads;
+    private final ShardMap shards;
+    private final TransactionTemplate readTx;
+
+    public OwnerPortfolioService(OwnerRepository ownerRepository,
+                                 CarRepository carRepository,
+                                 InsurancePolicyRepository policyRepository,
+                                 ClaimArchiveService claims,
+                                 CompositeReads reads,
+                                 ShardMap shards,
+                                 PlatformTransactionManager transactionManager) {
+        this.ownerRepository = ownerRepository;
+        this.carRepository = carRepository;
+        this.policyRepository = policyRepository;
+        this.claims = claims;
+        this.reads = reads;
+        this.shards = shards;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    /**
+     * Cars with id greater than {@code afterId} (null = from the start), at most {@code limit} of them.
+     * Not transactional: each read runs in a read-only transaction of its own, two at a time.
+     */
+    public OwnerPortfolioPage portfolio(Long ownerId, LocalDate date, Long afterId, int limit) {
+        int y = date.getYear();
+        if (y < 1900 || y > 2100) {
+            throw new InvalidDateException("Date out of supported range (1900–2100): " + date);
+        }
+        int size = clamp(limit);
+        long after = afterId != null ? afterId : 0L;
+        Owner owner;
+        List<Car> rows;
+        try (CompositeRead read = reads.open("portfolio")) {
+            Supplier<Owner> found = read.fork("owner", () -> ownerRepository.findById(ownerId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Owner " + ownerId + " not found")));
+            // one extra row tells whether another page exists without a count query
+            Supplier<List<Car>> page = read.fork("cars", () -> CompositeReads.merge(
+                    reads.scatter("portfolio-cars", shard -> readTx.execute(s -> carRepository
+                            .findByOwnerIdAndIdGreaterThanOrderByIdAsc(ownerId, after, Limit.of(size + 1)))),
+                    Comparator.comparing(Car::getId), size + 1));
+            read.join();
+            owner = found.get();
+            rows = page.get();
+        }
+        boolean hasMore = rows.size() > size;
+        List<Car> cars = hasMore ? rows.subList(0, size) : rows;
+        if (cars.isEmpty()) {
+            return new OwnerPortfolioPage(owner.getId(), owner.getName(), owner.getEmail(), date, List.of(), afterId, false);
+        }
+
+        List<InsurancePolicy> active = new ArrayList<>();
+        Map<Long, ClaimTotals> totals = new HashMap<>();
+        for (Details d : reads.scatter("portfolio-details", shard -> details(cars.stream()
+                .map(Car::getId)
+                .filter(id -> shards.shardOf(id) == shard)
+                .toList(), date))) {
+            active.addAll(d.active());
+            totals.putAll(d.totals());
+        }
+
+        Map<Long, List<PolicyResponse>> policies = new HashMap<>();
+        for (InsurancePolicy p : active) {
+            Long carId = p.getCar().getId();
+            policies.computeIfAbsent(carId, k -> new ArrayList<>()).add(new PolicyResponse(
+                    p.getId(),
+                    carId,
+                    p.getProvider(),
+                    p.getStartDate(),
+                    p.getEndDate()
+            ));
+        }
+
+        List<PortfolioCarDto> out = new ArrayList<>(cars.size());
+        for (Car c : cars) {
+            ClaimTotals t = totals.get(c.getId());
+            out.add(new PortfolioCarDto(
+                    c.getId(),
+                    c.getVin(),
+                    c.getMake(),
+                    c.getModel(),
+                    c.getYearOfManufacture(),
+                    policies.getOrDefault(c.getId(), List.of()),
+                    t == null ? NO_CLAIMS : new ClaimSummaryDto(t.count(), t.amount(), t.lastClaimDate())
+            ));
+        }
+        Long nextAfter = cars.get(cars.size() - 1).getId();
+        return new OwnerPortfolioPage(owner.getId(), owner.getName(), owner.getEmail(), date, out, nextAfter, hasMore);
+    }
+
+    private record Details(List<InsurancePolicy> active, Map<Long, ClaimTotals> totals) {}
+
+    // the policies and claim totals of cars on one shard
+    private Details details(List<Long> carIds, LocalDate date) {
+        if (carIds.isEmpty()) {
+            return new Details(List.of(), Map.of());
+        }
+        try (CompositeRead read = reads.open("portfolio-details")) {
+            Supplier<List<InsurancePolicy>> activeOnDate = read.fork("policies",
+                    () -> readTx.execute(s -> policyRepository.findActiveOnDateForCars(carIds, date)));
+            Supplier<Map<Long, ClaimTotals>> claimTotals = read.fork("claims", () -> claims.totalsForCars(carIds));
+            read.join();
+            return new Details(activeOnDate.get(), claimTotals.get());
+        }
+    }
+
+    private static int clamp(int limit) {
+        if (limit <= 0) return DEFAULT_LIMIT;
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
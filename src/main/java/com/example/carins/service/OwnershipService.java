@@ -0,0 +1,286 @@
+package com.example.carins.service;
+
+import com.example.carins.datasource.ReadYourWritesTracker;
+import com.example.carins.datasource.ShardMap;
+import com.example.carins.exception.InvalidDateException;
+import com.example.carins.exception.OwnershipTransferException;
+import com.example.carins.exception.ResourceNotFoundException;
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.model.OwnershipPeriod;
+import com.example.carins.ownership.OwnershipIndex;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.repo.OwnershipPeriodRepository;
+import com.example.carins.repo.OwnershipSpan;
+import com.example.carins.web.dto.CarOwnerResponse;
+import com.example.carins.web.dto.OwnerCarsResponse;
+import com.example.carins.web.dto.OwnershipPeriodDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Owner transfers and "who owned what when", kept in {@code ownership_period}. As-of lookups are
+ * answered from an {@link OwnershipIndex} loaded at startup, after every car without a period has been
+ * given an open one for its current owner; until then they wait for it. A transfer closes the current
+ * period the day before the new owner's first day, opens the next, moves {@code car.owner} and records an
+ * {@code ownershipTransferred} history event, all in one transaction; the index picks the car up once it
+ * commits. Cars inserted behind the application's back are treated as owned by their current owner until
+ * their first transfer or the next restart. With sharding, the startup backfill and load go shard by shard.
+ */
+@Service
+public class OwnershipService {
+
+    private static final Logger log = LoggerFactory.getLogger(OwnershipService.class);
+
+    private final OwnershipPeriodRepository periodRepository;
+    private final CarRepository carRepository;
+    private final OwnerRepository ownerRepository;
+    private final CarTimelineService timeline;
+    private final ReadYourWritesTracker readYourWrites;
+    private final ShardMap shards;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readTx;
+    private final OwnershipIndex index = new OwnershipIndex();
+    private final int batchSize;
+
+    private final CompletableFuture<Void> loaded = new CompletableFuture<>();
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private final Set<Long> changedDuringLoad = ConcurrentHashMap.newKeySet();
+    // serializes read-then-apply per car, so an older read never lands after a newer one
+    private final Object[] carLocks = new Object[64];
+
+    public OwnershipService(OwnershipPeriodRepository periodRepository,
+                            CarRepository carRepository,
+                            OwnerRepository ownerRepository,
+                            CarTimelineService timeline,
+                            ReadYourWritesTracker readYourWrites,
+                            ShardMap shards,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${carins.ownership.batch-size:500}") int batchSize) {
+        this.periodRepository = periodRepository;
+        this.carRepository = carRepository;
+        this.ownerRepository = ownerRepository;
+        this.timeline = timeline;
+        this.readYourWrites = readYourWrites;
+        this.shards = shards;
+        this.tx = new TransactionTemplate(transactionManager);
+        // runs after the writer's commit, so it needs a transaction of its own
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTx.setReadOnly(true);
+        this.batchSize = batchSize;
+        for (int i = 0; i < carLocks.length; i++) {
+            carLocks[i] = new Object();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread t = new Thread(this::load, "ownership-load");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    void load() {
+        long start = System.nanoTime();
+        loading.set(true);
+        try {
+            int backfilled = shards.onEachShard(shard -> backfill()).stream().mapToInt(Integer::intValue).sum();
+            Map<Long, List<OwnershipIndex.Period>> byCar = new HashMap<>();
+            shards.onEachShard(shard -> {
+                readAll(byCar);
+                return null;
+            });
+            index.replaceAll(byCar);
+            loaded.complete(null);
+            log.info("Ownership index loaded ({} cars, {} given an initial period, in {} ms)",
+                    index.carCount(), backfilled, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            loaded.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.set(false);
+            for (Long carId : List.copyOf(changedDuringLoad)) {
+                changedDuringLoad.remove(carId);
+                refreshCar(carId);
+            }
+        }
+    }
+
+    // ------ Transfers ------
+
+    /** Hands the car to {@code ownerId} from {@code date} (today when null) on. */
+    @Transactional
+    public OwnershipPeriodDto transfer(Long carId, Long ownerId, LocalDate date) {
+        LocalDate today = LocalDate.now();
+        LocalDate from = date != null ? date : today;
+        checkRange(from);
+        if (from.isAfter(today)) {
+            throw new InvalidDateException("Transfer date cannot be in the future: " + from);
+        }
+        shards.bindCar(carId);
+        // the car row lock orders this against other transfers of the car and the backfill
+        carRepository.lockById(carId)
+                .orElseThrow(() -> new ResourceNotFoundException("Car " + carId + " not found"));
+        Car car = carRepository.getReferenceById(carId);
+        Owner next = ownerRepository.findById(ownerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Owner " + ownerId + " not found"));
+
+        OwnershipPeriod current = periodRepository.findCurrent(carId)
+                .orElseGet(() -> periodRepository.save(new OwnershipPeriod(car, car.getOwner(), null)));
+        Owner previous = current.getOwner();
+        if (previous.getId().equals(ownerId)) {
+            throw new OwnershipTransferException("Car " + carId + " is already owned by owner " + ownerId);
+        }
+        if (current.getStartDate() != null && !from.isAfter(current.getStartDate())) {
+            throw new OwnershipTransferException("Transfer date must be after the current owner's first day ("
+                    + current.getStartDate() + ")");
+        }
+
+        current.setEndDate(from.minusDays(1));
+        OwnershipPeriod opened = periodRepository.save(new OwnershipPeriod(car, next, from));
+        car.setOwner(next);
+        timeline.ownershipTransferred(opened, previous);
+        readYourWrites.recordWrite(carId);
+        afterCommit(carId);
+        return toDto(opened);
+    }
+
+    @Transactional(readOnly = true)
+    public List<OwnershipPeriodDto> periods(Long carId) {
+        shards.bindCar(carId);
+        List<OwnershipPeriod> periods = periodRepository.findByCarIdInOrder(carId);
+        if (periods.isEmpty()) {
+            Car car = carRepository.findById(carId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Car " + carId + " not found"));
+            Owner owner = car.getOwner();
+            return List.of(new OwnershipPeriodDto(null, carId, owner.getId(), owner.getName(), null, null));
+        }
+        return periods.stream().map(OwnershipService::toDto).toList();
+    }
+
+    // ------ As-of lookups ------
+
+    public CarOwnerResponse ownerOn(Long carId, LocalDate date) {
+        checkRange(date);
+        awaitLoaded();
+        if (index.hasCar(carId)) {
+            return new CarOwnerResponse(carId, date, index.ownerOn(carId, date));
+        }
+        Long owner = shards.onCar(carId, () -> carRepository.findOwnerIdById(carId))
+                .orElseThrow(() -> new ResourceNotFoundException("Car " + carId + " not found"));
+        return new CarOwnerResponse(carId, date, owner);
+    }
+
+    public OwnerCarsResponse carsOwnedOn(Long ownerId, LocalDate date) {
+        checkRange(date);
+        awaitLoaded();
+        if (!index.hasOwner(ownerId) && !ownerRepository.existsById(ownerId)) {
+            throw new ResourceNotFoundException("Owner " + ownerId + " not found");
+        }
+        return new OwnerCarsResponse(ownerId, date, index.carsOwnedOn(ownerId, date));
+    }
+
+    // ------ Index maintenance ------
+
+    private void afterCommit(Long carId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshCar(carId);
+                }
+            });
+        } else {
+            refreshCar(carId);
+        }
+    }
+
+    private void refreshCar(Long carId) {
+        if (loading.get()) {
+            changedDuringLoad.add(carId);
+        }
+        synchronized (carLocks[Long.hashCode(carId) & (carLocks.length - 1)]) {
+            List<OwnershipSpan> spans = readTx.execute(s -> periodRepository.findSpansByCarId(carId));
+            index.replaceCar(carId, spans.stream().map(OwnershipService::toPeriod).toList());
+        }
+    }
+
+    // gives every car without a period an open one for its current owner, batchSize cars per transaction
+    private int backfill() {
+        int backfilled = 0;
+        long afterId = 0;
+        while (true) {
+            long cursor = afterId;
+            List<Long> ids = tx.execute(s -> {
+                List<Long> batch = carRepository.findIdsWithoutOwnership(cursor, Limit.of(batchSize));
+                for (Long carId : batch) {
+                    carRepository.lockById(carId);
+                    // a transfer may have got there between the scan and the lock
+                    if (!periodRepository.existsByCarId(carId)) {
+                        Car car = carRepository.getReferenceById(carId);
+                        periodRepository.save(new OwnershipPeriod(car, car.getOwner(), null));
+                    }
+                }
+                return batch;
+            });
+            if (ids.isEmpty()) break;
+            backfilled += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+        return backfilled;
+    }
+
+    private void readAll(Map<Long, List<OwnershipIndex.Period>> byCar) {
+        long afterId = 0;
+        List<OwnershipSpan> chunk;
+        do {
+            long cursor = afterId;
+            chunk = readTx.execute(s -> periodRepository.findSpansAfter(cursor, Limit.of(batchSize)));
+            for (OwnershipSpan p : chunk) {
+                byCar.computeIfAbsent(p.carId(), k -> new ArrayList<>(1)).add(toPeriod(p));
+            }
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).id();
+            }
+        } while (chunk.size() == batchSize);
+    }
+
+    private void awaitLoaded() {
+        loaded.join();
+    }
+
+    private static void checkRange(LocalDate date) {
+        int y = date.getYear();
+        if (y < 1900 || y > 2100) {
+            throw new InvalidDateException("Date out of supported range (1900–2100): " + date);
+        }
+    }
+
+    private static OwnershipIndex.Period toPeriod(OwnershipSpan p) {
+        return new OwnershipIndex.Period(p.ownerId(), p.startDate(), p.endDate());
+    }
+
+    private static OwnershipPeriodDto toDto(OwnershipPeriod p) {
+        return new OwnershipPeriodDto(p.getId(), p.getCar().getId(), p.getOwner().getId(), p.getOwner().getName(),
+                p.getStartDate(), p.getEndDate());
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.carins.service;
+
+import com.example.carins.datasource.ShardMap;
+import com.example.carins.jfr.PolicyExpiryRunEvent;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.PolicyEndDate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Upcoming policy expiries, bucketed by end date, fired at midnight. A policy is logged as expired on its
+ * end date (the day starts at midnight, same as the old hourly scan), so each midnight drains every bucket
+ * up to the new day and loads the unlogged policies that just came within {@code horizon}; memory holds
+ * about a horizon's worth of expiries, and the database sees one indexed range query per day.
+ *
+ * <p>Policy writes keep the buckets current through {@link #policySaved}. Fired policies are re-read
+ * before being logged, so a bucket entry that went stale (end date moved since) is harmless;
+ * one that was lost is picked up by the reconciliation scan in {@code PolicyExpiryJob}. With sharding,
+ * loads, expiries and the reconciliation scan go shard by shard; a policy id names its shard.
+ */
+@Service
+public class PolicyExpiryTimeline {
+
+    private static final Logger log = LoggerFactory.getLogger(PolicyExpiryTimeline.class);
+
+    private final InsurancePolicyRepository policyRepository;
+    private final ShardMap shards;
+    private final TransactionTemplate tx;
+    private final TaskScheduler scheduler;
+    private final Period horizon;
+    private final int batchSize;
+    private final Counter expiredOnTime;
+    private final Counter expiredByReconcile;
+
+    // guarded by this
+    private final TreeMap<LocalDate, Set<Long>> buckets = new TreeMap<>();
+    private final Map<Long, LocalDate> dueById = new HashMap<>();
+    private LocalDate loadedUntil = ClaimArchiveService.EARLIEST;
+
+    public PolicyExpiryTimeline(InsurancePolicyRepository policyRepository,
+                                ShardMap shards,
+                                PlatformTransactionManager transactionManager,
+                                TaskScheduler scheduler,
+                                MeterRegistry registry,
+                                @Value("${carins.policies.expiry.horizon:P35D}") Period horizon,
+                                @Value("${carins.policies.expiry.batch-size:500}") int batchSize) {
+        this.policyRepository = policyRepository;
+        this.shards = shards;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.scheduler = scheduler;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        this.expiredOnTime = Counter.builder("carins.policies.expired").tag("source", "timeline").register(registry);
+        this.expiredByReconcile = Counter.builder("carins.policies.expired").tag("source", "reconcile").register(registry);
+        Gauge.builder("carins.policies.expiry.scheduled", this, PolicyExpiryTimeline::scheduledCount).register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        runTick();
+    }
+
+    /** Called by policy writes, inside their transaction; the buckets change once it commits. */
+    public void policySaved(InsurancePolicy p) {
+        if (p.isExpiryLogged()) return;
+        Long id = p.getId();
+        LocalDate due = p.getEndDate();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reschedule(id, due);
+                }
+            });
+        } else {
+            reschedule(id, due);
+        }
+    }
+
+    private synchronized void reschedule(Long id, LocalDate due) {
+        // a load running concurrently may not see this write yet, so cover its window too
+        LocalDate limit = LocalDate.now().plus(horizon);
+        if (loadedUntil.isAfter(limit)) {
+            limit = loadedUntil;
+        }
+        if (due.isAfter(limit)) {
+            unschedule(id);
+        } else {
+            schedule(id, due);
+        }
+    }
+
+    /** Loads everything due within the horizon of {@code today}, then logs what is due on {@code today}. */
+    public int tick(LocalDate today) {
+        PolicyExpiryRunEvent event = new PolicyExpiryRunEvent();
+        event.begin();
+        load(today.plus(horizon));
+        List<Long> due = drainDueOn(today);
+        int expired = expire(due, today);
+        commit(event, "timeline", due.size(), expired);
+        return expired;
+    }
+
+    /** Safety net: logs whatever the timeline missed, by scanning the table. */
+    public int reconcile(LocalDate today) {
+        PolicyExpiryRunEvent event = new PolicyExpiryRunEvent();
+        event.begin();
+        int missed = shards.onEachShard(shard -> tx.execute(s -> {
+            List<InsurancePolicy> expired = policyRepository.findByEndDateBeforeAndExpiryLoggedFalse(today.plusDays(1));
+            expired.forEach(this::logExpired);
+            return expired.size();
+        })).stream().mapToInt(Integer::intValue).sum();
+        if (missed > 0) {
+            expiredByReconcile.increment(missed);
+            log.warn("Expiry reconciliation logged {} policies the timeline had missed", missed);
+        }
+        // the scan only returns unlogged policies, and logs every one of them
+        commit(event, "reconcile", missed, missed);
+        return missed;
+    }
+
+    synchronized int scheduledCount() {
+        return dueById.size();
+    }
+
+    private void runTick() {
+        try {
+            tick(LocalDate.now());
+        } catch (RuntimeException e) {
+            log.warn("Policy expiry tick failed, the reconciliation scan will catch up", e);
+        } finally {
+            ZoneId zone = ZoneId.systemDefault();
+            scheduler.schedule(this::runTick, LocalDate.now(zone).plusDays(1).atStartOfDay(zone).toInstant());
+        }
+    }
+
+    private void load(LocalDate until) {
+        LocalDate after;
+        synchronized (this) {
+            if (!until.isAfter(loadedUntil)) return;
+            after = loadedUntil;
+        }
+        shards.onEachShard(shard -> {
+            loadShard(after, until);
+            return null;
+        });
+        synchronized (this) {
+            loadedUntil = until;
+        }
+    }
+
+    private void loadShard(LocalDate after, LocalDate until) {
+        long afterId = 0;
+        List<PolicyEndDate> chunk;
+        do {
+            chunk = policyRepository.findUnloggedEndingBetween(after, until, afterId, Limit.of(batchSize));
+            for (PolicyEndDate p : chunk) {
+                schedule(p.id(), p.endDate());
+            }
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).id();
+            }
+        } while (chunk.size() == batchSize);
+    }
+
+    private int expire(List<Long> due, LocalDate today) {
+        int expired = shards.onEachShard(shard -> expireOnShard(
+                due.stream().filter(id -> shards.shardOf(id) == shard).toList(), today))
+                .stream().mapToInt(Integer::intValue).sum();
+        expiredOnTime.increment(expired);
+        return expired;
+    }
+
+    private int expireOnShard(List<Long> due, LocalDate today) {
+        int expired = 0;
+        for (int i = 0; i < due.size(); i += batchSize) {
+            List<Long> ids = due.subList(i, Math.min(i + batchSize, due.size()));
+            expired += tx.execute(s -> {
+                int n = 0;
+                for (InsurancePolicy p : policyRepository.findAllById(ids)) {
+                    if (p.isExpiryLogged()) continue;
+                    if (p.getEndDate().isAfter(today)) {
+                        policySaved(p); // end date moved since it was bucketed
+                        continue;
+                    }
+                    logExpired(p);
+                    n++;
+                }
+                return n;
+            });
+        }
+        return expired;
+    }
+
+    private static void commit(PolicyExpiryRunEvent event, String source, int scanned, int updated) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.source = source;
+            event.scanned = scanned;
+            event.updated = updated;
+            event.commit();
+        }
+    }
+
+    private void logExpired(InsurancePolicy p) {
+        log.info("Policy {} for car {} expired on {}", p.getId(), p.getCar().getId(), p.getEndDate());
+        p.setExpiryLogged(true);
+    }
+
+    private synchronized void schedule(Long id, LocalDate due) {
+        LocalDate previous = dueById.put(id, due);
+        if (previous != null && !previous.equals(due)) {
+            removeFromBucket(previous, id);
+        }
+        buckets.computeIfAbsent(due, d -> new HashSet<>()).add(id);
+    }
+
+    private synchronized void unschedule(Long id) {
+        LocalDate previous = dueById.remove(id);
+        if (previous != null) {
+            removeFromBucket(previous, id);
+        }
+    }
+
+    private synchronized List<Long> drainDueOn(LocalDate today) {
+        List<Long> due = new ArrayList<>();
+        SortedMap<LocalDate, Set<Long>> head = buckets.headMap(today, true);
+        for (Set<Long> ids : head.values()) {
+            due.addAll(ids);
+        }
+        head.clear();
+        due.forEach(dueById::remove);
+        return due;
+    }
+
+    private void removeFromBucket(LocalDate day, Long id) {
+        Set<Long> ids = buckets.get(day);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            buckets.remove(day);
+        }
+    }
+}
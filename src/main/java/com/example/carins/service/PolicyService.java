@@ -2,25 +2,80 @@ package com.example.carins.service;
 
 import com.example.carins.model.InsurancePolicy;
 import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.SparseFieldRepository;
 import com.example.carins.web.dto.PolicyResponse;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class PolicyService {
 
+    /** Fields of a policy for {@code fields=}, in {@code PolicyResponse} order; carId is the policy's own column. */
+    public static final Map<String, String> POLICY_FIELDS = FieldSet.catalog(
+            "id", "id",
+            "carId", "car.id",
+            "provider", "provider",
+            "startDate", "startDate",
+            "endDate", "endDate");
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
     private final InsurancePolicyRepository policyRepo;
+    private final SparseFieldRepository sparse;
+    private final CompositeReads reads;
+    private final TransactionTemplate readTx;
 
-    public PolicyService(InsurancePolicyRepository policyRepo) {
+    public PolicyService(InsurancePolicyRepository policyRepo, SparseFieldRepository sparse, CompositeReads reads,
+                         PlatformTransactionManager transactionManager) {
         this.policyRepo = policyRepo;
+        this.sparse = sparse;
+        this.reads = reads;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
     }
 
+    /** Every policy in id order; sharded, one read-only transaction per shard side by side. */
     public List<PolicyResponse> listAll() {
-        return policyRepo.findAll()
-                .stream()
-                .map(this::toResponse)
-                .toList();
+        return listAll(0L, Limit.unlimited());
+    }
+
+    /** Policies with id greater than {@code afterId} (null = from the start), at most {@code limit}, in id order. */
+    public List<PolicyResponse> listAll(Long afterId, int limit) {
+        return listAll(afterId != null ? afterId : 0L, Limit.of(limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT)));
+    }
+
+    /** Only the selected columns of every policy in id order; the id is always selected, to merge and page on. */
+    public List<Map<String, Object>> listAll(FieldSet fields) {
+        return listAll(fields, 0L, Limit.unlimited());
+    }
+
+    /** {@link #listAll(FieldSet)} paged like {@link #listAll(Long, int)}. */
+    public List<Map<String, Object>> listAll(FieldSet fields, Long afterId, int limit) {
+        return listAll(fields, afterId != null ? afterId : 0L,
+                Limit.of(limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT)));
+    }
+
+    private List<Map<String, Object>> listAll(FieldSet fields, long afterId, Limit limit) {
+        Map<String, String> paths = fields.including("id", POLICY_FIELDS).paths();
+        List<List<Map<String, Object>>> parts = reads.scatter("policy-fields", shard -> sparse.findFields(
+                InsurancePolicy.class, paths, (cb, p) -> cb.greaterThan(p.get("id"), afterId), limit, "id"));
+        return CompositeReads.merge(parts, Comparator.comparing(row -> (Long) row.get("id")),
+                limit.isLimited() ? limit.max() : Integer.MAX_VALUE);
+    }
+
+    // each shard returns its own first page, the merge keeps the first page overall
+    private List<PolicyResponse> listAll(long afterId, Limit limit) {
+        List<List<PolicyResponse>> parts = reads.scatter("policies", shard -> readTx.execute(s ->
+                policyRepo.findByIdGreaterThanOrderByIdAsc(afterId, limit).stream().map(this::toResponse).toList()));
+        return CompositeReads.merge(parts, Comparator.comparing(PolicyResponse::id),
+                limit.isLimited() ? limit.max() : Integer.MAX_VALUE);
     }
 
     private PolicyResponse toResponse(InsurancePolicy p) {
@@ -1,9 +1,18 @@
 package com.example.carins.web;
 
+import com.example.carins.constants.IdempotentOperation;
+import com.example.carins.service.CarReadCoalescer;
 import com.example.carins.service.CarService;
+import com.example.carins.service.CarTimelineService;
+import com.example.carins.service.FieldSet;
+import com.example.carins.service.IdempotencyService;
+import com.example.carins.service.IdempotencyService.Outcome;
+import com.example.carins.service.JournaledWriteService;
+import com.example.carins.service.OwnershipService;
 import com.example.carins.web.dto.*;
 import com.example.carins.web.mapper.CarMapper;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -11,6 +20,8 @@ import org.springframework.web.util.UriComponentsBuilder;
 import java.net.URI;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api")
@@ -18,16 +29,36 @@ public class CarController {
 
     private final CarService service;
     private final CarMapper carMapper;
+    private final CarReadCoalescer reads;
+    private final JournaledWriteService journaled;
+    private final OwnershipService ownership;
+    private final IdempotencyService idempotency;
 
-    public CarController(CarService service, CarMapper carMapper) {
+    public CarController(CarService service, CarMapper carMapper, CarReadCoalescer reads, JournaledWriteService journaled,
+                         OwnershipService ownership, IdempotencyService idempotency) {
         this.service = service;
         this.carMapper = carMapper;
+        this.reads = reads;
+        this.journaled = journaled;
+        this.ownership = ownership;
+        this.idempotency = idempotency;
     }
 
-    //Extracted the mapper
+    // fields=id,vin selects only those columns plus the id (no owner join unless an owner field is asked for);
+    // limit pages by id, pass the last id as after
     @GetMapping("/cars")
-    public List<CarDto> getCars() {
-        return service.listCars().stream()
+    public List<?> getCars(@RequestParam(required = false) String fields,
+                           @RequestParam(required = false) Long after,
+                           @RequestParam(required = false) Integer limit) {
+        if (fields != null) {
+            FieldSet selected = FieldSet.parse(fields, CarService.CAR_FIELDS);
+            return limit != null || after != null
+                    ? service.listCars(selected, after, limit != null ? limit : 0)
+                    : service.listCars(selected);
+        }
+        //Extracted the mapper
+        return (limit != null || after != null ? service.listCars(after, limit != null ? limit : 0) : service.listCars())
+                .stream()
                 .map(carMapper::toDto)
                 .toList();
     }
@@ -38,44 +69,117 @@ public class CarController {
             @RequestParam String date) {
 
         LocalDate parsedDate = service.parseDate(date);
-        boolean valid = service.isInsuranceValid(carId, parsedDate);
+        boolean valid = reads.isInsuranceValid(carId, parsedDate);
 
         return ResponseEntity.ok(new InsuranceValidityResponse(carId, date, valid));
     }
 
 
+    // a retry with the same Idempotency-Key gets the first response back, marked Idempotent-Replayed
     @PostMapping("/cars/{carId}/policies")
-    public ResponseEntity<PolicyResponse> createPolicy(@PathVariable Long carId,
-                                                       @Valid @RequestBody PolicyUpsertRequest req) {
-        PolicyResponse saved = service.createPolicy(carId, req.startDate(), req.endDate(), req.provider());
-        return ResponseEntity.created(URI.create("/api/policies/" + saved.id())).body(saved);
+    public ResponseEntity<?> createPolicy(@PathVariable Long carId,
+                                          @Valid @RequestBody PolicyUpsertRequest req,
+                                          @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (journaled.isEnabled()) {
+            Supplier<JournaledWriteResponse> submit =
+                    () -> journaled.createPolicy(carId, req.startDate(), req.endDate(), req.provider());
+            return accepted(idempotencyKey == null ? Outcome.written(submit.get())
+                    : idempotency.execute(idempotencyKey, IdempotentOperation.CREATE_POLICY, carId, req,
+                            JournaledWriteResponse.class, submit));
+        }
+        Supplier<PolicyResponse> write = () -> service.createPolicy(carId, req.startDate(), req.endDate(), req.provider());
+        Outcome<PolicyResponse> saved = idempotencyKey == null ? Outcome.written(write.get())
+                : idempotency.execute(idempotencyKey, IdempotentOperation.CREATE_POLICY, carId, req, PolicyResponse.class, write);
+        return created(URI.create("/api/policies/" + saved.body().id()), saved);
     }
 
     @PutMapping("/policies/{policyId}")
-    public PolicyResponse updatePolicy(@PathVariable Long policyId,
-                                       @Valid @RequestBody PolicyUpsertRequest req) {
-        return service.updatePolicy(policyId, req.startDate(), req.endDate(), req.provider());
+    public ResponseEntity<?> updatePolicy(@PathVariable Long policyId,
+                                          @Valid @RequestBody PolicyUpsertRequest req) {
+        if (journaled.isEnabled()) {
+            return accepted(Outcome.written(journaled.updatePolicy(policyId, req.startDate(), req.endDate(), req.provider())));
+        }
+        return ResponseEntity.ok(service.updatePolicy(policyId, req.startDate(), req.endDate(), req.provider()));
     }
 
     @PostMapping("/cars/{carId}/claims")
-    public ResponseEntity<ClaimDto> createClaim(
+    public ResponseEntity<?> createClaim(
             @PathVariable Long carId,
             @Valid @RequestBody CreateClaimRequest body,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
             UriComponentsBuilder uri) {
 
-        ClaimDto dto = service.registerClaim(carId, body);
+        if (journaled.isEnabled()) {
+            Supplier<JournaledWriteResponse> submit = () -> journaled.registerClaim(carId, body);
+            return accepted(idempotencyKey == null ? Outcome.written(submit.get())
+                    : idempotency.execute(idempotencyKey, IdempotentOperation.REGISTER_CLAIM, carId, body,
+                            JournaledWriteResponse.class, submit));
+        }
 
-        java.net.URI location = uri
+        Supplier<ClaimDto> write = () -> service.registerClaim(carId, body);
+        Outcome<ClaimDto> dto = idempotencyKey == null ? Outcome.written(write.get())
+                : idempotency.execute(idempotencyKey, IdempotentOperation.REGISTER_CLAIM, carId, body, ClaimDto.class, write);
+
+        URI location = uri
                 .path("/api/cars/{carId}/claims/{claimId}")
-                .buildAndExpand(carId, dto.id())
+                .buildAndExpand(carId, dto.body().id())
                 .toUri();
 
-        return ResponseEntity.created(location).body(dto);
+        return created(location, dto);
+    }
+
+    @GetMapping("/writes/{handle}")
+    public JournaledWriteResponse getJournaledWrite(@PathVariable UUID handle) {
+        return journaled.status(handle);
     }
 
+    // sparse reads are not coalesced
     @GetMapping("/cars/{carId}/history")
-    public ResponseEntity<List<HistoryEventDto>> getHistory(@PathVariable Long carId) {
-        var events = service.getHistory(carId);
+    public ResponseEntity<List<?>> getHistory(
+            @PathVariable Long carId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(service.getHistory(carId, from, to, FieldSet.parse(fields, CarTimelineService.HISTORY_FIELDS)));
+        }
+        var events = reads.getHistory(carId, from, to);
         return ResponseEntity.ok(events);
     }
+
+    @PostMapping("/cars/{carId}/owner-transfers")
+    public ResponseEntity<OwnershipPeriodDto> transferOwner(@PathVariable Long carId,
+                                                           @Valid @RequestBody OwnerTransferRequest req) {
+        OwnershipPeriodDto opened = ownership.transfer(carId, req.ownerId(), req.date());
+        return ResponseEntity.created(URI.create("/api/cars/" + carId + "/ownership")).body(opened);
+    }
+
+    @GetMapping("/cars/{carId}/ownership")
+    public List<OwnershipPeriodDto> getOwnership(@PathVariable Long carId) {
+        return ownership.periods(carId);
+    }
+
+    @GetMapping("/cars/{carId}/owner")
+    public CarOwnerResponse getOwner(
+            @PathVariable Long carId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ownership.ownerOn(carId, date != null ? date : LocalDate.now());
+    }
+
+    private static <T> ResponseEntity<T> created(URI location, Outcome<T> outcome) {
+        ResponseEntity.BodyBuilder res = ResponseEntity.created(location);
+        if (outcome.replayed()) {
+            res.header("Idempotent-Replayed", "true");
+        }
+        return res.body(outcome.body());
+    }
+
+    // journaled: applied with the next batch, poll the handle for the resulting id; a retry gets the same handle
+    private static ResponseEntity<JournaledWriteResponse> accepted(Outcome<JournaledWriteResponse> outcome) {
+        ResponseEntity.BodyBuilder res = ResponseEntity.accepted().location(URI.create("/api/writes/" + outcome.body().handle()));
+        if (outcome.replayed()) {
+            res.header("Idempotent-Replayed", "true");
+        }
+        return res.body(outcome.body());
+    }
 }
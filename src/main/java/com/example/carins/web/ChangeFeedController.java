@@ -0,0 +1,40 @@
+package com.example.carins.web;
+
+import com.example.carins.service.ChangeFeedService;
+import com.example.carins.web.dto.CarDto;
+import com.example.carins.web.dto.ChangePage;
+import com.example.carins.web.dto.ClaimDto;
+import com.example.carins.web.dto.PolicyResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeFeedController {
+
+    private final ChangeFeedService service;
+
+    public ChangeFeedController(ChangeFeedService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/cars")
+    public ChangePage<CarDto> carChanges(@RequestParam(required = false) String since,
+                                         @RequestParam(defaultValue = "100") int limit) {
+        return service.carsChangedSince(since, limit);
+    }
+
+    @GetMapping("/policies")
+    public ChangePage<PolicyResponse> policyChanges(@RequestParam(required = false) String since,
+                                                    @RequestParam(defaultValue = "100") int limit) {
+        return service.policiesChangedSince(since, limit);
+    }
+
+    @GetMapping("/claims")
+    public ChangePage<ClaimDto> claimChanges(@RequestParam(required = false) String since,
+                                             @RequestParam(defaultValue = "100") int limit) {
+        return service.claimsChangedSince(since, limit);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.carins.web;
+
+import com.example.carins.service.ClaimSearchService;
+import com.example.carins.web.dto.ClaimSearchResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/claims")
+public class ClaimSearchController {
+
+    private final ClaimSearchService search;
+
+    public ClaimSearchController(ClaimSearchService search) {
+        this.search = search;
+    }
+
+    @GetMapping("/search")
+    public ClaimSearchResponse search(
+            @RequestParam String q,
+            @RequestParam(required = false) Long carId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(defaultValue = "relevance") String sort,
+            @RequestParam(defaultValue = "20") int limit) {
+        return search.search(q, carId, from, to, minAmount, maxAmount, sort, limit);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.carins.web;
+
+import com.example.carins.service.FleetCoverageService;
+import com.example.carins.web.dto.CarIdPage;
+import com.example.carins.web.dto.FleetCoverageResponse;
+import com.example.carins.web.dto.ModelCoverageDto;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/fleet/coverage")
+public class FleetCoverageController {
+
+    private final FleetCoverageService coverage;
+
+    public FleetCoverageController(FleetCoverageService coverage) {
+        this.coverage = coverage;
+    }
+
+    @GetMapping
+    public FleetCoverageResponse getCoverage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String make,
+            @RequestParam(required = false) String model) {
+        return coverage.coverage(date != null ? date : LocalDate.now(), make, model);
+    }
+
+    @GetMapping("/cars")
+    public CarIdPage getCars(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "true") boolean insured,
+            @RequestParam(required = false) String make,
+            @RequestParam(required = false) String model,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return coverage.cars(date != null ? date : LocalDate.now(), insured, make, model, after, limit);
+    }
+
+    @GetMapping("/lapsed")
+    public CarIdPage getLapsed(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String make,
+            @RequestParam(required = false) String model,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return coverage.lapsed(from, to != null ? to : LocalDate.now(), make, model, after, limit);
+    }
+
+    @GetMapping("/by-model")
+    public List<ModelCoverageDto> getByModel(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return coverage.byModel(date != null ? date : LocalDate.now());
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        coverage.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
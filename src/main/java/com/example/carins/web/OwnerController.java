@@ -0,0 +1,44 @@
+package com.example.carins.web;
+
+import com.example.carins.service.OwnerPortfolioService;
+import com.example.carins.service.OwnershipService;
+import com.example.carins.web.dto.OwnerCarsResponse;
+import com.example.carins.web.dto.OwnerPortfolioPage;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/owners")
+public class OwnerController {
+
+    private final OwnerPortfolioService portfolio;
+    private final OwnershipService ownership;
+
+    public OwnerController(OwnerPortfolioService portfolio, OwnershipService ownership) {
+        this.portfolio = portfolio;
+        this.ownership = ownership;
+    }
+
+    @GetMapping("/{ownerId}/portfolio")
+    public OwnerPortfolioPage getPortfolio(
+            @PathVariable Long ownerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return portfolio.portfolio(ownerId, date != null ? date : LocalDate.now(), after, limit);
+    }
+
+    // cars held on the date, transfers included; the portfolio only knows each car's current owner
+    @GetMapping("/{ownerId}/cars")
+    public OwnerCarsResponse getCars(
+            @PathVariable Long ownerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ownership.carsOwnedOn(ownerId, date != null ? date : LocalDate.now());
+    }
+}
@@ -1,10 +1,11 @@
 package com.example.carins.web;
 
 import com.example.carins.service.CarService;
+import com.example.carins.service.FieldSet;
 import com.example.carins.service.PolicyService;
-import com.example.carins.web.dto.PolicyResponse;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -19,8 +20,20 @@ public class PolicyController {
         this.service = service;
     }
 
+    // limit pages by id, pass the last id as after
     @GetMapping("/policies")
-    public List<PolicyResponse> getAllPolicies() {
+    public List<?> getAllPolicies(@RequestParam(required = false) String fields,
+                                  @RequestParam(required = false) Long after,
+                                  @RequestParam(required = false) Integer limit) {
+        if (fields != null) {
+            FieldSet selected = FieldSet.parse(fields, PolicyService.POLICY_FIELDS);
+            return limit != null || after != null
+                    ? service.listAll(selected, after, limit != null ? limit : 0)
+                    : service.listAll(selected);
+        }
+        if (limit != null || after != null) {
+            return service.listAll(after, limit != null ? limit : 0);
+        }
         return service.listAll();
     }
 }
\ No newline at end of file
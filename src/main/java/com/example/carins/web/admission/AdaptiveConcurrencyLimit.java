@@ -0,0 +1,61 @@
+package com.example.carins.web.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global in-flight limit that follows observed latency (AIMD): every request finishing under the
+ * target latency grows the limit by 1/limit, a slow one shrinks it by 10% (at most once per target
+ * interval, so one slow burst doesn't collapse it to the floor). Requests over the limit are rejected
+ * instead of queueing on the connection pool. The top quarter of the limit is reserved for priority
+ * (light, interactive) callers so bulk traffic spread over many keys can't take every slot.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private static final long SCALE = 1000; // limit kept in milli-permits so it fits a CAS
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final AtomicLong limitMillis;
+    private final AtomicLong lastDecreaseNanos = new AtomicLong(System.nanoTime());
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.limitMillis = new AtomicLong(Math.max(minLimit, Math.min(maxLimit, initialLimit)) * SCALE);
+    }
+
+    public boolean tryAcquire(boolean priority) {
+        int limit = limit();
+        int allowed = priority ? limit : Math.max(1, limit * 3 / 4);
+        int current = inFlight.incrementAndGet();
+        if (current > allowed) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void release(long latencyNanos, long nowNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos > targetLatencyNanos) {
+            long last = lastDecreaseNanos.get();
+            if (nowNanos - last >= targetLatencyNanos && lastDecreaseNanos.compareAndSet(last, nowNanos)) {
+                limitMillis.updateAndGet(l -> Math.max(minLimit * SCALE, l * 9 / 10));
+            }
+        } else {
+            limitMillis.updateAndGet(l -> Math.min(maxLimit * SCALE, l + SCALE * SCALE / l));
+        }
+    }
+
+    public int limit() {
+        return (int) (limitMillis.get() / SCALE);
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
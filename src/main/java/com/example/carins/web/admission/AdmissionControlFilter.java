@@ -0,0 +1,142 @@
+package com.example.carins.web.admission;
+
+import com.example.carins.exception.dto.ApiError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admission control in front of the API: a token bucket per client ({@code X-API-Key} when it is one of
+ * the issued keys, else the remote address) and a global adaptive concurrency limit, part of which is kept
+ * for clients that are well within their rate. Unknown keys are ignored, so rotating made-up keys never
+ * buys a fresh burst. Past {@code maxClients} the buckets closest to full are evicted to make room. Rejected requests get 429 with
+ * {@code Retry-After} before they ever reach a controller or ask the pool for a connection.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    private final AdmissionProperties props;
+    private final AdaptiveConcurrencyLimit concurrency;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Counter admitted;
+    private final Counter rateLimited;
+    private final Counter overloaded;
+
+    public AdmissionControlFilter(AdmissionProperties props, ObjectMapper objectMapper, MeterRegistry registry) {
+        this.props = props;
+        this.objectMapper = objectMapper;
+        this.concurrency = new AdaptiveConcurrencyLimit(props.initialLimit(), props.minLimit(), props.maxLimit(),
+                props.targetLatency().toNanos());
+        this.admitted = Counter.builder("carins.admission.requests").tag("outcome", "admitted").register(registry);
+        this.rateLimited = Counter.builder("carins.admission.requests").tag("outcome", "rate_limited").register(registry);
+        this.overloaded = Counter.builder("carins.admission.requests").tag("outcome", "overloaded").register(registry);
+        Gauge.builder("carins.admission.limit", concurrency, AdaptiveConcurrencyLimit::limit).register(registry);
+        Gauge.builder("carins.admission.in_flight", concurrency, AdaptiveConcurrencyLimit::inFlight).register(registry);
+        Gauge.builder("carins.admission.clients", buckets, ConcurrentHashMap::size).register(registry);
+    }
+
+    public record AdmissionProperties(double ratePerSecond,
+                                      int burst,
+                                      int maxClients,
+                                      int initialLimit,
+                                      int minLimit,
+                                      int maxLimit,
+                                      Duration targetLatency,
+                                      Set<String> apiKeys) {}
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.nanoTime();
+        TokenBucket bucket = bucketFor(clientKey(request), now);
+        boolean priority = bucket.isLightlyUsed(now);
+        if (!bucket.tryAcquire(now)) {
+            rateLimited.increment();
+            long waitSeconds = Math.max(1, Duration.ofNanos(bucket.nanosUntilAvailable(now)).toSeconds());
+            reject(request, response, waitSeconds, "Rate limit exceeded");
+            return;
+        }
+        if (!concurrency.tryAcquire(priority)) {
+            overloaded.increment();
+            reject(request, response, 1, "Server busy, retry shortly");
+            return;
+        }
+        admitted.increment();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long end = System.nanoTime();
+            concurrency.release(end - now, end);
+        }
+    }
+
+    private TokenBucket bucketFor(String key, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= props.maxClients()) {
+            evictLeastUsed();
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(props.ratePerSecond(), props.burst(), now));
+    }
+
+    // drops the tenth of the buckets closest to full: the idle clients, which lose the least by starting
+    // over. One sort per maxClients / 10 new clients keeps the scan off the common path.
+    private synchronized void evictLeastUsed() {
+        if (buckets.size() < props.maxClients()) {
+            return;
+        }
+        long[] arrivals = buckets.values().stream().mapToLong(TokenBucket::theoreticalArrival).toArray();
+        Arrays.sort(arrivals);
+        long cutoff = arrivals[Math.max(0, arrivals.length / 10 - 1)];
+        buckets.values().removeIf(b -> b.theoreticalArrival() <= cutoff);
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        return (apiKey != null && props.apiKeys().contains(apiKey)) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long retryAfterSeconds,
+                        String message) throws IOException {
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ApiError(
+                Instant.now(),
+                status.value(),
+                status.getReasonPhrase(),
+                message,
+                null,
+                request.getRequestURI(),
+                null
+        ));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictFullBuckets() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(e -> e.getValue().isFull(now));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.carins.web.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is one "theoretical arrival time",
+ * advanced by one emission interval per admitted request and updated with a single CAS.
+ * Allows {@code burst} back-to-back requests, refilling at {@code ratePerSecond}.
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.toleranceNanos = emissionIntervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    public boolean tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            if (next - nowNanos > toleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return true;
+            }
+        }
+    }
+
+    /** How long until the next request would be admitted; 0 when one is available now. */
+    public long nanosUntilAvailable(long nowNanos) {
+        long next = Math.max(theoreticalArrival.get(), nowNanos) + emissionIntervalNanos;
+        return Math.max(0, next - nowNanos - toleranceNanos);
+    }
+
+    /** True while at least half of the burst is still available, i.e. the client is not hammering us. */
+    public boolean isLightlyUsed(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos < toleranceNanos / 2;
+    }
+
+    /** Orders buckets by use: the lower it is, the closer the bucket is to full and the less recreating it loses. */
+    public long theoreticalArrival() {
+        return theoreticalArrival.get();
+    }
+
+    /** A full bucket behaves exactly like a new one, so it can be dropped. */
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.carins.web.binary;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Wire types for the binary (CBOR) representation only: dates are epoch days and money amounts
+ * are longs scaled by 100 (350.00 -> 35000), so clients decode plain integers instead of strings.
+ */
+public class CompactBinaryModule extends SimpleModule {
+
+    public static final int AMOUNT_SCALE = 2;
+
+    public CompactBinaryModule() {
+        super("CompactBinaryModule");
+        addSerializer(LocalDate.class, new EpochDaySerializer());
+        addDeserializer(LocalDate.class, new EpochDayDeserializer());
+        addSerializer(BigDecimal.class, new ScaledAmountSerializer());
+        addDeserializer(BigDecimal.class, new ScaledAmountDeserializer());
+    }
+
+    static final class EpochDaySerializer extends StdScalarSerializer<LocalDate> {
+        EpochDaySerializer() { super(LocalDate.class); }
+
+        @Override
+        public void serialize(LocalDate value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(value.toEpochDay());
+        }
+    }
+
+    static final class EpochDayDeserializer extends StdScalarDeserializer<LocalDate> {
+        EpochDayDeserializer() { super(LocalDate.class); }
+
+        @Override
+        public LocalDate deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return LocalDate.ofEpochDay(p.getLongValue());
+        }
+    }
+
+    static final class ScaledAmountSerializer extends StdScalarSerializer<BigDecimal> {
+        ScaledAmountSerializer() { super(BigDecimal.class); }
+
+        @Override
+        public void serialize(BigDecimal value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(value.setScale(AMOUNT_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact());
+        }
+    }
+
+    static final class ScaledAmountDeserializer extends StdScalarDeserializer<BigDecimal> {
+        ScaledAmountDeserializer() { super(BigDecimal.class); }
+
+        @Override
+        public BigDecimal deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return BigDecimal.valueOf(p.getLongValue(), AMOUNT_SCALE);
+        }
+    }
+}
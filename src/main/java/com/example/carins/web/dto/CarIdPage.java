@@ -0,0 +1,11 @@
+package com.example.carins.web.dto;
+
+import java.util.List;
+
+/** Ascending car ids out of {@code total}; pass {@code nextAfter} as {@code after} for the next page. */
+public record CarIdPage(
+        long total,
+        List<Long> carIds,
+        Long nextAfter,
+        boolean hasMore
+) {}
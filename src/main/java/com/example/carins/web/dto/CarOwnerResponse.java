@@ -0,0 +1,6 @@
+package com.example.carins.web.dto;
+
+import java.time.LocalDate;
+
+/** {@code ownerId} is null when no owner is recorded for the car on {@code date}. */
+public record CarOwnerResponse(Long carId, LocalDate date, Long ownerId) {}
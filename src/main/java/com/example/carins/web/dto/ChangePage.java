@@ -0,0 +1,14 @@
+package com.example.carins.web.dto;
+
+import java.util.List;
+
+/**
+ * One page of a change feed. {@code removed} holds the ids of rows that left the table within
+ * the page (archived claims); a consumer applies them after {@code items}.
+ */
+public record ChangePage<T>(
+        List<T> items,
+        List<Long> removed,
+        String nextCursor,
+        boolean hasMore
+) {}
@@ -1,12 +1,21 @@
 package com.example.carins.web.dto;
 
+import com.example.carins.constants.ClaimFlag;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 public record ClaimDto(
         Long id,
         Long carId,
         LocalDate claimDate,
         String description,
-        BigDecimal amount
-) {}
\ No newline at end of file
+        BigDecimal amount,
+        // set on registration by ClaimAnomalyDetector, not stored
+        List<ClaimFlag> flags
+) {
+    public ClaimDto(Long id, Long carId, LocalDate claimDate, String description, BigDecimal amount) {
+        this(id, carId, claimDate, description, amount, List.of());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.carins.web.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record ClaimSearchHitDto(
+        Long id,
+        Long carId,
+        LocalDate claimDate,
+        String description,
+        BigDecimal amount,
+        double score
+) {}
@@ -0,0 +1,6 @@
+package com.example.carins.web.dto;
+
+import java.util.List;
+
+// complete is false while the index is still being built at startup
+public record ClaimSearchResponse(String q, String sort, long matched, boolean complete, List<ClaimSearchHitDto> hits) {}
@@ -0,0 +1,11 @@
+package com.example.carins.web.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** All claims of a car, archived ones included. {@code lastClaimDate} is null when there are none. */
+public record ClaimSummaryDto(
+        long count,
+        BigDecimal totalAmount,
+        LocalDate lastClaimDate
+) {}
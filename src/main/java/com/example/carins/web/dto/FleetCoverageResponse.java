@@ -0,0 +1,13 @@
+package com.example.carins.web.dto;
+
+import java.time.LocalDate;
+
+/** Counts for the fleet on {@code date}, narrowed to {@code make}/{@code model} when set. */
+public record FleetCoverageResponse(
+        LocalDate date,
+        String make,
+        String model,
+        long cars,
+        long insured,
+        long uninsured
+) {}
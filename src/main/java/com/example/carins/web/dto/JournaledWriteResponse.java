@@ -0,0 +1,13 @@
+package com.example.carins.web.dto;
+
+import com.example.carins.constants.JournaledOperation;
+import com.example.carins.constants.JournaledWriteStatus;
+
+public record JournaledWriteResponse(
+        String handle,
+        JournaledOperation operation,
+        JournaledWriteStatus status,
+        Long carId,
+        Long entityId,
+        String message
+) {}
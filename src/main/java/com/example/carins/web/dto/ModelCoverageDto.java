@@ -0,0 +1,9 @@
+package com.example.carins.web.dto;
+
+public record ModelCoverageDto(
+        String make,
+        String model,
+        long cars,
+        long insured,
+        long uninsured
+) {}
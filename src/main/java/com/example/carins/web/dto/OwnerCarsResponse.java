@@ -0,0 +1,7 @@
+package com.example.carins.web.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/** Ascending ids of the cars the owner held on {@code date}. */
+public record OwnerCarsResponse(Long ownerId, LocalDate date, List<Long> carIds) {}
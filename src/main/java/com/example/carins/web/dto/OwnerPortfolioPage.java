@@ -0,0 +1,15 @@
+package com.example.carins.web.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/** One page of an owner's cars; pass {@code nextAfter} as {@code after} to get the next one. */
+public record OwnerPortfolioPage(
+        Long ownerId,
+        String ownerName,
+        String ownerEmail,
+        LocalDate date,
+        List<PortfolioCarDto> cars,
+        Long nextAfter,
+        boolean hasMore
+) {}
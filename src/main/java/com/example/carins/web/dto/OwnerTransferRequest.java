@@ -0,0 +1,11 @@
+package com.example.carins.web.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+/** {@code date} is the new owner's first day, today when omitted. */
+public record OwnerTransferRequest(
+        @NotNull(message = "ownerId is required") Long ownerId,
+        LocalDate date
+) {}
@@ -0,0 +1,13 @@
+package com.example.carins.web.dto;
+
+import java.time.LocalDate;
+
+/** {@code startDate} null: owned since before ownership was recorded; {@code endDate} null: current owner. */
+public record OwnershipPeriodDto(
+        Long id,
+        Long carId,
+        Long ownerId,
+        String ownerName,
+        LocalDate startDate,
+        LocalDate endDate
+) {}
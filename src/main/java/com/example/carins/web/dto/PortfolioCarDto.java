@@ -0,0 +1,13 @@
+package com.example.carins.web.dto;
+
+import java.util.List;
+
+public record PortfolioCarDto(
+        Long id,
+        String vin,
+        String make,
+        String model,
+        int year,
+        List<PolicyResponse> activePolicies,
+        ClaimSummaryDto claims
+) {}
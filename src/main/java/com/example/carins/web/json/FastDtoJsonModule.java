@@ -0,0 +1,187 @@
+package com.example.carins.web.json;
+
+import com.example.carins.constants.HistoryEventType;
+import com.example.carins.web.dto.CarDto;
+import com.example.carins.web.dto.HistoryEventDto;
+import com.example.carins.web.dto.InsuranceValidityResponse;
+import com.example.carins.web.dto.PolicyResponse;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Hand-written serializers for the DTOs on the hot read endpoints. Output is identical to the
+ * reflective record serialization, but field names and enum names are pre-encoded once and dates
+ * are written from a per-thread char buffer instead of going through DateTimeFormatter.
+ * Jackson already recycles the generator's output buffers, so nothing else is pooled here.
+ */
+@Component
+public class FastDtoJsonModule extends SimpleModule {
+
+    public FastDtoJsonModule() {
+        super("FastDtoJsonModule");
+        addSerializer(CarDto.class, new CarDtoSerializer());
+        addSerializer(PolicyResponse.class, new PolicyResponseSerializer());
+        addSerializer(HistoryEventDto.class, new HistoryEventDtoSerializer());
+        addSerializer(InsuranceValidityResponse.class, new InsuranceValidityResponseSerializer());
+    }
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString VIN = new SerializedString("vin");
+    private static final SerializedString MAKE = new SerializedString("make");
+    private static final SerializedString MODEL = new SerializedString("model");
+    private static final SerializedString YEAR = new SerializedString("year");
+    private static final SerializedString OWNER_ID = new SerializedString("ownerId");
+    private static final SerializedString OWNER_NAME = new SerializedString("ownerName");
+    private static final SerializedString OWNER_EMAIL = new SerializedString("ownerEmail");
+    private static final SerializedString CAR_ID = new SerializedString("carId");
+    private static final SerializedString PROVIDER = new SerializedString("provider");
+    private static final SerializedString START_DATE = new SerializedString("startDate");
+    private static final SerializedString END_DATE = new SerializedString("endDate");
+    private static final SerializedString DATE = new SerializedString("date");
+    private static final SerializedString TYPE = new SerializedString("type");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString REF_ID = new SerializedString("refId");
+    private static final SerializedString VALID = new SerializedString("valid");
+
+    // indexed by ordinal, values taken from the @JsonProperty names on the constants
+    private static final SerializableString[] EVENT_TYPE_NAMES = eventTypeNames();
+
+    private static final ThreadLocal<char[]> DATE_BUFFER = ThreadLocal.withInitial(() -> new char[10]);
+
+    static final class CarDtoSerializer extends StdSerializer<CarDto> {
+        CarDtoSerializer() { super(CarDto.class); }
+
+        @Override
+        public void serialize(CarDto c, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(c);
+            writeLong(gen, ID, c.id());
+            writeString(gen, VIN, c.vin());
+            writeString(gen, MAKE, c.make());
+            writeString(gen, MODEL, c.model());
+            gen.writeFieldName(YEAR);
+            gen.writeNumber(c.year());
+            writeLong(gen, OWNER_ID, c.ownerId());
+            writeString(gen, OWNER_NAME, c.ownerName());
+            writeString(gen, OWNER_EMAIL, c.ownerEmail());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class PolicyResponseSerializer extends StdSerializer<PolicyResponse> {
+        PolicyResponseSerializer() { super(PolicyResponse.class); }
+
+        @Override
+        public void serialize(PolicyResponse p, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(p);
+            writeLong(gen, ID, p.id());
+            writeLong(gen, CAR_ID, p.carId());
+            writeString(gen, PROVIDER, p.provider());
+            writeDate(gen, provider, START_DATE, p.startDate());
+            writeDate(gen, provider, END_DATE, p.endDate());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class HistoryEventDtoSerializer extends StdSerializer<HistoryEventDto> {
+        HistoryEventDtoSerializer() { super(HistoryEventDto.class); }
+
+        @Override
+        public void serialize(HistoryEventDto e, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(e);
+            writeDate(gen, provider, DATE, e.date());
+            gen.writeFieldName(TYPE);
+            if (e.type() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeString(EVENT_TYPE_NAMES[e.type().ordinal()]);
+            }
+            writeString(gen, DESCRIPTION, e.description());
+            writeLong(gen, REF_ID, e.refId());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class InsuranceValidityResponseSerializer extends StdSerializer<InsuranceValidityResponse> {
+        InsuranceValidityResponseSerializer() { super(InsuranceValidityResponse.class); }
+
+        @Override
+        public void serialize(InsuranceValidityResponse r, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(r);
+            writeLong(gen, CAR_ID, r.carId());
+            writeString(gen, DATE, r.date());
+            gen.writeFieldName(VALID);
+            gen.writeBoolean(r.valid());
+            gen.writeEndObject();
+        }
+    }
+
+    // ------ Writing helpers ------
+
+    private static void writeLong(JsonGenerator gen, SerializableString name, Long value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) gen.writeNull();
+        else gen.writeNumber(value.longValue());
+    }
+
+    private static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) gen.writeNull();
+        else gen.writeString(value);
+    }
+
+    private static void writeDate(JsonGenerator gen, SerializerProvider provider,
+                                  SerializableString name, LocalDate date) throws IOException {
+        gen.writeFieldName(name);
+        if (date == null) {
+            gen.writeNull();
+            return;
+        }
+        int year = date.getYear();
+        if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS) || year < 0 || year > 9999) {
+            provider.defaultSerializeValue(date, gen); // whatever the mapper is configured to do
+            return;
+        }
+        char[] buf = DATE_BUFFER.get();
+        buf[0] = (char) ('0' + year / 1000);
+        buf[1] = (char) ('0' + year / 100 % 10);
+        buf[2] = (char) ('0' + year / 10 % 10);
+        buf[3] = (char) ('0' + year % 10);
+        buf[4] = '-';
+        int month = date.getMonthValue();
+        buf[5] = (char) ('0' + month / 10);
+        buf[6] = (char) ('0' + month % 10);
+        buf[7] = '-';
+        int day = date.getDayOfMonth();
+        buf[8] = (char) ('0' + day / 10);
+        buf[9] = (char) ('0' + day % 10);
+        gen.writeString(buf, 0, 10);
+    }
+
+    private static SerializableString[] eventTypeNames() {
+        HistoryEventType[] types = HistoryEventType.values();
+        SerializableString[] names = new SerializableString[types.length];
+        for (HistoryEventType t : types) {
+            String name = t.name();
+            try {
+                JsonProperty prop = HistoryEventType.class.getField(t.name()).getAnnotation(JsonProperty.class);
+                if (prop != null && !prop.value().isEmpty()) {
+                    name = prop.value();
+                }
+            } catch (NoSuchFieldException ignored) {
+                // enum constants are always public fields
+            }
+            names[t.ordinal()] = new SerializedString(name);
+        }
+        return names;
+    }
+}
@@ -1,13 +1,13 @@
 INSERT INTO owner (name, email) VALUES ('Ana Pop', 'ana.pop@example.com');
 INSERT INTO owner (name, email) VALUES ('Bogdan Ionescu', 'bogdan.ionescu@example.com');
 
-INSERT INTO car (vin, make, model, year_of_manufacture, owner_id) VALUES ('VIN12345', 'Dacia', 'Logan', 2018, 1);
-INSERT INTO car (vin, make, model, year_of_manufacture, owner_id) VALUES ('VIN67890', 'VW', 'Golf', 2021, 2);
+INSERT INTO car (vin, make, model, year_of_manufacture, owner_id, version, updated_at) VALUES ('VIN12345', 'Dacia', 'Logan', 2018, 1, 0, CURRENT_TIMESTAMP);
+INSERT INTO car (vin, make, model, year_of_manufacture, owner_id, version, updated_at) VALUES ('VIN67890', 'VW', 'Golf', 2021, 2, 0, CURRENT_TIMESTAMP);
 
-INSERT INTO insurancepolicy (car_id, provider, start_date, end_date,expiry_logged) VALUES (1, 'Allianz', DATE '2024-01-01', DATE '2024-12-31', FALSE);
-INSERT INTO insurancepolicy (car_id, provider, start_date, end_date,expiry_logged) VALUES (1, 'Groupama', DATE '2025-01-01', DATE '2025-12-31', FALSE);
-INSERT INTO insurancepolicy (car_id, provider, start_date, end_date,expiry_logged) VALUES (2, 'Allianz', DATE '2025-03-01', DATE '2025-09-30', FALSE);
+INSERT INTO insurancepolicy (car_id, provider, start_date, end_date,expiry_logged, version, updated_at) VALUES (1, 'Allianz', DATE '2024-01-01', DATE '2024-12-31', FALSE, 0, CURRENT_TIMESTAMP);
+INSERT INTO insurancepolicy (car_id, provider, start_date, end_date,expiry_logged, version, updated_at) VALUES (1, 'Groupama', DATE '2025-01-01', DATE '2025-12-31', FALSE, 0, CURRENT_TIMESTAMP);
+INSERT INTO insurancepolicy (car_id, provider, start_date, end_date,expiry_logged, version, updated_at) VALUES (2, 'Allianz', DATE '2025-03-01', DATE '2025-09-30', FALSE, 0, CURRENT_TIMESTAMP);
 
 
-INSERT INTO claim (car_id, claim_date, description, amount) VALUES (1, DATE '2025-02-15', 'Rear bumper scratch', 350.00);
-INSERT INTO claim (car_id, claim_date, description, amount) VALUES (2, DATE '2025-04-10', 'Windshield replacement', 800.00);
\ No newline at end of file
+INSERT INTO claim (id, car_id, claim_date, description, amount, version, updated_at) VALUES (NEXT VALUE FOR claim_seq, 1, DATE '2025-02-15', 'Rear bumper scratch', 350.00, 0, CURRENT_TIMESTAMP);
+INSERT INTO claim (id, car_id, claim_date, description, amount, version, updated_at) VALUES (NEXT VALUE FOR claim_seq, 2, DATE '2025-04-10', 'Windshield replacement', 800.00, 0, CURRENT_TIMESTAMP);
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.example.carins.bench;
+
+import com.example.carins.web.admission.AdmissionControlFilter;
+import com.example.carins.web.admission.AdmissionControlFilter.AdmissionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Interactive p99 while bulk clients loop on the API, with and without admission control.
+ * The backend is simulated as an 8-connection pool with 2 ms per query.
+ * Run with {@code mvn test -Pbench -Dtest=AdmissionControlLoadTest}.
+ */
+@Tag("benchmark")
+class AdmissionControlLoadTest {
+
+    private static final int BULK_THREADS = 48;
+    private static final int INTERACTIVE_REQUESTS = 500;
+
+    private final Semaphore pool = new Semaphore(8, true);
+
+    private final FilterChain backend = (req, res) -> {
+        pool.acquireUninterruptibly();
+        try {
+            LockSupport.parkNanos(Duration.ofMillis(2).toNanos());
+        } finally {
+            pool.release();
+        }
+    };
+
+    @Test
+    void interactiveP99_withAndWithoutAdmissionControl() throws Exception {
+        System.out.printf("%-28s %10s %10s %12s%n", "scenario", "p50 ms", "p99 ms", "bulk 429s");
+        report("no admission control", null, false);
+        report("one bulk key", filter(), false);
+        report("bulk spread over many keys", filter(), true);
+    }
+
+    private AdmissionControlFilter filter() {
+        return new AdmissionControlFilter(new AdmissionProperties(200, 50, 100_000, 16, 4, 64, Duration.ofMillis(10),
+                Set.of("bulk", "interactive")),
+                Jackson2ObjectMapperBuilder.json().build(), new SimpleMeterRegistry());
+    }
+
+    private void report(String name, AdmissionControlFilter filter, boolean rotateKeys) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        long[] rejected = new long[BULK_THREADS];
+        List<Thread> bulk = new ArrayList<>();
+        for (int t = 0; t < BULK_THREADS; t++) {
+            int id = t;
+            bulk.add(Thread.ofPlatform().start(() -> {
+                long n = 0;
+                while (running.get()) {
+                    String key = rotateKeys ? "bulk-" + id + "-" + (n++) : "bulk";
+                    if (call(filter, key) == 429) {
+                        rejected[id]++;
+                        LockSupport.parkNanos(Duration.ofMillis(1).toNanos());
+                    }
+                }
+            }));
+        }
+        Thread.sleep(500); // let the limit settle
+
+        long[] latencies = new long[INTERACTIVE_REQUESTS];
+        for (int i = 0; i < INTERACTIVE_REQUESTS; i++) {
+            long start = System.nanoTime();
+            int status;
+            do {
+                status = call(filter, "interactive");
+            } while (status == 429);
+            latencies[i] = System.nanoTime() - start;
+            LockSupport.parkNanos(Duration.ofMillis(5).toNanos());
+        }
+        running.set(false);
+        for (Thread t : bulk) t.join();
+
+        Arrays.sort(latencies);
+        System.out.printf("%-28s %10.2f %10.2f %12d%n", name,
+                latencies[INTERACTIVE_REQUESTS / 2] / 1e6,
+                latencies[INTERACTIVE_REQUESTS * 99 / 100] / 1e6,
+                Arrays.stream(rejected).sum());
+    }
+
+    private int call(AdmissionControlFilter filter, String apiKey) {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/cars/1/insurance-valid");
+        req.addHeader(AdmissionControlFilter.API_KEY_HEADER, apiKey);
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        try {
+            if (filter == null) {
+                backend.doFilter(req, res);
+            } else {
+                filter.doFilter(req, res, backend);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return res.getStatus();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.carins.bench;
+
+import com.example.carins.web.binary.CompactBinaryModule;
+import com.example.carins.web.dto.PolicyResponse;
+import com.example.carins.web.json.FastDtoJsonModule;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Payload size and encode+decode latency of a 10k policy list, JSON vs CBOR.
+ * Run with {@code mvn test -Pbench -Dtest=BinaryFormatBenchmark}.
+ */
+@Tag("benchmark")
+class BinaryFormatBenchmark {
+
+    private static final int POLICIES = 10_000;
+    private static final int WARMUP = 100;
+    private static final int ITERATIONS = 300;
+    private static final TypeReference<List<PolicyResponse>> LIST = new TypeReference<>() {};
+
+    @Test
+    void compareJsonAndCbor() throws Exception {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().modulesToInstall(new FastDtoJsonModule()).build();
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().modulesToInstall(new CompactBinaryModule()).build();
+
+        List<PolicyResponse> policies = new ArrayList<>(POLICIES);
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < POLICIES; i++) {
+            policies.add(new PolicyResponse((long) i, (long) i / 3, i % 2 == 0 ? "Allianz" : "Groupama",
+                    start.plusDays(i % 1500), start.plusDays(i % 1500 + 365)));
+        }
+
+        System.out.printf("%-6s %12s %14s %14s%n", "format", "bytes", "encode us/op", "decode us/op");
+        report("json", json, policies);
+        report("cbor", cbor, policies);
+    }
+
+    private static void report(String name, ObjectMapper mapper, List<PolicyResponse> policies) throws Exception {
+        byte[] bytes = mapper.writeValueAsBytes(policies);
+        for (int i = 0; i < WARMUP; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(policies), LIST);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.writeValueAsBytes(policies);
+        }
+        double encode = (System.nanoTime() - start) / 1e3 / ITERATIONS;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.readValue(bytes, LIST);
+        }
+        double decode = (System.nanoTime() - start) / 1e3 / ITERATIONS;
+        System.out.printf("%-6s %12d %14.1f %14.1f%n", name, bytes.length, encode, decode);
+    }
+}
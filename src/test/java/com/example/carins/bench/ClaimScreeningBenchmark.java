@@ -0,0 +1,79 @@
+package com.example.carins.bench;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.service.CarService;
+import com.example.carins.service.ClaimAnomalyDetector;
+import com.example.carins.web.dto.CreateClaimRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Cost of claim screening next to the claim registration it runs in: {@link ClaimAnomalyDetector#screen}
+ * alone over {@link #SCREEN_CARS} cars with full rings, and a whole {@code registerClaim} (in-memory H2).
+ * Run with {@code mvn test -Pbench -Dtest=ClaimScreeningBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class ClaimScreeningBenchmark {
+
+    private static final int SCREEN_CARS = 100_000;
+    private static final int SCREENS = 2_000_000;
+    private static final int REGISTRATIONS = 5_000;
+    private static final String[] TEXTS = {"Rear bumper scratch", "Windshield replacement", "Side mirror broken",
+            "Hail damage on the roof", "Front door dent after parking collision", "Headlight cracked"};
+    private static final LocalDate BASE = LocalDate.parse("2025-01-01");
+
+    @Autowired
+    CarService service;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Test
+    void screeningCost() {
+        ClaimAnomalyDetector detector = new ClaimAnomalyDetector(new SimpleMeterRegistry(), true, 8, SCREEN_CARS, 30, 0.05, 7, 3);
+        SplittableRandom random = new SplittableRandom(3);
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < SCREENS; i++) {
+                detector.screen((long) i, (long) random.nextInt(SCREEN_CARS), BASE.plusDays(random.nextInt(365)),
+                        TEXTS[random.nextInt(TEXTS.length)], BigDecimal.valueOf(10_000 + random.nextInt(100_000), 2));
+            }
+            if (round == 1) {
+                System.out.printf("%-26s %10.2f us/claim%n", "screen()", (System.nanoTime() - start) / 1e3 / SCREENS);
+            }
+        }
+
+        Owner owner = ownerRepository.save(new Owner("Screening SRL", "screening@example.com"));
+        List<Long> cars = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            cars.add(carRepository.save(new Car("SCREEN" + String.format("%04d", i), "Dacia", "Logan", 2020, owner)).getId());
+        }
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < REGISTRATIONS; i++) {
+                service.registerClaim(cars.get(random.nextInt(cars.size())), new CreateClaimRequest(
+                        BASE.plusDays(random.nextInt(365)), TEXTS[random.nextInt(TEXTS.length)],
+                        BigDecimal.valueOf(10_000 + random.nextInt(100_000), 2)));
+            }
+            if (round == 1) {
+                System.out.printf("%-26s %10.2f us/claim%n", "registerClaim()", (System.nanoTime() - start) / 1e3 / REGISTRATIONS);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.carins.bench;
+
+import com.example.carins.search.ClaimSearchIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.function.IntSupplier;
+
+/**
+ * Claim search over {@link #CLAIMS} generated descriptions: the inverted index against a scan that lower-cases
+ * and {@code contains}-matches every description, the in-memory floor of {@code LIKE '%...%'}.
+ * Run with {@code mvn test -Pbench -Dtest=ClaimSearchBenchmark}.
+ */
+@Tag("benchmark")
+class ClaimSearchBenchmark {
+
+    private static final int CLAIMS = 1_000_000;
+    private static final int ROUNDS = 20;
+    private static final int TAIL = 50_000;
+    private static final String[] PARTS = {"rear", "front", "left", "right", "bumper", "door", "mirror", "windshield",
+            "hood", "roof", "scratch", "dent", "crack", "replacement", "paint", "parking", "collision", "hail",
+            "headlight", "taillight", "wheel", "tyre", "glass", "panel", "minor", "major", "repair", "towing"};
+    private static final LocalDate BASE = LocalDate.parse("2020-01-01");
+
+    @Test
+    void searchQueries() {
+        SplittableRandom random = new SplittableRandom(7);
+        ClaimSearchIndex index = new ClaimSearchIndex();
+        String[] texts = new String[CLAIMS];
+        long start = System.nanoTime();
+        for (int i = 0; i < CLAIMS; i++) {
+            StringBuilder text = new StringBuilder();
+            int words = 3 + random.nextInt(6);
+            for (int w = 0; w < words; w++) {
+                // skewed, so some words are common and some rare, plus a long tail of part numbers
+                text.append(w == 0 ? "" : " ").append(random.nextInt(4) == 0
+                        ? "p" + (int) (TAIL * Math.pow(random.nextDouble(), 3))
+                        : PARTS[(int) (PARTS.length * Math.pow(random.nextDouble(), 2))]);
+            }
+            texts[i] = text.toString();
+            index.add(i + 1, random.nextInt(100_000), BASE.plusDays(random.nextInt(2000)), texts[i],
+                    BigDecimal.valueOf(random.nextInt(1_000_000), 2));
+        }
+        System.out.printf("built %d claims, %d terms in %d ms%n", CLAIMS, index.termCount(), (System.nanoTime() - start) / 1_000_000);
+
+        ClaimSearchIndex.Filter recent = new ClaimSearchIndex.Filter(null, BASE.plusDays(1500), null, new BigDecimal("1000"), null);
+        System.out.printf("%-34s %12s %10s%n", "query", "us/op", "matched");
+        report("tail term (p40000)", () -> index.search("p40000", ClaimSearchIndex.Filter.NONE, ClaimSearchIndex.Order.RELEVANCE, 20).matched());
+        report("tail + common (p40000 rear)", () -> index.search("p40000 rear", ClaimSearchIndex.Filter.NONE, ClaimSearchIndex.Order.RELEVANCE, 20).matched());
+        report("rare term (towing)", () -> index.search("towing", ClaimSearchIndex.Filter.NONE, ClaimSearchIndex.Order.RELEVANCE, 20).matched());
+        report("common term (rear)", () -> index.search("rear", ClaimSearchIndex.Filter.NONE, ClaimSearchIndex.Order.RELEVANCE, 20).matched());
+        report("two terms (rear bumper)", () -> index.search("rear bumper", ClaimSearchIndex.Filter.NONE, ClaimSearchIndex.Order.RELEVANCE, 20).matched());
+        report("rare + common, by date", () -> index.search("towing rear", ClaimSearchIndex.Filter.NONE, ClaimSearchIndex.Order.DATE, 20).matched());
+        report("two terms + filters", () -> index.search("rear bumper", recent, ClaimSearchIndex.Order.RELEVANCE, 20).matched());
+        report("substring scan (towing)", () -> {
+            int n = 0;
+            for (String t : texts) {
+                if (t.toLowerCase(Locale.ROOT).contains("towing")) n++;
+            }
+            return n;
+        });
+        report("substring scan (p40000)", () -> {
+            int n = 0;
+            for (String t : texts) {
+                if (t.toLowerCase(Locale.ROOT).contains("p40000")) n++;
+            }
+            return n;
+        });
+    }
+
+    private static void report(String name, IntSupplier query) {
+        int result = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            result = query.getAsInt();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            result = query.getAsInt();
+        }
+        System.out.printf("%-34s %12.1f %10d%n", name, (System.nanoTime() - start) / 1e3 / ROUNDS, result);
+    }
+}
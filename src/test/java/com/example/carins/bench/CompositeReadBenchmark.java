@@ -0,0 +1,100 @@
+package com.example.carins.bench;
+
+import com.example.carins.concurrent.CompositeRead;
+import com.example.carins.service.CarService;
+import com.example.carins.service.CompositeReads;
+import com.example.carins.service.OwnerPortfolioService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Mean latency of the composite reads (history, insurance-valid, owner portfolio) with their queries run
+ * one after another and side by side, against the embedded database; then the same comparison for three
+ * reads that each wait 2 ms, standing in for the round trips of a networked database.
+ * Run with {@code mvn test -Pbench -Dtest=CompositeReadBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "carins.coalescing.enabled=false")
+class CompositeReadBenchmark {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 10_000;
+    private static final int ROUNDS = 3;
+    private static final Duration ROUND_TRIP = Duration.ofMillis(2);
+
+    @Autowired
+    CarService cars;
+
+    @Autowired
+    OwnerPortfolioService portfolios;
+
+    @Autowired
+    CompositeReads reads;
+
+    @Test
+    void latency() {
+        LocalDate today = LocalDate.now();
+        Runnable history = () -> cars.getHistory(1L, null, null);
+        Runnable valid = () -> cars.isInsuranceValid(1L, today);
+        Runnable portfolio = () -> portfolios.portfolio(1L, today, null, 100);
+
+        System.out.printf("%-18s %14s %14s%n", "read", "sequential µs", "concurrent µs");
+        for (var e : new Object[][]{{"history", history}, {"insurance-valid", valid}, {"portfolio", portfolio}}) {
+            Runnable call = (Runnable) e[1];
+            setConcurrent(true);
+            micros(call, WARMUP);
+            setConcurrent(false);
+            micros(call, WARMUP);
+            // interleaved rounds, best of each, so JIT warm-up does not favour whichever runs last
+            double sequential = Double.MAX_VALUE, concurrent = Double.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                setConcurrent(false);
+                sequential = Math.min(sequential, micros(call, ITERATIONS));
+                setConcurrent(true);
+                concurrent = Math.min(concurrent, micros(call, ITERATIONS));
+            }
+            System.out.printf("%-18s %14.1f %14.1f%n", e[0], sequential, concurrent);
+        }
+
+        Runnable remoteSequential = () -> threeRoundTrips(CompositeRead.sequential("remote", UnaryOperator.identity()));
+        Runnable remoteConcurrent = () -> threeRoundTrips(
+                CompositeRead.open("remote", Duration.ofSeconds(1), UnaryOperator.identity()));
+        System.out.printf("%-18s %14.1f %14.1f%n", "3 x 2 ms reads", micros(remoteSequential, 200), micros(remoteConcurrent, 200));
+    }
+
+    private void setConcurrent(boolean concurrent) {
+        ReflectionTestUtils.setField(reads, "enabled", concurrent);
+    }
+
+    private static void threeRoundTrips(CompositeRead scope) {
+        try (CompositeRead read = scope) {
+            Supplier<Integer> a = read.fork("a", CompositeReadBenchmark::roundTrip);
+            Supplier<Integer> b = read.fork("b", CompositeReadBenchmark::roundTrip);
+            Supplier<Integer> c = read.fork("c", CompositeReadBenchmark::roundTrip);
+            read.join();
+            if (a.get() + b.get() + c.get() != 3) throw new AssertionError();
+        }
+    }
+
+    private static Integer roundTrip() {
+        LockSupport.parkNanos(ROUND_TRIP.toNanos());
+        return 1;
+    }
+
+    private static double micros(Runnable call, int n) {
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            call.run();
+        }
+        return (System.nanoTime() - start) / 1e3 / n;
+    }
+}
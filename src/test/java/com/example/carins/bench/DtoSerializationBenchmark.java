@@ -0,0 +1,61 @@
+package com.example.carins.bench;
+
+import com.example.carins.constants.HistoryEventType;
+import com.example.carins.web.dto.HistoryEventDto;
+import com.example.carins.web.dto.PolicyResponse;
+import com.example.carins.web.json.FastDtoJsonModule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Default ObjectMapper vs {@link FastDtoJsonModule} on a 1000-element policy list and history.
+ * Run with {@code mvn test -Pbench -Dtest=DtoSerializationBenchmark}.
+ */
+@Tag("benchmark")
+class DtoSerializationBenchmark {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    @Test
+    void compareDefaultAndFastSerializers() throws Exception {
+        ObjectMapper reflective = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper fast = Jackson2ObjectMapperBuilder.json().modulesToInstall(new FastDtoJsonModule()).build();
+
+        List<PolicyResponse> policies = new ArrayList<>();
+        List<HistoryEventDto> history = new ArrayList<>();
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < 1_000; i++) {
+            policies.add(new PolicyResponse((long) i, (long) i % 50, "Allianz", start.plusDays(i), start.plusDays(i + 365)));
+            history.add(new HistoryEventDto(start.plusDays(i), HistoryEventType.values()[i % 3],
+                    "Policy #" + i + " (Allianz) started on " + start.plusDays(i), (long) i));
+        }
+
+        System.out.printf("%-10s %14s %14s%n", "payload", "default us/op", "fast us/op");
+        System.out.printf("%-10s %14.1f %14.1f%n", "policies", measure(reflective, policies), measure(fast, policies));
+        System.out.printf("%-10s %14.1f %14.1f%n", "history", measure(reflective, history), measure(fast, history));
+    }
+
+    private static double measure(ObjectMapper mapper, Object payload) throws Exception {
+        // writeValue closes the stream, so not OutputStream.nullOutputStream()
+        OutputStream sink = new OutputStream() {
+            @Override public void write(int b) {}
+            @Override public void write(byte[] b, int off, int len) {}
+        };
+        for (int i = 0; i < WARMUP; i++) {
+            mapper.writeValue(sink, payload);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.writeValue(sink, payload);
+        }
+        return (System.nanoTime() - start) / 1e3 / ITERATIONS;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.carins.bench;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Throughput of the 404 (unknown car) and 400 (bad date) paths on {@code /insurance-valid}.
+ * Run with {@code mvn test -Pbench -Dtest=ErrorPathBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+class ErrorPathBenchmark {
+
+    private static final int WARMUP = 5_000;
+    private static final int ITERATIONS = 20_000;
+
+    @Autowired
+    MockMvc mvc;
+
+    @Test
+    void errorThroughput() throws Exception {
+        double notFound = measure(i -> get("/api/cars/{carId}/insurance-valid", 100_000 + i).param("date", "2025-06-01"));
+        double badDate = measure(i -> get("/api/cars/{carId}/insurance-valid", 1).param("date", "2025-13-" + i));
+
+        System.out.printf("%-10s %12s%n", "path", "req/s");
+        System.out.printf("%-10s %12.0f%n", "404", notFound);
+        System.out.printf("%-10s %12.0f%n", "400", badDate);
+    }
+
+    private interface Request {
+        RequestBuilder build(int i);
+    }
+
+    private double measure(Request request) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            mvc.perform(request.build(i));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mvc.perform(request.build(i));
+        }
+        return ITERATIONS / ((System.nanoTime() - start) / 1e9);
+    }
+}
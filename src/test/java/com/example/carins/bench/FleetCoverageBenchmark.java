@@ -0,0 +1,85 @@
+package com.example.carins.bench;
+
+import com.example.carins.coverage.CoverageIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.IntSupplier;
+
+/**
+ * Fleet coverage queries on a {@link CoverageIndex} of {@link #CARS} cars over {@link #MODELS} make/models,
+ * against the per-car span scan it replaces (the in-memory floor of one {@code existsActiveOnDate} per car).
+ * Run with {@code mvn test -Pbench -Dtest=FleetCoverageBenchmark}.
+ */
+@Tag("benchmark")
+class FleetCoverageBenchmark {
+
+    private static final int CARS = 1_000_000;
+    private static final int MODELS = 200;
+    private static final int ROUNDS = 50;
+    private static final LocalDate JUNE = LocalDate.parse("2025-06-01");
+    private static final LocalDate SEPTEMBER = LocalDate.parse("2025-09-01");
+
+    @Test
+    void coverageQueries() {
+        SplittableRandom random = new SplittableRandom(42);
+        CoverageIndex index = new CoverageIndex(10);
+        List<List<CoverageIndex.Span>> spans = new ArrayList<>(CARS);
+        RoaringBitmap june = new RoaringBitmap();
+        RoaringBitmap september = new RoaringBitmap();
+        for (int car = 1; car <= CARS; car++) {
+            int model = random.nextInt(MODELS);
+            index.addCar(car, "Make" + model / 10, "Model" + model);
+            // 90% insured in June, a tenth of those lapse before September
+            LocalDate start = JUNE.minusDays(random.nextInt(300));
+            LocalDate end = random.nextInt(10) == 0 ? JUNE.minusDays(1)
+                    : random.nextInt(9) == 0 ? SEPTEMBER.minusDays(1) : SEPTEMBER.plusDays(random.nextInt(300));
+            CoverageIndex.Span span = new CoverageIndex.Span(start, end);
+            spans.add(List.of(span));
+            if (covers(span, JUNE)) june.add(car);
+            if (covers(span, SEPTEMBER)) september.add(car);
+        }
+        index.replaceDays(Map.of(JUNE, june, SEPTEMBER, september));
+
+        System.out.printf("%-28s %12s %12s%n", "query", "us/op", "result");
+        report("count insured (fleet)", () -> RoaringBitmap.andCardinality(index.cars(null, null), index.insuredOn(JUNE)));
+        report("count insured (one make)", () -> RoaringBitmap.andCardinality(index.cars("Make7", null), index.insuredOn(JUNE)));
+        report("lapsed Jun -> Sep", () -> RoaringBitmap.andNot(index.insuredOn(JUNE), index.insuredOn(SEPTEMBER)).getCardinality());
+        report("by model (200 rows)", () -> index.countByModel(index.insuredOn(JUNE)).size());
+        report("per-car span scan", () -> {
+            int n = 0;
+            for (List<CoverageIndex.Span> car : spans) {
+                for (CoverageIndex.Span s : car) {
+                    if (covers(s, JUNE)) {
+                        n++;
+                        break;
+                    }
+                }
+            }
+            return n;
+        });
+        System.out.printf("%-28s %12d%n", "bitmap bytes per day", june.serializedSizeInBytes());
+    }
+
+    private static boolean covers(CoverageIndex.Span s, LocalDate day) {
+        return !day.isBefore(s.start()) && !day.isAfter(s.end());
+    }
+
+    private static void report(String name, IntSupplier query) {
+        int result = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            result = query.getAsInt();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            result = query.getAsInt();
+        }
+        System.out.printf("%-28s %12.1f %12d%n", name, (System.nanoTime() - start) / 1e3 / ROUNDS, result);
+    }
+}
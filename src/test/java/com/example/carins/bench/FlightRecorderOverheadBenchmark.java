@@ -0,0 +1,67 @@
+package com.example.carins.bench;
+
+import com.example.carins.jfr.RepositoryQueryEvent;
+import com.example.carins.jfr.RequestEvent;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Throughput of {@code GET /api/cars/{carId}/history} with no recording, with the continuous recording's
+ * settings (10 ms threshold) and with every application event recorded.
+ * Run with {@code mvn test -Pbench -Dtest=FlightRecorderOverheadBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "carins.coalescing.enabled=false")
+@AutoConfigureMockMvc
+class FlightRecorderOverheadBenchmark {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 10_000;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    MockMvc mvc;
+
+    @Test
+    void requestThroughput() throws Exception {
+        measure(WARMUP);
+        // interleaved rounds, best of each, so JIT warm-up does not favour whichever runs last
+        double off = 0, threshold = 0, all = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            off = Math.max(off, measure(ITERATIONS));
+            threshold = Math.max(threshold, recorded(Duration.ofMillis(10)));
+            all = Math.max(all, recorded(Duration.ZERO));
+        }
+
+        System.out.printf("%-22s %12s%n", "recording", "req/s");
+        System.out.printf("%-22s %12.0f%n", "none", off);
+        System.out.printf("%-22s %12.0f%n", "default + 10 ms", threshold);
+        System.out.printf("%-22s %12.0f%n", "default + all events", all);
+    }
+
+    private double recorded(Duration threshold) throws Exception {
+        try (Recording recording = new Recording(jdk.jfr.Configuration.getConfiguration("default"))) {
+            recording.enable(RequestEvent.class).withThreshold(threshold);
+            recording.enable(RepositoryQueryEvent.class).withThreshold(threshold);
+            recording.start();
+            return measure(ITERATIONS);
+        }
+    }
+
+    private double measure(int n) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            mvc.perform(get("/api/cars/{carId}/history", 1 + i % 3));
+        }
+        return n / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.carins.bench;
+
+import com.example.carins.constants.IdempotentOperation;
+import com.example.carins.datasource.ShardMap;
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.IdempotencyRecordRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.service.CarService;
+import com.example.carins.service.IdempotencyService;
+import com.example.carins.web.dto.ClaimDto;
+import com.example.carins.web.dto.CreateClaimRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Cost of a claim POST retried with an Idempotency-Key: the plain write, the first request with a key
+ * (write plus key row), a retry answered from this instance's cache, and a retry on an instance that only
+ * has the table. Mean µs per request, {@link #REQUESTS} distinct requests each.
+ * Run with {@code mvn test -Pbench -Dtest=IdempotencyBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class IdempotencyBenchmark {
+
+    private static final int CARS = 500;
+    private static final int REQUESTS = 5_000;
+
+    @Autowired
+    CarService service;
+
+    @Autowired
+    IdempotencyService idempotency;
+
+    @Autowired
+    IdempotencyRecordRepository records;
+
+    @Autowired
+    OwnerRepository owners;
+
+    @Autowired
+    CarRepository cars;
+
+    @Autowired
+    ShardMap shards;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private final List<Long> carIds = new ArrayList<>(CARS);
+
+    @Test
+    void retriedClaims() {
+        Owner owner = owners.save(new Owner("Bench Owner", null));
+        for (int i = 0; i < CARS; i++) {
+            carIds.add(cars.save(new Car(String.format("IDMVIN%09d", i), "Dacia", "Logan", 2020, owner)).getId());
+        }
+        IdempotencyService otherInstance = new IdempotencyService(records, shards, objectMapper, transactionManager,
+                new SimpleMeterRegistry(), Duration.ofMinutes(10), REQUESTS, Duration.ofSeconds(10), Duration.ofDays(1));
+
+        IntConsumer plain = i -> service.registerClaim(carIds.get(i % CARS), request("plain", i));
+        IntConsumer first = i -> keyed(idempotency, i, () -> service.registerClaim(carIds.get(i % CARS), request("keyed", i)));
+        IntConsumer cached = i -> keyed(idempotency, i, () -> { throw new IllegalStateException("written twice"); });
+        IntConsumer table = i -> keyed(otherInstance, i, () -> { throw new IllegalStateException("written twice"); });
+
+        System.out.printf("%-28s %12s%n", "claim POST", "µs");
+        System.out.printf("%-28s %12.2f%n", "no key", micros(plain));
+        System.out.printf("%-28s %12.2f%n", "first request with key", micros(first));
+        System.out.printf("%-28s %12.2f%n", "retry, cached", micros(cached));
+        System.out.printf("%-28s %12.2f%n", "retry, other instance", micros(table));
+    }
+
+    private void keyed(IdempotencyService instance, int i, Supplier<ClaimDto> write) {
+        instance.execute("bench-" + i, IdempotentOperation.REGISTER_CLAIM, carIds.get(i % CARS), request("keyed", i),
+                ClaimDto.class, write);
+    }
+
+    private static CreateClaimRequest request(String kind, int i) {
+        return new CreateClaimRequest(LocalDate.parse("2024-01-01").plusDays(i % 365), kind + " claim " + i,
+                new BigDecimal("100.00").add(BigDecimal.valueOf(i % 1000)));
+    }
+
+    private static double micros(IntConsumer request) {
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            request.accept(i);
+        }
+        return (System.nanoTime() - start) / 1e3 / REQUESTS;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.carins.bench;
+
+import com.example.carins.CarInsuranceApplication;
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.service.CarService;
+import com.example.carins.service.JournaledWriteService;
+import com.example.carins.web.dto.CreateClaimRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Write burst (claims, every fourth write a new policy) through the synchronous path vs the write journal,
+ * both on the {@code prod} profile (file database). Journaled writes are timed until the last one is applied
+ * to the database, not just accepted. Run with {@code mvn test -Pbench -Dtest=JournaledWriteBenchmark}.
+ */
+@Tag("benchmark")
+class JournaledWriteBenchmark {
+
+    private static final int WRITES = 20_000;
+    private static final int CLIENTS = 32;
+    // journaled writes don't hold a pool connection while waiting for the disk, so they can take more
+    private static final int BURST_CLIENTS = 200;
+    private static final int CARS = 200;
+
+    @Test
+    void compareSynchronousAndWriteBehind() throws Exception {
+        Path dataDir = Path.of("target", "bench-journal");
+        FileSystemUtils.deleteRecursively(dataDir);
+
+        Result sync = run(dataDir.resolve("sync"), false, CLIENTS);
+        Result journaled = run(dataDir.resolve("journaled"), true, CLIENTS);
+        Result burst = run(dataDir.resolve("journaled-burst"), true, BURST_CLIENTS);
+
+        System.out.printf("%-22s %16s %16s%n", "mode", "accepted/s", "applied/s");
+        System.out.printf("%-22s %16.0f %16.0f%n", "synchronous x" + CLIENTS, sync.acceptedPerSec, sync.appliedPerSec);
+        System.out.printf("%-22s %16.0f %16.0f%n", "journaled x" + CLIENTS, journaled.acceptedPerSec, journaled.appliedPerSec);
+        System.out.printf("%-22s %16.0f %16.0f%n", "journaled x" + BURST_CLIENTS, burst.acceptedPerSec, burst.appliedPerSec);
+    }
+
+    private record Result(double acceptedPerSec, double appliedPerSec) {}
+
+    private static Result run(Path dataDir, boolean journal, int clients) throws Exception {
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(CarInsuranceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("prod")
+                .properties("CARINS_DATA_DIR=" + dataDir.toAbsolutePath())
+                .run("--carins.journal.enabled=" + journal)) {
+            List<Long> carIds = seedCars(ctx);
+            CarService service = ctx.getBean(CarService.class);
+            JournaledWriteService journaled = ctx.getBean(JournaledWriteService.class);
+
+            long start = System.nanoTime();
+            try (ExecutorService pool = Executors.newFixedThreadPool(clients)) {
+                List<Future<?>> workers = new ArrayList<>();
+                for (int c = 0; c < clients; c++) {
+                    int client = c;
+                    workers.add(pool.submit(() -> {
+                        for (int i = client; i < WRITES; i += clients) {
+                            Long carId = carIds.get(i % CARS);
+                            if (i % 4 == 0) {
+                                LocalDate from = LocalDate.of(2026, 1, 1).plusDays(i % 365);
+                                if (journal) journaled.createPolicy(carId, from, from.plusYears(1), "Allianz");
+                                else service.createPolicy(carId, from, from.plusYears(1), "Allianz");
+                                continue;
+                            }
+                            CreateClaimRequest req = new CreateClaimRequest(LocalDate.of(2025, 6, 1).plusDays(i % 90),
+                                    "Hail damage " + i, new BigDecimal("850.00"));
+                            if (journal) journaled.registerClaim(carId, req);
+                            else service.registerClaim(carId, req);
+                        }
+                    }));
+                }
+                for (Future<?> f : workers) f.get();
+            }
+            double accepted = seconds(start);
+
+            MeterRegistry registry = ctx.getBean(MeterRegistry.class);
+            while (journal && registry.get("carins.journal.pending").gauge().value() > 0) {
+                Thread.sleep(5);
+            }
+            double applied = seconds(start);
+            return new Result(WRITES / accepted, WRITES / applied);
+        }
+    }
+
+    private static List<Long> seedCars(ConfigurableApplicationContext ctx) {
+        TransactionTemplate tx = new TransactionTemplate(ctx.getBean(PlatformTransactionManager.class));
+        OwnerRepository owners = ctx.getBean(OwnerRepository.class);
+        CarRepository cars = ctx.getBean(CarRepository.class);
+        return tx.execute(s -> {
+            Owner owner = owners.save(new Owner("Bench Owner", "bench@example.com"));
+            List<Long> ids = new ArrayList<>(CARS);
+            for (int i = 0; i < CARS; i++) {
+                ids.add(cars.save(new Car("HAIL" + i, "Dacia", "Logan", 2020, owner)).getId());
+            }
+            return ids;
+        });
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.carins.bench;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.model.OwnershipPeriod;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.repo.OwnershipPeriodRepository;
+import com.example.carins.service.OwnershipService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * As-of ownership lookups over {@link #CARS} cars with {@link #PERIODS} periods each: the in-memory index
+ * behind {@link OwnershipService} against the same question asked of {@code ownership_period} with one
+ * indexed query. Mean µs per lookup at random dates.
+ * Run with {@code mvn test -Pbench -Dtest=OwnershipBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class OwnershipBenchmark {
+
+    private static final int CARS = 20_000;
+    private static final int OWNERS = 5_000;
+    private static final int PERIODS = 4;
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 20_000;
+    private static final LocalDate FIRST = LocalDate.parse("2015-01-01");
+
+    @Autowired
+    OwnershipService ownership;
+
+    @Autowired
+    OwnerRepository owners;
+
+    @Autowired
+    CarRepository cars;
+
+    @Autowired
+    OwnershipPeriodRepository periods;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void asOfLookups() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<Long> carIds = new ArrayList<>(CARS);
+        tx.executeWithoutResult(s -> {
+            List<Owner> savedOwners = new ArrayList<>(OWNERS);
+            for (int i = 0; i < OWNERS; i++) {
+                savedOwners.add(new Owner("Owner " + i, null));
+            }
+            owners.saveAll(savedOwners);
+            List<OwnershipPeriod> batch = new ArrayList<>(CARS * PERIODS);
+            for (int i = 0; i < CARS; i++) {
+                Car car = cars.save(new Car(String.format("OWNVIN%09d", i), "Dacia", "Logan", 2015, savedOwners.get(i % OWNERS)));
+                carIds.add(car.getId());
+                // one owner every two years, back to back
+                for (int p = 0; p < PERIODS; p++) {
+                    OwnershipPeriod period = new OwnershipPeriod(car, savedOwners.get((i + p * 7) % OWNERS),
+                            p == 0 ? null : FIRST.plusYears(2L * p));
+                    if (p < PERIODS - 1) {
+                        period.setEndDate(FIRST.plusYears(2L * (p + 1)).minusDays(1));
+                    }
+                    batch.add(period);
+                }
+            }
+            periods.saveAll(batch);
+        });
+        ReflectionTestUtils.invokeMethod(ownership, "load");
+
+        int span = PERIODS * 2 * 365;
+        IntConsumer carIndex = i -> ownership.ownerOn(carIds.get(i % CARS), FIRST.plusDays(i % span));
+        IntConsumer carQuery = i -> tx.execute(s -> em.createQuery(
+                        "select p.owner.id from OwnershipPeriod p where p.car.id = :car " +
+                        "and (p.startDate is null or p.startDate <= :d) and (p.endDate is null or p.endDate >= :d)", Long.class)
+                .setParameter("car", carIds.get(i % CARS))
+                .setParameter("d", FIRST.plusDays(i % span))
+                .getResultList());
+        long firstOwner = owners.findAll().get(0).getId();
+        IntConsumer ownerIndex = i -> ownership.carsOwnedOn(firstOwner + i % OWNERS, FIRST.plusDays(i % span));
+        IntConsumer ownerQuery = i -> tx.execute(s -> em.createQuery(
+                        "select p.car.id from OwnershipPeriod p where p.owner.id = :owner " +
+                        "and (p.startDate is null or p.startDate <= :d) and (p.endDate is null or p.endDate >= :d) " +
+                        "order by p.car.id", Long.class)
+                .setParameter("owner", firstOwner + i % OWNERS)
+                .setParameter("d", FIRST.plusDays(i % span))
+                .getResultList());
+
+        System.out.printf("%-24s %12s %12s%n", "lookup", "index µs", "query µs");
+        System.out.printf("%-24s %12.2f %12.2f%n", "owner of car on date", micros(carIndex), micros(carQuery));
+        System.out.printf("%-24s %12.2f %12.2f%n", "cars of owner on date", micros(ownerIndex), micros(ownerQuery));
+    }
+
+    private static double micros(IntConsumer lookup) {
+        int offset = ThreadLocalRandom.current().nextInt(1_000_000);
+        for (int i = 0; i < WARMUP; i++) {
+            lookup.accept(offset + i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            lookup.accept(offset + WARMUP + i);
+        }
+        return (System.nanoTime() - start) / 1e3 / ITERATIONS;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.carins.bench;
+
+import com.example.carins.CarInsuranceApplication;
+import com.example.carins.model.Car;
+import com.example.carins.model.Claim;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.OwnerRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk claim insert and per-car read throughput, default (in-memory) settings vs the {@code prod} profile.
+ * Run with {@code mvn test -Pbench -Dtest=PersistenceProfileBenchmark}.
+ */
+@Tag("benchmark")
+class PersistenceProfileBenchmark {
+
+    private static final int CLAIMS = 20_000;
+    private static final int CHUNK = 1_000;
+    private static final int READS = 2_000;
+
+    @Test
+    void compareDefaultAndProdProfiles() throws Exception {
+        Path dataDir = Path.of("target", "bench-data");
+        FileSystemUtils.deleteRecursively(dataDir);
+
+        Result defaults = run(new SpringApplicationBuilder(CarInsuranceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:bench-default;DB_CLOSE_DELAY=-1"));
+        Result prod = run(new SpringApplicationBuilder(CarInsuranceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("prod")
+                .properties("CARINS_DATA_DIR=" + dataDir.toAbsolutePath()));
+
+        System.out.printf("%-10s %18s %18s%n", "profile", "inserts/s", "reads/s");
+        System.out.printf("%-10s %18.0f %18.0f%n", "default", defaults.insertsPerSec, defaults.readsPerSec);
+        System.out.printf("%-10s %18.0f %18.0f%n", "prod", prod.insertsPerSec, prod.readsPerSec);
+    }
+
+    private record Result(double insertsPerSec, double readsPerSec) {}
+
+    private static Result run(SpringApplicationBuilder builder) {
+        try (ConfigurableApplicationContext ctx = builder.run()) {
+            TransactionTemplate tx = new TransactionTemplate(ctx.getBean(PlatformTransactionManager.class));
+            EntityManager em = ctx.getBean(EntityManager.class);
+            OwnerRepository owners = ctx.getBean(OwnerRepository.class);
+            CarRepository cars = ctx.getBean(CarRepository.class);
+            ClaimRepository claims = ctx.getBean(ClaimRepository.class);
+
+            Long carId = tx.execute(s -> {
+                Owner owner = owners.save(new Owner("Bench Owner", "bench@example.com"));
+                return cars.save(new Car("BENCH" + System.nanoTime() % 100_000, "Dacia", "Logan", 2020, owner)).getId();
+            });
+
+            long start = System.nanoTime();
+            for (int done = 0; done < CLAIMS; done += CHUNK) {
+                int offset = done;
+                tx.executeWithoutResult(s -> {
+                    Car car = em.getReference(Car.class, carId);
+                    List<Claim> batch = new ArrayList<>(CHUNK);
+                    for (int i = 0; i < CHUNK; i++) {
+                        batch.add(new Claim(car, LocalDate.of(2025, 1, 1).plusDays((offset + i) % 365),
+                                "Bench claim " + (offset + i), new BigDecimal("100.00")));
+                    }
+                    claims.saveAll(batch);
+                });
+            }
+            double insertsPerSec = CLAIMS / seconds(start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < READS; i++) {
+                tx.execute(s -> claims.findById(1L + (long) (Math.random() * CLAIMS)));
+            }
+            double readsPerSec = READS / seconds(start);
+            return new Result(insertsPerSec, readsPerSec);
+        }
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.carins.bench;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.OwnerRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * {@code GET /api/cars} over {@link #CARS} cars: the full representation (owner join through the entity
+ * graph) against {@code fields=} selections with and without an owner field. Reports latency and body size.
+ * Run with {@code mvn test -Pbench -Dtest=SparseFieldsBenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+class SparseFieldsBenchmark {
+
+    private static final int CARS = 20_000;
+    private static final int OWNERS = 2_000;
+    private static final int WARMUP = 30;
+    private static final int ITERATIONS = 30;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    OwnerRepository owners;
+
+    @Autowired
+    CarRepository cars;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void listCars() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(s -> {
+            List<Owner> saved = new ArrayList<>(OWNERS);
+            for (int i = 0; i < OWNERS; i++) {
+                saved.add(new Owner("Owner " + i, "owner" + i + "@example.com"));
+            }
+            owners.saveAll(saved);
+            List<Car> batch = new ArrayList<>(CARS);
+            for (int i = 0; i < CARS; i++) {
+                batch.add(new Car(String.format("BENCHVIN%09d", i), "Dacia", "Logan", 2020, saved.get(i % OWNERS)));
+            }
+            cars.saveAll(batch);
+        });
+
+        String[] urls = {"/api/cars", "/api/cars?fields=id,vin", "/api/cars?fields=id,vin,ownerName"};
+        for (String url : urls) {
+            measure(url, WARMUP);
+        }
+        // interleaved rounds, best of each, so JIT warm-up does not favour whichever runs last
+        double[] best = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE};
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < urls.length; i++) {
+                best[i] = Math.min(best[i], measure(urls[i], ITERATIONS));
+            }
+        }
+        System.out.printf("%-36s %10s %12s%n", "request", "ms/op", "body bytes");
+        for (int i = 0; i < urls.length; i++) {
+            System.out.printf("%-36s %10.2f %12d%n", urls[i], best[i], body(urls[i]));
+        }
+    }
+
+    private double measure(String url, int n) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            mvc.perform(get(url));
+        }
+        return (System.nanoTime() - start) / 1e6 / n;
+    }
+
+    private int body(String url) throws Exception {
+        return mvc.perform(get(url)).andReturn().getResponse().getContentAsByteArray().length;
+    }
+}
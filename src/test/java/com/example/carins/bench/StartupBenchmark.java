@@ -0,0 +1,147 @@
+package com.example.carins.bench;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of the packaged application in a fresh JVM: time until Spring reports it started, and time
+ * until the first {@code GET /api/cars} answers 200, both measured from process launch. Needs the
+ * {@code faststart} build, every variant runs the same extracted jar:
+ * <pre>
+ * mvn -Pfaststart package -DskipTests
+ * mvn test -Pbench -Dtest=StartupBenchmark
+ * </pre>
+ * Each variant gets its own data directory and one discarded warm-up start (schema creation, page cache),
+ * then the median of {@link #RUNS} starts is reported.
+ */
+@Tag("benchmark")
+class StartupBenchmark {
+
+    private static final int RUNS = 5;
+    private static final Path DIR = Path.of("target", "faststart").toAbsolutePath();
+    private static final Path JAR = DIR.resolve("car-insurance-0.0.1-SNAPSHOT.jar");
+    private static final Path CDS = DIR.resolve("application.jsa");
+
+    private record Variant(String name, List<String> jvmArgs, String profiles) {}
+
+    private record Timing(long startedMs, long firstRequestMs) {}
+
+    @Test
+    void compareStartupVariants() throws Exception {
+        Assumptions.assumeTrue(Files.exists(JAR) && Files.exists(CDS), "run mvn -Pfaststart package first");
+
+        List<Variant> variants = List.of(
+                new Variant("prod", List.of(), "prod"),
+                new Variant("faststart", List.of(), "prod,faststart"),
+                new Variant("faststart+aot", List.of("-Dspring.aot.enabled=true"), "prod,faststart"),
+                new Variant("faststart+aot+cds", List.of("-Dspring.aot.enabled=true",
+                        "-XX:SharedArchiveFile=" + CDS, "-Xlog:cds=error"), "prod,faststart"));
+
+        List<String> lines = new ArrayList<>();
+        for (Variant v : variants) {
+            Path data = Path.of("target", "bench-startup", v.name()).toAbsolutePath();
+            FileSystemUtils.deleteRecursively(data);
+            start(v, data); // warm-up
+            long[] started = new long[RUNS];
+            long[] firstRequest = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                Timing t = start(v, data);
+                started[i] = t.startedMs();
+                firstRequest[i] = t.firstRequestMs();
+            }
+            lines.add(String.format("%-20s %14d %20d", v.name(), median(started), median(firstRequest)));
+        }
+
+        System.out.printf("%-20s %14s %20s%n", "variant", "started ms", "first request ms");
+        lines.forEach(System.out::println);
+    }
+
+    private static Timing start(Variant v, Path data) throws Exception {
+        int port;
+        try (ServerSocket s = new ServerSocket(0)) {
+            port = s.getLocalPort();
+        }
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        cmd.addAll(v.jvmArgs());
+        cmd.addAll(List.of("-jar", JAR.toString(),
+                "--spring.profiles.active=" + v.profiles(),
+                "--server.port=" + port));
+        ProcessBuilder pb = new ProcessBuilder(cmd).directory(DIR.toFile()).redirectErrorStream(true);
+        pb.environment().put("CARINS_DATA_DIR", data.toString());
+
+        long launch = System.nanoTime();
+        Process process = pb.start();
+        try {
+            CompletableFuture<Long> started = new CompletableFuture<>();
+            Thread reader = new Thread(() -> awaitStartedLine(process, launch, started), "startup-log");
+            reader.setDaemon(true);
+            reader.start();
+
+            long firstRequest = awaitFirstRequest(port, launch, process);
+            return new Timing(started.get(60, TimeUnit.SECONDS), firstRequest);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    // keeps draining the output after the line so the child never blocks on a full pipe
+    private static void awaitStartedLine(Process process, long launch, CompletableFuture<Long> started) {
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                if (!started.isDone() && line.contains("Started CarInsuranceApplication")) {
+                    started.complete((System.nanoTime() - launch) / 1_000_000);
+                }
+            }
+            started.completeExceptionally(new IllegalStateException("application exited before starting"));
+        } catch (IOException e) {
+            started.completeExceptionally(e);
+        }
+    }
+
+    private static long awaitFirstRequest(int port, long launch, Process process) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/cars")).build();
+        long deadline = launch + TimeUnit.SECONDS.toNanos(60);
+        while (System.nanoTime() < deadline && process.isAlive()) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return (System.nanoTime() - launch) / 1_000_000;
+                }
+            } catch (IOException notListeningYet) {
+                // fall through and retry
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("no successful request within 60 s");
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
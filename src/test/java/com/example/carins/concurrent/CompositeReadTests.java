@@ -0,0 +1,153 @@
+package com.example.carins.concurrent;
+
+import com.example.carins.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompositeReadTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Test
+    void forks_runSideBySide_andCarryTheForkingThreadsContext() {
+        ThreadLocal<String> context = new ThreadLocal<>();
+        context.set("request-1");
+        UnaryOperator<Runnable> propagate = task -> {
+            String captured = context.get();
+            return () -> {
+                context.set(captured);
+                try {
+                    task.run();
+                } finally {
+                    context.remove();
+                }
+            };
+        };
+        // each read waits for the other, so they only finish if they run at the same time
+        CountDownLatch both = new CountDownLatch(2);
+        try (CompositeRead read = CompositeRead.open("test", TIMEOUT, propagate)) {
+            Supplier<String> a = read.fork("a", () -> meet(both) + context.get());
+            Supplier<String> b = read.fork("b", () -> meet(both) + context.get());
+            read.join();
+            assertEquals("met request-1", a.get());
+            assertEquals("met request-1", b.get());
+        }
+    }
+
+    @Test
+    void firstFailure_isRethrownAtOnce_andCancelsTheRest() {
+        CountDownLatch release = new CountDownLatch(1);
+        try (CompositeRead read = CompositeRead.open("test", TIMEOUT, UnaryOperator.identity())) {
+            Supplier<String> slow = read.fork("slow", () -> {
+                await(release);
+                return "late";
+            });
+            read.check("car", () -> {
+                throw new ResourceNotFoundException("Car 9 not found");
+            });
+            ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class, read::join);
+            assertEquals("Car 9 not found", ex.getMessage());
+            assertThrows(IllegalStateException.class, slow::get);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void readOverrunningItsTimeout_failsTheScope() {
+        CountDownLatch release = new CountDownLatch(1);
+        try (CompositeRead read = CompositeRead.open("history", TIMEOUT, UnaryOperator.identity())) {
+            read.fork("fast", () -> "ok");
+            read.fork("events", Duration.ofMillis(50), () -> {
+                await(release);
+                return "late";
+            });
+            CompositeReadTimeoutException ex = assertThrows(CompositeReadTimeoutException.class, read::join);
+            assertEquals("Read 'events' of history timed out after 50 ms", ex.getMessage());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void cancelledRead_isInterrupted() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try (CompositeRead read = CompositeRead.open("test", TIMEOUT, UnaryOperator.identity())) {
+            read.fork("waiting", () -> {
+                try {
+                    new CountDownLatch(1).await(); // e.g. a connection from an exhausted pool
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "gave up";
+            });
+            read.check("car", () -> {
+                throw new ResourceNotFoundException("Car 9 not found");
+            });
+            assertThrows(ResourceNotFoundException.class, read::join);
+        }
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void maxParallel_boundsRunningReads_andNestedScopesRunInline() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Supplier<Thread> read = () -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(20);
+            running.decrementAndGet();
+            return Thread.currentThread();
+        };
+        try (CompositeRead outer = CompositeRead.open("test", TIMEOUT, 2, UnaryOperator.identity())) {
+            List<Supplier<Boolean>> forks = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                forks.add(outer.fork("read-" + i, () -> {
+                    try (CompositeRead inner = CompositeRead.open("nested", TIMEOUT, 2, UnaryOperator.identity())) {
+                        Supplier<Thread> a = inner.fork("a", read);
+                        Supplier<Thread> b = inner.fork("b", read);
+                        inner.join();
+                        return a.get() == Thread.currentThread() && b.get() == Thread.currentThread();
+                    }
+                }));
+            }
+            outer.join();
+            assertTrue(forks.stream().allMatch(Supplier::get));
+        }
+        assertEquals(2, peak.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String meet(CountDownLatch both) {
+        both.countDown();
+        await(both);
+        return "met ";
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.carins.concurrent;
+
+import com.example.carins.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SingleFlight<String, Integer> flight = new SingleFlight<>("test", new SimpleMeterRegistry());
+
+    @Test
+    void concurrentCallers_shareOneComputation() throws Exception {
+        int callers = 16;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(callers)) {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> flight.execute("car-1", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return 42;
+                }, TIMEOUT)));
+            }
+            // let every caller reach the map before the leader finishes
+            while (flight.coalescingRatio() * callers < callers - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<Integer> r : results) {
+                assertEquals(42, r.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void leaderFailure_isRethrownToFollowers_andNotRemembered() throws Exception {
+        CountDownLatch leading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+            Future<Integer> leader = pool.submit(() -> flight.execute("car-2", () -> {
+                leading.countDown();
+                await(release);
+                throw new ResourceNotFoundException("Car 2 not found");
+            }, TIMEOUT));
+            // otherwise the follower may get there first and lead
+            leading.await();
+            Future<Integer> follower = pool.submit(() -> flight.execute("car-2", () -> 0, TIMEOUT));
+            while (flight.coalescingRatio() == 0) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertInstanceOf(ResourceNotFoundException.class, assertThrows(ExecutionException.class, leader::get).getCause());
+            assertInstanceOf(ResourceNotFoundException.class, assertThrows(ExecutionException.class, follower::get).getCause());
+        }
+        assertEquals(7, flight.execute("car-2", () -> 7, TIMEOUT));
+    }
+
+    @Test
+    void follower_timesOut_whenLeaderIsSlow() throws Exception {
+        CountDownLatch leading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService pool = Executors.newSingleThreadExecutor()) {
+            pool.submit(() -> flight.execute("car-3", () -> {
+                leading.countDown();
+                await(release);
+                return 1;
+            }, TIMEOUT));
+            leading.await();
+            assertThrows(SingleFlightTimeoutException.class,
+                    () -> flight.execute("car-3", () -> 2, Duration.ofMillis(50)));
+            release.countDown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.carins.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TtlCacheTests {
+
+    private final AtomicLong now = new AtomicLong();
+    private final TtlCache<String, Integer> cache = new TtlCache<>(Duration.ofNanos(100), 3, now::get);
+
+    @Test
+    void entriesExpire_ttlAfterTheyWerePut() {
+        cache.put("a", 1);
+        now.set(50);
+        cache.put("b", 2);
+        assertEquals(1, cache.get("a"));
+
+        now.set(100);
+        assertNull(cache.get("a"));
+        assertEquals(2, cache.get("b"));
+
+        now.set(150);
+        cache.evictExpired();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void pastTheBound_oldestEntriesAreDropped() {
+        for (int i = 0; i < 5; i++) {
+            cache.put("k" + i, i);
+        }
+        assertEquals(3, cache.size());
+        assertNull(cache.get("k1"));
+        assertEquals(2, cache.get("k2"));
+
+        // replacing restarts the lifetime; the stale queue entry must not evict the new value
+        now.set(60);
+        cache.put("k2", 20);
+        now.set(120);
+        cache.evictExpired();
+        assertEquals(20, cache.get("k2"));
+        assertNull(cache.get("k3"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.carins.config;
+
+import com.example.carins.constants.HistoryEventType;
+import com.example.carins.cronjob.PolicyExpiryJob;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.repo.ClaimTotals;
+import com.example.carins.web.dto.JournaledWriteResponse;
+import com.example.carins.web.dto.PortfolioCarDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeImageHintsTests {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeImageHintsTests() {
+        new NativeImageHints.Registrar().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void seedDataAndEntitiesAreReachable() throws Exception {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("import.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onField(InsurancePolicy.class.getDeclaredField("endDate")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ClaimTotals.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+    }
+
+    @Test
+    void dtosBehindWildcardsAndJobsAreReachable() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(JournaledWriteResponse.class.getMethod("handle")).test(hints));
+        // nested in OwnerPortfolioPage, reached through the binding registrar
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(PortfolioCarDto.class.getMethod("claims")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onField(HistoryEventType.class.getField("CLAIM_REGISTERED")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(PolicyExpiryJob.class.getMethod("checkExpiredPolicies")).test(hints));
+    }
+}
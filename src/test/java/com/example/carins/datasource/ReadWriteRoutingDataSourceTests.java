@@ -0,0 +1,90 @@
+package com.example.carins.datasource;
+
+import com.example.carins.concurrent.CompositeRead;
+import com.example.carins.service.CompositeReads;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadWriteRoutingDataSourceTests {
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private final CompositeReads reads = new CompositeReads(true, Duration.ofSeconds(2), 2, new ShardMap(false, List.of()));
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("routing-primary");
+        DataSource replica = h2("routing-replica");
+        new JdbcTemplate(primary).execute("create table node(name varchar(16)); insert into node values ('primary')");
+        new JdbcTemplate(replica).execute("create table node(name varchar(16)); insert into node values ('replica')");
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica);
+        routing.afterPropertiesSet();
+        DataSource ds = new LazyConnectionDataSourceProxy(routing);
+
+        jdbc = new JdbcTemplate(ds);
+        DataSourceTransactionManager tm = new DataSourceTransactionManager(ds);
+        readWrite = new TransactionTemplate(tm);
+        readOnly = new TransactionTemplate(tm);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadWriteRouting.clear();
+        new JdbcTemplate(h2("routing-primary")).execute("drop table node");
+        new JdbcTemplate(h2("routing-replica")).execute("drop table node");
+    }
+
+    @Test
+    void readOnlyTransactions_useReplica_othersUsePrimary() {
+        assertEquals("replica", readOnly.execute(s -> node()));
+        assertEquals("primary", readWrite.execute(s -> node()));
+        assertEquals("primary", node()); // no transaction at all
+    }
+
+    @Test
+    void recentWrite_pinsCompositeReadsToPrimary_untilWindowPasses() throws InterruptedException {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofMillis(200));
+        readWrite.executeWithoutResult(s -> tracker.recordWrite(1L));
+
+        assertEquals("primary", nodeFor(1L, tracker));
+        assertEquals("replica", nodeFor(2L, tracker));
+
+        Thread.sleep(250);
+        assertEquals("replica", nodeFor(1L, tracker));
+    }
+
+    // the way CarService reads a car: one read-only transaction per fork, pinned if the car was just written
+    private String nodeFor(Long carId, ReadYourWritesTracker tracker) {
+        try (CompositeRead read = reads.open("node", tracker.isRecentlyWritten(carId))) {
+            Supplier<String> node = read.fork("node", () -> readOnly.execute(s -> node()));
+            read.join();
+            return node.get();
+        }
+    }
+
+    private String node() {
+        return jdbc.queryForObject("select name from node", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return ds;
+    }
+}
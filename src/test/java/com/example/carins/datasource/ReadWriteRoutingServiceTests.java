@@ -0,0 +1,88 @@
+package com.example.carins.datasource;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.service.CarService;
+import com.example.carins.service.OwnerPortfolioService;
+import com.example.carins.service.PolicyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing through the real service reads: both pools point at the same database, the Hikari
+ * connection-usage timers tell which one served a read.
+ */
+@SpringBootTest(properties = {
+        "carins.datasource.routing.enabled=true",
+        "carins.datasource.primary.jdbc-url=jdbc:h2:mem:routed;DB_CLOSE_DELAY=-1",
+        "carins.datasource.primary.pool-name=primary",
+        "carins.datasource.replica.jdbc-url=jdbc:h2:mem:routed;DB_CLOSE_DELAY=-1",
+        "carins.datasource.replica.pool-name=replica"
+})
+class ReadWriteRoutingServiceTests {
+
+    @Autowired
+    CarService service;
+
+    @Autowired
+    PolicyService policies;
+
+    @Autowired
+    OwnerPortfolioService portfolio;
+
+    @Autowired
+    OwnerRepository owners;
+
+    @Autowired
+    CarRepository cars;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Test
+    void insuranceValidAndHistory_readFromTheReplica_untilTheCarIsWritten() {
+        Owner owner = owners.save(new Owner("Routed Owner", "routed@example.com"));
+        Car car = cars.save(new Car("ROUTE00001", "Mazda", "3", 2021, owner));
+
+        long primary = borrows("primary");
+        long replica = borrows("replica");
+        assertFalse(service.isInsuranceValid(car.getId(), LocalDate.parse("2025-06-01")));
+        assertTrue(service.getHistory(car.getId(), null, null).isEmpty());
+        assertEquals(primary, borrows("primary"));
+        assertTrue(borrows("replica") > replica);
+
+        service.createPolicy(car.getId(), LocalDate.parse("2025-01-01"), LocalDate.parse("2025-12-31"), "Allianz");
+        primary = borrows("primary");
+        replica = borrows("replica");
+        assertTrue(service.isInsuranceValid(car.getId(), LocalDate.parse("2025-06-01")));
+        assertEquals(2, service.getHistory(car.getId(), null, null).size());
+        assertEquals(replica, borrows("replica"));
+        assertTrue(borrows("primary") > primary);
+    }
+
+    @Test
+    void listingsAndPortfolio_readFromTheReplica() {
+        Owner owner = owners.save(new Owner("Listed Owner", "listed@example.com"));
+        Car car = cars.save(new Car("ROUTE00002", "Mazda", "CX-5", 2022, owner));
+
+        long primary = borrows("primary");
+        long replica = borrows("replica");
+        assertTrue(service.listCars(null, 10).stream().anyMatch(c -> c.getId().equals(car.getId())));
+        assertNotNull(policies.listAll(null, 10));
+        assertEquals(1, portfolio.portfolio(owner.getId(), LocalDate.parse("2025-06-01"), null, 10).cars().size());
+        assertEquals(primary, borrows("primary"));
+        assertTrue(borrows("replica") > replica);
+    }
+
+    private long borrows(String pool) {
+        return registry.get("hikaricp.connections.usage").tag("pool", pool).timer().count();
+    }
+}
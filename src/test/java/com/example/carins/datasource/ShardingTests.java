@@ -0,0 +1,228 @@
+package com.example.carins.datasource;
+
+import com.example.carins.constants.HistoryEventType;
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.ArchivedClaimRepository;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.service.CarService;
+import com.example.carins.service.ChangeFeedService;
+import com.example.carins.service.CompositeReads;
+import com.example.carins.service.FieldSet;
+import com.example.carins.service.OwnerPortfolioService;
+import com.example.carins.service.PolicyService;
+import com.example.carins.web.dto.CarDto;
+import com.example.carins.web.dto.ChangePage;
+import com.example.carins.web.dto.ClaimDto;
+import com.example.carins.web.dto.CreateClaimRequest;
+import com.example.carins.web.dto.HistoryEventDto;
+import com.example.carins.web.dto.OwnerPortfolioPage;
+import com.example.carins.web.dto.PolicyResponse;
+import com.example.carins.web.dto.PortfolioCarDto;
+import com.example.carins.web.mapper.CarMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "carins.datasource.sharding.enabled=true",
+        "carins.datasource.sharding.urls=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1,"
+                + "jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1"
+})
+class ShardingTests {
+
+    private static final int SHARDS = 3;
+    private static final LocalDate START = LocalDate.parse("2025-01-01");
+
+    @Autowired
+    CarService service;
+
+    @Autowired
+    PolicyService policies;
+
+    @Autowired
+    ShardMap shards;
+
+    @Autowired
+    OwnerRepository owners;
+
+    @Autowired
+    CarRepository cars;
+
+    @Autowired
+    ClaimRepository claims;
+
+    @Autowired
+    InsurancePolicyRepository policyRepository;
+
+    @Autowired
+    ArchivedClaimRepository archivedClaims;
+
+    @Autowired
+    OwnerPortfolioService portfolio;
+
+    @Autowired
+    CarMapper carMapper;
+
+    @Autowired
+    CompositeReads reads;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void carData_staysOnTheCarsShard_andListsMergeAcrossShards() {
+        assertEquals(SHARDS, shards.count());
+        // owners are reference data, written to every shard in the same order
+        List<Owner> owner = new ArrayList<>();
+        for (int s = 0; s < SHARDS; s++) {
+            owner.add(ShardRouting.onShard(s, () -> owners.save(new Owner("Ana Pop", "ana@example.com"))));
+        }
+        assertTrue(owner.stream().allMatch(o -> o.getId().equals(owner.get(0).getId())));
+
+        List<Long> carIds = new ArrayList<>();
+        List<PolicyResponse> created = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            int shard = i % SHARDS;
+            Car car = ShardRouting.onShard(shard, () -> cars.save(new Car("SHARD" + String.format("%05d", carIds.size()),
+                    "Dacia", "Logan", 2020, owner.get(shard))));
+            assertEquals(shard, shards.shardOf(car.getId()));
+            carIds.add(car.getId());
+
+            PolicyResponse policy = service.createPolicy(car.getId(), START, START.plusYears(1), "Allianz");
+            assertEquals(shard, shards.shardOf(policy.id()));
+            created.add(policy);
+            ClaimDto claim = service.registerClaim(car.getId(),
+                    new CreateClaimRequest(START.plusMonths(2), "Mirror " + i, new BigDecimal("150.00")));
+            assertEquals(1, ShardRouting.onShard(shard, () -> claims.findByCarIdOrderByClaimDateAsc(car.getId()).size()));
+            assertFalse(ShardRouting.onShard((shard + 1) % SHARDS, () -> cars.existsById(car.getId())));
+
+            assertTrue(service.isInsuranceValid(car.getId(), START.plusMonths(6)));
+            List<HistoryEventDto> history = service.getHistory(car.getId(), null, null);
+            assertEquals(List.of(HistoryEventType.POLICY_STARTED, HistoryEventType.CLAIM_REGISTERED, HistoryEventType.POLICY_ENDED),
+                    history.stream().map(HistoryEventDto::type).toList());
+            assertEquals(claim.id(), history.get(1).refId());
+        }
+        // other tests add cars of their own: every listing must agree with the full one, in id order
+        List<Long> all = service.listCars().stream().map(Car::getId).toList();
+        assertEquals(all.stream().sorted().toList(), all);
+        assertEquals(carIds.stream().sorted().toList(), all.stream().filter(carIds::contains).toList());
+
+        FieldSet vins = FieldSet.parse("vin", CarService.CAR_FIELDS);
+        assertEquals(all, service.listCars(vins).stream().map(row -> row.get("id")).toList());
+        List<Object> sparsePaged = new ArrayList<>();
+        List<Map<String, Object>> sparsePage;
+        Long sparseAfter = null;
+        do {
+            sparsePage = service.listCars(vins, sparseAfter, 3);
+            sparsePage.forEach(row -> sparsePaged.add(row.get("id")));
+            sparseAfter = sparsePage.isEmpty() ? sparseAfter : (Long) sparsePage.get(sparsePage.size() - 1).get("id");
+        } while (sparsePage.size() == 3);
+        assertEquals(all, sparsePaged);
+        List<Long> paged = new ArrayList<>();
+        Long after = null;
+        List<Car> page;
+        do {
+            page = service.listCars(after, 3);
+            page.forEach(c -> paged.add(c.getId()));
+            after = page.isEmpty() ? after : page.get(page.size() - 1).getId();
+        } while (page.size() == 3);
+        assertEquals(all, paged);
+        assertNotNull(service.listCars(null, 1).get(0).getOwner().getName());
+
+        PolicyResponse moved = created.get(1);
+        service.updatePolicy(moved.id(), START, START.plusMonths(3), "Groupama");
+        assertFalse(service.isInsuranceValid(moved.carId(), START.plusMonths(6)));
+        List<Long> allPolicies = policies.listAll().stream().map(PolicyResponse::id).toList();
+        assertEquals(allPolicies.stream().sorted().toList(), allPolicies);
+        List<Long> createdIds = created.stream().map(PolicyResponse::id).toList();
+        assertEquals(createdIds.stream().sorted().toList(), allPolicies.stream().filter(createdIds::contains).toList());
+        List<PolicyResponse> firstTwo = policies.listAll(null, 2);
+        assertEquals(allPolicies.subList(0, 2), firstTwo.stream().map(PolicyResponse::id).toList());
+        assertEquals(firstTwo.stream().map(PolicyResponse::id).toList(), policies.listAll(
+                FieldSet.parse("provider", PolicyService.POLICY_FIELDS), null, 2).stream().map(row -> row.get("id")).toList());
+        assertEquals("Groupama", policies.listAll().stream().filter(p -> p.id().equals(moved.id())).findFirst().orElseThrow().provider());
+    }
+
+    @Test
+    void portfolio_pagesTheOwnersCarsOfEveryShard_withTheirPoliciesAndClaims() {
+        Owner owner = ownerOnEveryShard("Ion Ionescu", "ion@example.com");
+        List<Long> carIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Car car = carOn(i % SHARDS, owner, "PORT" + String.format("%05d", i));
+            carIds.add(car.getId());
+            service.createPolicy(car.getId(), START, START.plusYears(1), "Allianz");
+            service.registerClaim(car.getId(), new CreateClaimRequest(START.plusMonths(1), "Dent " + i, new BigDecimal("100.00")));
+        }
+
+        List<PortfolioCarDto> seen = new ArrayList<>();
+        Long after = null;
+        OwnerPortfolioPage page;
+        do {
+            page = portfolio.portfolio(owner.getId(), START.plusMonths(6), after, 2);
+            seen.addAll(page.cars());
+            after = page.nextAfter();
+        } while (page.hasMore());
+
+        assertEquals(carIds.stream().sorted().toList(), seen.stream().map(PortfolioCarDto::id).toList());
+        for (PortfolioCarDto car : seen) {
+            assertEquals(List.of(car.id()), car.activePolicies().stream().map(PolicyResponse::carId).toList());
+            assertEquals(1, car.claims().count());
+        }
+    }
+
+    @Test
+    void changeFeed_mergesEveryShard_inModificationOrder() {
+        ChangeFeedService feed = new ChangeFeedService(cars, policyRepository, claims, archivedClaims, carMapper,
+                reads, transactionManager, Duration.ZERO);
+        String cursor = feed.carsChangedSince(null, ChangeFeedService.MAX_LIMIT).nextCursor();
+        ChangePage<CarDto> page = feed.carsChangedSince(cursor, ChangeFeedService.MAX_LIMIT);
+        while (!page.items().isEmpty()) {
+            cursor = page.nextCursor();
+            page = feed.carsChangedSince(cursor, ChangeFeedService.MAX_LIMIT);
+        }
+
+        Owner owner = ownerOnEveryShard("Maria Pop", "maria@example.com");
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(carOn(i % SHARDS, owner, "FEED" + String.format("%05d", i)).getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        do {
+            page = feed.carsChangedSince(cursor, 2);
+            page.items().forEach(c -> seen.add(c.id()));
+            cursor = page.nextCursor();
+        } while (page.hasMore());
+        assertEquals(created, seen);
+    }
+
+    // owners are reference data, written to every shard in the same order
+    private Owner ownerOnEveryShard(String name, String email) {
+        List<Owner> saved = new ArrayList<>();
+        for (int s = 0; s < SHARDS; s++) {
+            saved.add(ShardRouting.onShard(s, () -> owners.save(new Owner(name, email))));
+        }
+        assertTrue(saved.stream().allMatch(o -> o.getId().equals(saved.get(0).getId())));
+        return saved.get(0);
+    }
+
+    private Car carOn(int shard, Owner owner, String vin) {
+        Car car = ShardRouting.onShard(shard, () -> cars.save(new Car(vin, "Dacia", "Sandero", 2021, owner)));
+        assertEquals(shard, shards.shardOf(car.getId()));
+        return car;
+    }
+}
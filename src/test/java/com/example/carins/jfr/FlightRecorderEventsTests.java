@@ -0,0 +1,96 @@
+package com.example.carins.jfr;
+
+import com.example.carins.service.PolicyExpiryTimeline;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class FlightRecorderEventsTests {
+
+    @Autowired
+    WebApplicationContext context;
+
+    @Autowired
+    PolicyExpiryTimeline expiries;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void requestsQueriesAndExpiryRuns_areRecorded() throws Exception {
+        MockMvc mvc = MockMvcBuilders.webAppContextSetup(context).build();
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(RequestEvent.class);
+            recording.enable(RepositoryQueryEvent.class);
+            recording.enable(PolicyExpiryRunEvent.class);
+            recording.start();
+
+            mvc.perform(get("/api/cars")).andExpect(status().isOk());
+            mvc.perform(get("/api/cars/{carId}/insurance-valid", 999).param("date", "2025-06-01")).andExpect(status().isNotFound());
+            expiries.reconcile(LocalDate.now());
+
+            recording.stop();
+            Path file = dir.resolve("test.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        RecordedEvent list = only(events, "carins.Request", e -> "/api/cars".equals(e.getString("endpoint")));
+        assertEquals("CarController.getCars", list.getString("handler"));
+        assertEquals("success", list.getString("outcome"));
+
+        RecordedEvent missing = only(events, "carins.Request", e -> e.getLong("carId") == 999);
+        assertEquals("/api/cars/{carId}/insurance-valid", missing.getString("endpoint"));
+        assertEquals(404, missing.getInt("status"));
+        assertEquals("clientError", missing.getString("outcome"));
+
+        RecordedEvent findAll = only(events, "carins.RepositoryQuery", e -> "CarService.listCars".equals(e.getString("caller")));
+        assertEquals("CarRepository", findAll.getString("repository"));
+        assertTrue(findAll.getInt("rows") > 0);
+        assertFalse(findAll.getBoolean("failed"));
+
+        assertEquals("reconcile", only(events, "carins.PolicyExpiryRun", e -> true).getString("source"));
+    }
+
+    @Test
+    void continuousRecording_dumpsItsBuffer() throws IOException {
+        try (ContinuousRecording recording = new ContinuousRecording("default", Duration.ofMinutes(1), 10_000_000, Duration.ZERO, dir)) {
+            recording.start();
+            PolicyExpiryRunEvent event = new PolicyExpiryRunEvent();
+            event.source = "test";
+            event.commit();
+
+            Path file = recording.dump();
+            assertTrue(file.startsWith(dir));
+            assertTrue(RecordingFile.readAllEvents(file).stream()
+                    .anyMatch(e -> e.getEventType().getName().equals("carins.PolicyExpiryRun") && "test".equals(e.getString("source"))));
+        }
+        assertThrows(IllegalStateException.class, () -> new ContinuousRecording("no-such-settings", Duration.ofMinutes(1), 1, Duration.ZERO, dir));
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String type, java.util.function.Predicate<RecordedEvent> match) {
+        List<RecordedEvent> found = events.stream().filter(e -> e.getEventType().getName().equals(type)).filter(match).toList();
+        assertEquals(1, found.size(), type + ": " + found);
+        return found.get(0);
+    }
+}
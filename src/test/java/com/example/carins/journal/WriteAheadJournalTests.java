@@ -0,0 +1,118 @@
+package com.example.carins.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadJournalTests {
+
+    private static final int SEGMENT = 1 << 16;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void unackedRecords_areReplayed_inOrder_afterRestart() throws IOException {
+        WriteAheadJournal journal = new WriteAheadJournal(dir, "test-", SEGMENT);
+        assertTrue(journal.open().isEmpty());
+        journal.ack(journal.append((byte) 1, bytes("applied")));
+        journal.append((byte) 2, bytes("not applied — ünïcode"));
+        journal.append((byte) 3, bytes(""));
+        journal.close();
+
+        // the segment still has outstanding records, so all of it is replayed
+        List<WriteAheadJournal.Record> replay = new WriteAheadJournal(dir, "test-", SEGMENT).open();
+        assertEquals(List.of((byte) 1, (byte) 2, (byte) 3), replay.stream().map(WriteAheadJournal.Record::type).toList());
+        assertEquals("not applied — ünïcode", string(replay.get(1)));
+        assertEquals("", string(replay.get(2)));
+    }
+
+    @Test
+    void fullyAckedSegments_areDeleted() throws IOException {
+        WriteAheadJournal journal = new WriteAheadJournal(dir, "test-", 64); // two records per segment
+        journal.open();
+        for (int i = 0; i < 5; i++) {
+            journal.ack(journal.append((byte) 1, bytes("record " + i)));
+        }
+        journal.close();
+        assertEquals(0, segments());
+    }
+
+    @Test
+    void recordsUpToTheAppliedLsn_areLeftOut_andNumberingResumesPastIt() throws IOException {
+        WriteAheadJournal journal = new WriteAheadJournal(dir, "test-", 64); // two records per segment
+        journal.open();
+        List<Long> appended = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            appended.add(journal.append((byte) 1, bytes("record " + i)).lsn());
+        }
+        journal.close();
+        assertEquals(appended.stream().sorted().distinct().toList(), appended);
+
+        WriteAheadJournal reopened = new WriteAheadJournal(dir, "test-", 64);
+        List<WriteAheadJournal.Record> replay = reopened.open(appended.get(2));
+        assertEquals(appended.subList(3, 5), replay.stream().map(r -> r.position().lsn()).toList());
+        reopened.close();
+
+        // even with every segment gone, new records sort after the applied ones
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path f : files.toList()) Files.delete(f);
+        }
+        WriteAheadJournal fresh = new WriteAheadJournal(dir, "test-", 64);
+        assertTrue(fresh.open(appended.get(4)).isEmpty());
+        assertTrue(fresh.append((byte) 1, bytes("after restart")).lsn() > appended.get(4));
+        fresh.close();
+    }
+
+    @Test
+    void tornRecord_endsReplay_withoutFailing() throws IOException {
+        WriteAheadJournal journal = new WriteAheadJournal(dir, "test-", SEGMENT);
+        journal.open();
+        Path segment = journal.append((byte) 1, bytes("kept")).segment().path();
+        journal.close();
+
+        // a length with no matching payload, as left by a crash between the two writes
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(8 + 1 + 4);
+            file.writeInt(40);
+            file.writeInt(0x1234);
+        }
+
+        List<WriteAheadJournal.Record> replay = new WriteAheadJournal(dir, "test-", SEGMENT).open();
+        assertEquals(List.of("kept"), replay.stream().map(WriteAheadJournalTests::string).toList());
+    }
+
+    @Test
+    void oversizedRecord_isRefused() throws IOException {
+        WriteAheadJournal journal = new WriteAheadJournal(dir, "test-", 64);
+        journal.open();
+        assertThrows(IllegalArgumentException.class, () -> journal.append((byte) 1, new byte[64]));
+        journal.close();
+    }
+
+    private long segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(WriteAheadJournal.Record r) {
+        byte[] b = new byte[r.payload().remaining()];
+        r.payload().duplicate().get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
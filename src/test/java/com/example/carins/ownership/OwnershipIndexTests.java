@@ -0,0 +1,38 @@
+package com.example.carins.ownership;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OwnershipIndexTests {
+
+    @Test
+    void asOfLookups_followPeriodBoundaries_andCarReplacement() {
+        OwnershipIndex index = new OwnershipIndex();
+        index.replaceAll(Map.of(
+                1L, List.of(new OwnershipIndex.Period(20, LocalDate.parse("2024-03-01"), null),
+                        new OwnershipIndex.Period(10, null, LocalDate.parse("2024-02-29"))),
+                2L, List.of(new OwnershipIndex.Period(10, LocalDate.parse("2023-01-01"), null))));
+
+        assertEquals(10L, index.ownerOn(1, LocalDate.parse("1950-01-01")));
+        assertEquals(10L, index.ownerOn(1, LocalDate.parse("2024-02-29")));
+        assertEquals(20L, index.ownerOn(1, LocalDate.parse("2024-03-01")));
+        assertNull(index.ownerOn(2, LocalDate.parse("2022-12-31")));
+        assertNull(index.ownerOn(3, LocalDate.parse("2024-01-01")));
+        assertEquals(List.of(1L, 2L), index.carsOwnedOn(10, LocalDate.parse("2024-01-01")));
+        assertEquals(List.of(2L), index.carsOwnedOn(10, LocalDate.parse("2024-06-01")));
+
+        // owner 10 sells car 2 as well and no longer holds anything
+        index.replaceCar(2, List.of(new OwnershipIndex.Period(10, LocalDate.parse("2023-01-01"), LocalDate.parse("2024-04-30")),
+                new OwnershipIndex.Period(30, LocalDate.parse("2024-05-01"), null)));
+        assertEquals(List.of(), index.carsOwnedOn(10, LocalDate.parse("2024-06-01")));
+        assertEquals(List.of(2L), index.carsOwnedOn(30, LocalDate.parse("2024-06-01")));
+        index.replaceCar(2, List.of(new OwnershipIndex.Period(30, null, null)));
+        assertFalse(index.hasOwner(10) && index.carsOwnedOn(10, LocalDate.parse("2023-06-01")).contains(2L));
+        assertEquals(List.of(1L), index.carsOwnedOn(10, LocalDate.parse("2023-06-01")));
+    }
+}
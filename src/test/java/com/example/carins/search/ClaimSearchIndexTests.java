@@ -0,0 +1,64 @@
+package com.example.carins.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClaimSearchIndexTests {
+
+    @Test
+    void allTermsMustMatch_caseAndAccentsIgnored_rankedByRelevance() {
+        ClaimSearchIndex index = new ClaimSearchIndex();
+        index.add(1, 10, LocalDate.parse("2025-01-10"), "Rear bumper scratch", new BigDecimal("300.00"));
+        index.add(2, 11, LocalDate.parse("2025-02-10"), "Windshield replacement", new BigDecimal("900.00"));
+        index.add(3, 10, LocalDate.parse("2025-03-10"), "Rear bumper, rear BUMPER bracket", new BigDecimal("1500.00"));
+        index.add(4, 12, LocalDate.parse("2025-04-10"), "Pare-brise fissuré, réparé", new BigDecimal("120.00"));
+        assertFalse(index.add(1, 10, LocalDate.parse("2025-01-10"), "Rear bumper scratch", new BigDecimal("300.00")));
+
+        ClaimSearchIndex.Result bumper = index.search("REAR bumper", ClaimSearchIndex.Filter.NONE, ClaimSearchIndex.Order.RELEVANCE, 10);
+        assertEquals(2, bumper.matched());
+        // repeats outweigh the longer description
+        assertEquals(List.of(3L, 1L), bumper.hits().stream().map(ClaimSearchIndex.Hit::claimId).toList());
+        assertTrue(bumper.hits().get(0).score() > bumper.hits().get(1).score());
+
+        assertEquals(List.of(4L), ids(index.search("fissure", ClaimSearchIndex.Filter.NONE, ClaimSearchIndex.Order.RELEVANCE, 10)));
+        assertEquals(0, index.search("rear windshield", ClaimSearchIndex.Filter.NONE, ClaimSearchIndex.Order.RELEVANCE, 10).matched());
+        assertEquals(0, index.search("nothing", ClaimSearchIndex.Filter.NONE, ClaimSearchIndex.Order.RELEVANCE, 10).matched());
+    }
+
+    @Test
+    void filtersApply_andTopK_byDate_keepsNewest() {
+        ClaimSearchIndex index = new ClaimSearchIndex();
+        // enough postings to make the intersection gallop
+        for (int i = 1; i <= 5000; i++) {
+            String text = i % 7 == 0 ? "door dent" : "door scratch";
+            index.add(i, i % 3, LocalDate.parse("2024-01-01").plusDays(i % 365), text, BigDecimal.valueOf(i, 1));
+        }
+
+        ClaimSearchIndex.Result all = index.search("dent door", ClaimSearchIndex.Filter.NONE, ClaimSearchIndex.Order.DATE, 3);
+        assertEquals(714, all.matched());
+        List<LocalDate> dates = all.hits().stream().map(ClaimSearchIndex.Hit::claimDate).toList();
+        assertEquals(List.of(LocalDate.parse("2024-12-30"), LocalDate.parse("2024-12-30"), LocalDate.parse("2024-12-29")), dates);
+        // same day: higher id first
+        assertTrue(all.hits().get(0).claimId() > all.hits().get(1).claimId());
+
+        ClaimSearchIndex.Filter filter = new ClaimSearchIndex.Filter(1L, LocalDate.parse("2024-02-01"), LocalDate.parse("2024-02-29"),
+                new BigDecimal("10.05"), new BigDecimal("300"));
+        ClaimSearchIndex.Result filtered = index.search("dent", filter, ClaimSearchIndex.Order.RELEVANCE, 100);
+        assertFalse(filtered.hits().isEmpty());
+        for (ClaimSearchIndex.Hit h : filtered.hits()) {
+            assertEquals(1, h.carId());
+            assertEquals(2, h.claimDate().getMonthValue());
+            assertTrue(h.amount().compareTo(new BigDecimal("10.05")) >= 0 && h.amount().compareTo(new BigDecimal("300")) <= 0);
+        }
+        assertEquals(filtered.matched(), filtered.hits().size());
+    }
+
+    private static List<Long> ids(ClaimSearchIndex.Result result) {
+        return result.hits().stream().map(ClaimSearchIndex.Hit::claimId).toList();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.carins.service;
+
+import com.example.carins.constants.HistoryEventType;
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.web.dto.HistoryEventDto;
+import com.example.carins.web.dto.PolicyResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:car-timeline;DB_CLOSE_DELAY=-1")
+class CarTimelineServiceTests {
+
+    @Autowired
+    CarService service;
+
+    @Autowired
+    CarTimelineService timeline;
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Test
+    void materializedHistory_replacesPolicyEvents_onUpdate() {
+        assertTrue(timeline.isMaterialized());
+        Owner owner = ownerRepository.save(new Owner("Timeline Owner", "timeline@example.com"));
+        Car car = carRepository.save(new Car("TIME000001", "Toyota", "Yaris", 2018, owner));
+        PolicyResponse created = service.createPolicy(car.getId(), LocalDate.parse("2030-01-01"), LocalDate.parse("2030-12-31"), "Groupama");
+        service.updatePolicy(created.id(), LocalDate.parse("2031-01-01"), LocalDate.parse("2031-06-30"), "Groupama");
+
+        List<HistoryEventDto> events = service.getHistory(car.getId(), LocalDate.parse("2030-01-01"), null).stream()
+                .filter(e -> created.id().equals(e.refId()))
+                .toList();
+        assertEquals(List.of(LocalDate.parse("2031-01-01"), LocalDate.parse("2031-06-30")),
+                events.stream().map(HistoryEventDto::date).toList());
+        assertEquals(List.of(HistoryEventType.POLICY_STARTED, HistoryEventType.POLICY_ENDED),
+                events.stream().map(HistoryEventDto::type).toList());
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.carins.service;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.ArchivedClaimRepository;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.web.dto.ChangePage;
+import com.example.carins.web.dto.ClaimDto;
+import com.example.carins.web.dto.CreateClaimRequest;
+import com.example.carins.web.dto.PolicyResponse;
+import com.example.carins.web.mapper.CarMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:change-feed;DB_CLOSE_DELAY=-1")
+class ChangeFeedServiceTests {
+
+    @Autowired
+    CarService service;
+
+    @Autowired
+    ChangeFeedService changeFeed;
+
+    @Autowired
+    ClaimArchiveService claimArchive;
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Autowired
+    InsurancePolicyRepository policyRepository;
+
+    @Autowired
+    ClaimRepository claimRepository;
+
+    @Autowired
+    ArchivedClaimRepository archivedClaimRepository;
+
+    @Autowired
+    CarMapper carMapper;
+
+    @Autowired
+    CompositeReads compositeReads;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    // the shared bean holds back the last carins.changes.settle of rows; these tests read up to now
+    private ChangeFeedService unsettledFeed() {
+        return new ChangeFeedService(carRepository, policyRepository, claimRepository, archivedClaimRepository,
+                carMapper, compositeReads, transactionManager, Duration.ZERO);
+    }
+
+    private static <T> String drain(ChangePage<T> first, Function<String, ChangePage<T>> next) {
+        ChangePage<T> page = first;
+        while (page.hasMore()) {
+            page = next.apply(page.nextCursor());
+        }
+        return page.nextCursor();
+    }
+
+    private Car car(String vin) {
+        Owner owner = ownerRepository.save(new Owner("Feed Owner " + vin, vin.toLowerCase() + "@example.com"));
+        return carRepository.save(new Car(vin, "Opel", "Astra", 2020, owner));
+    }
+
+    @Test
+    void changeFeed_pagesThroughPolicies_thenOnlyReturnsUpdatedRows() {
+        Car car = car("FEED000001");
+        service.createPolicy(car.getId(), LocalDate.parse("2024-01-01"), LocalDate.parse("2024-12-31"), "Allianz");
+        service.createPolicy(car.getId(), LocalDate.parse("2025-01-01"), LocalDate.parse("2025-06-30"), "Allianz");
+        PolicyResponse last = service.createPolicy(car.getId(), LocalDate.parse("2025-07-01"),
+                LocalDate.parse("2025-12-31"), "Allianz");
+
+        ChangeFeedService feed = unsettledFeed();
+        ChangePage<PolicyResponse> first = feed.policiesChangedSince(null, 2);
+        assertEquals(2, first.items().size());
+        assertTrue(first.hasMore());
+
+        String cursor = drain(first, c -> feed.policiesChangedSince(c, 2));
+
+        ChangePage<PolicyResponse> idle = feed.policiesChangedSince(cursor, 2);
+        assertTrue(idle.items().isEmpty());
+        assertEquals(cursor, idle.nextCursor());
+
+        PolicyResponse updated = service.updatePolicy(last.id(), LocalDate.parse("2025-07-01"),
+                LocalDate.parse("2025-10-31"), "Generali");
+
+        List<PolicyResponse> changed = feed.policiesChangedSince(cursor, 2).items();
+        assertEquals(List.of(updated), changed);
+    }
+
+    @Test
+    void changeFeed_holdsBackRowsYoungerThanTheSettleTime() {
+        Car car = car("FEED000002");
+        ChangeFeedService feed = unsettledFeed();
+        String cursor = drain(feed.policiesChangedSince(null, 100), c -> feed.policiesChangedSince(c, 100));
+
+        PolicyResponse created = service.createPolicy(car.getId(), LocalDate.parse("2050-01-01"),
+                LocalDate.parse("2050-12-31"), "Generali");
+
+        ChangePage<PolicyResponse> settled = changeFeed.policiesChangedSince(cursor, 100);
+        assertFalse(settled.items().contains(created));
+        assertTrue(feed.policiesChangedSince(cursor, 100).items().contains(created));
+    }
+
+    @Test
+    void changeFeed_reportsArchivedClaims_asTombstones() {
+        Car car = car("FEED000003");
+        ChangeFeedService feed = unsettledFeed();
+        ClaimDto old = service.registerClaim(car.getId(), new CreateClaimRequest(LocalDate.parse("2014-02-02"),
+                "Windscreen", new BigDecimal("300.00")));
+        String cursor = drain(feed.claimsChangedSince(null, 100), c -> feed.claimsChangedSince(c, 100));
+
+        claimArchive.archiveOlderThan(LocalDate.parse("2016-01-01"), 10);
+
+        ChangePage<ClaimDto> page = feed.claimsChangedSince(cursor, 100);
+        assertTrue(page.items().isEmpty());
+        assertTrue(page.removed().contains(old.id()));
+        assertTrue(feed.claimsChangedSince(page.nextCursor(), 100).removed().isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.carins.service;
+
+import com.example.carins.constants.ClaimFlag;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClaimAnomalyDetectorTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ClaimAnomalyDetector detector = new ClaimAnomalyDetector(registry, true, 4, 2, 30, 0.05, 7, 3);
+
+    @Test
+    void nearDuplicate_needsSameWords_closeAmount_andRecentDate() {
+        assertEquals(List.of(), screen(1, "2025-03-01", "Rear bumper scratch", "500.00"));
+        assertEquals(List.of(ClaimFlag.NEAR_DUPLICATE), screen(1, "2025-03-20", "scratch, REAR bumper!", "520.00"));
+        assertEquals(List.of(), screen(1, "2025-06-01", "Rear bumper scratch", "500.00")); // too late
+        assertEquals(List.of(), screen(1, "2025-06-15", "Rear bumper scratch", "600.00")); // amount too far
+        assertEquals(List.of(), screen(2, "2025-03-02", "Rear bumper scratch", "500.00")); // other car
+        assertEquals(1, registry.get("carins.claims.flagged").tag("flag", "nearDuplicate").counter().count());
+    }
+
+    @Test
+    void burst_flagsTheThirdClaimInAWeek_andRingForgetsOldClaims() {
+        assertEquals(List.of(), screen(1, "2025-05-01", "Mirror", "100.00"));
+        assertEquals(List.of(), screen(1, "2025-05-04", "Door", "900.00"));
+        assertEquals(List.of(ClaimFlag.BURST), screen(1, "2025-05-07", "Hood", "300.00"));
+        assertEquals(List.of(ClaimFlag.NEAR_DUPLICATE, ClaimFlag.BURST), screen(1, "2025-05-08", "mirror", "104.00"));
+
+        // a ring of 4: the Roof claim pushes the first Mirror out, which 96.00 would have matched; the second is too far off
+        assertEquals(List.of(), screen(1, "2025-08-01", "Roof", "50.00"));
+        assertEquals(List.of(ClaimFlag.BURST), screen(1, "2025-05-10", "Mirror", "96.00"));
+    }
+
+    @Test
+    void leastRecentlyClaimedCar_isForgotten_pastMaxCars() {
+        screen(1, "2025-01-01", "Windshield", "400.00");
+        screen(2, "2025-01-01", "Windshield", "400.00");
+        screen(3, "2025-01-01", "Windshield", "400.00");
+        assertEquals(List.of(), screen(1, "2025-01-02", "Windshield", "400.00"));
+        assertEquals(List.of(ClaimFlag.NEAR_DUPLICATE), screen(3, "2025-01-02", "Windshield", "400.00"));
+    }
+
+    @Test
+    void rolledBackClaim_isNotRemembered() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            screen(1, "2025-02-01", "Tailgate dent", "300.00");
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(), screen(1, "2025-02-02", "Tailgate dent", "300.00"));
+        assertEquals(List.of(ClaimFlag.NEAR_DUPLICATE), screen(1, "2025-02-03", "Tailgate dent", "300.00"));
+    }
+
+    private List<ClaimFlag> screen(long carId, String date, String description, String amount) {
+        return detector.screen(0L, carId, LocalDate.parse(date), description, new BigDecimal(amount));
+    }
+}
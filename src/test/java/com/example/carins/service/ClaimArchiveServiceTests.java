@@ -0,0 +1,70 @@
+package com.example.carins.service;
+
+import com.example.carins.constants.HistoryEventType;
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarHistoryEventRepository;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.web.dto.ClaimDto;
+import com.example.carins.web.dto.CreateClaimRequest;
+import com.example.carins.web.dto.HistoryEventDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:claim-archive;DB_CLOSE_DELAY=-1")
+class ClaimArchiveServiceTests {
+
+    @Autowired
+    CarService service;
+
+    @Autowired
+    ClaimArchiveService claimArchive;
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Autowired
+    ClaimRepository claimRepository;
+
+    @Autowired
+    CarHistoryEventRepository eventRepository;
+
+    @Test
+    void archivedClaims_leaveTheMaterializedHistory_butStillAppear_whenWindowNeedsThem() {
+        Owner owner = ownerRepository.save(new Owner("Archive Owner", "archive@example.com"));
+        Car car = carRepository.save(new Car("ARCH000001", "Renault", "Clio", 2012, owner));
+        service.createPolicy(car.getId(), LocalDate.parse("2025-01-01"), LocalDate.parse("2025-12-31"), "Allianz");
+        ClaimDto old = service.registerClaim(car.getId(), new CreateClaimRequest(LocalDate.parse("2015-05-05"),
+                "Hail damage", new BigDecimal("1500.00")));
+
+        assertEquals(1, claimArchive.archiveOlderThan(LocalDate.parse("2016-01-01"), 10));
+        assertFalse(claimRepository.existsById(old.id()));
+        assertTrue(eventRepository.findByCarIdAndEventDateBetweenOrderByEventDateAscTypeOrderAscRefIdAsc(car.getId(),
+                LocalDate.parse("2015-01-01"), LocalDate.parse("2015-12-31")).isEmpty());
+
+        List<HistoryEventDto> all = service.getHistory(car.getId(), null, null);
+        assertEquals(HistoryEventType.CLAIM_REGISTERED, all.get(0).type());
+        assertEquals(old.id(), all.get(0).refId());
+
+        List<HistoryEventDto> recent = service.getHistory(car.getId(), LocalDate.parse("2025-01-01"), null);
+        assertTrue(recent.stream().noneMatch(e -> old.id().equals(e.refId()) && e.type() == HistoryEventType.CLAIM_REGISTERED));
+        assertEquals(all.subList(1, all.size()), recent);
+
+        List<Map<String, Object>> sparse = service.getHistory(car.getId(), null, null,
+                FieldSet.parse("refId", CarTimelineService.HISTORY_FIELDS));
+        assertEquals(all.stream().map(e -> Map.<String, Object>of("refId", e.refId())).toList(), sparse);
+    }
+}
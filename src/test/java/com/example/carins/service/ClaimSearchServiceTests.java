@@ -0,0 +1,59 @@
+package com.example.carins.service;
+
+import com.example.carins.exception.InvalidDateException;
+import com.example.carins.exception.InvalidSearchException;
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.web.dto.ClaimDto;
+import com.example.carins.web.dto.ClaimSearchResponse;
+import com.example.carins.web.dto.CreateClaimRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:claim-search;DB_CLOSE_DELAY=-1")
+class ClaimSearchServiceTests {
+
+    @Autowired
+    CarService service;
+
+    @Autowired
+    ClaimSearchService claimSearch;
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Test
+    void claimSearch_findsRegisteredClaims_withFilters() {
+        Owner owner = ownerRepository.save(new Owner("Search Owner", "search@example.com"));
+        Car roof = carRepository.save(new Car("SEARCH0001", "Skoda", "Fabia", 2017, owner));
+        Car bonnet = carRepository.save(new Car("SEARCH0002", "Skoda", "Kodiaq", 2022, owner));
+        ClaimDto hail = service.registerClaim(roof.getId(), new CreateClaimRequest(LocalDate.parse("2025-07-01"), "Hailstorm roof dents", new BigDecimal("2400.00")));
+        ClaimDto hood = service.registerClaim(bonnet.getId(), new CreateClaimRequest(LocalDate.parse("2025-07-15"), "Hail damage on the hood, hailstorm", new BigDecimal("800.00")));
+
+        ClaimSearchResponse both = claimSearch.search("hailstorm", null, null, null, null, null, "date", 10);
+        assertEquals(2, both.matched());
+        assertEquals(List.of(hood.id(), hail.id()), both.hits().stream().map(h -> h.id()).toList());
+
+        ClaimSearchResponse expensive = claimSearch.search("HAILSTORM", null, LocalDate.parse("2025-01-01"),
+                LocalDate.parse("2025-12-31"), new BigDecimal("1000"), null, "relevance", 10);
+        assertEquals(List.of(hail.id()), expensive.hits().stream().map(h -> h.id()).toList());
+        assertEquals(1, claimSearch.search("hailstorm", bonnet.getId(), null, null, null, null, null, 10).matched());
+
+        assertThrows(InvalidSearchException.class, () -> claimSearch.search(" ,. ", null, null, null, null, null, null, 10));
+        assertThrows(InvalidSearchException.class, () -> claimSearch.search("hail", null, null, null, null, null, "price", 10));
+        assertThrows(InvalidDateException.class, () -> claimSearch.search("hail", null,
+                LocalDate.parse("2025-12-31"), LocalDate.parse("2025-01-01"), null, null, null, 10));
+    }
+}
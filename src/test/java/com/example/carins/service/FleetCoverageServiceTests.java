@@ -0,0 +1,63 @@
+package com.example.carins.service;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.web.dto.CarIdPage;
+import com.example.carins.web.dto.FleetCoverageResponse;
+import com.example.carins.web.dto.PolicyResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:fleet-coverage;DB_CLOSE_DELAY=-1")
+class FleetCoverageServiceTests {
+
+    @Autowired
+    CarService service;
+
+    @Autowired
+    FleetCoverageService coverage;
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Test
+    void fleetCoverage_countsAndLapses_followPolicyWrites() {
+        Owner fleet = ownerRepository.save(new Owner("Coverage SRL", "coverage@example.com"));
+        Car a = carRepository.save(new Car("COVER00001", "Lada", "Niva", 2021, fleet));
+        Car b = carRepository.save(new Car("COVER00002", "Lada", "Niva", 2021, fleet));
+        Car c = carRepository.save(new Car("COVER00003", "Lada", "Vesta", 2023, fleet));
+        service.createPolicy(a.getId(), LocalDate.parse("2045-01-01"), LocalDate.parse("2045-06-30"), "Allianz");
+        PolicyResponse bPolicy = service.createPolicy(b.getId(), LocalDate.parse("2045-01-01"), LocalDate.parse("2045-12-31"), "Allianz");
+        coverage.rebuild(); // c has no policy, so only a reload brings it into the fleet
+        LocalDate march = LocalDate.parse("2045-03-01");
+        LocalDate september = LocalDate.parse("2045-09-01");
+
+        FleetCoverageResponse lada = coverage.coverage(march, "lada", null);
+        assertEquals(3, lada.cars());
+        assertEquals(2, lada.insured());
+        assertEquals(1, coverage.coverage(march, "Lada", "Vesta").uninsured());
+        assertEquals(List.of(c.getId()), coverage.cars(march, false, "Lada", null, null, 10).carIds());
+        assertEquals(List.of(a.getId()), coverage.lapsed(march, september, "Lada", null, null, 10).carIds());
+
+        // both days are loaded now, so this is applied to them in place after commit
+        service.updatePolicy(bPolicy.id(), LocalDate.parse("2045-01-01"), LocalDate.parse("2045-08-01"), "Allianz");
+        CarIdPage first = coverage.lapsed(march, september, "Lada", null, null, 1);
+        assertEquals(List.of(a.getId()), first.carIds());
+        assertTrue(first.hasMore());
+        CarIdPage second = coverage.lapsed(march, september, "Lada", null, first.nextAfter(), 1);
+        assertEquals(List.of(b.getId()), second.carIds());
+        assertFalse(second.hasMore());
+        assertEquals(2, second.total());
+    }
+}
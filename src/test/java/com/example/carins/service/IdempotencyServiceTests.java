@@ -0,0 +1,149 @@
+package com.example.carins.service;
+
+import com.example.carins.constants.IdempotentOperation;
+import com.example.carins.datasource.ShardMap;
+import com.example.carins.exception.IdempotencyKeyReusedException;
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.IdempotencyRecordRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.web.dto.ClaimDto;
+import com.example.carins.web.dto.CreateClaimRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1")
+class IdempotencyServiceTests {
+
+    @Autowired
+    CarService service;
+
+    @Autowired
+    IdempotencyService idempotency;
+
+    @Autowired
+    IdempotencyRecordRepository idempotencyRecords;
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Autowired
+    ClaimRepository claimRepository;
+
+    @Autowired
+    ShardMap shardMap;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void idempotencyKey_replaysTheFirstWrite_andCoalescesConcurrentDuplicates() throws Exception {
+        Owner owner = ownerRepository.save(new Owner("Retry Owner", "retry@example.com"));
+        Car car = carRepository.save(new Car("IDEMP00001", "Ford", "Focus", 2021, owner));
+        CreateClaimRequest req = new CreateClaimRequest(LocalDate.parse("2025-04-01"), "Cracked windscreen", new BigDecimal("300.00"));
+
+        IdempotencyService.Outcome<ClaimDto> first = idempotency.execute("claim-key-1", IdempotentOperation.REGISTER_CLAIM,
+                car.getId(), req, ClaimDto.class, () -> service.registerClaim(car.getId(), req));
+        IdempotencyService.Outcome<ClaimDto> retry = idempotency.execute("claim-key-1", IdempotentOperation.REGISTER_CLAIM,
+                car.getId(), req, ClaimDto.class, () -> fail("retry must not write"));
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(first.body(), retry.body());
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotency.execute("claim-key-1",
+                IdempotentOperation.REGISTER_CLAIM, car.getId(), new CreateClaimRequest(req.claimDate(), "Other", req.amount()),
+                ClaimDto.class, () -> service.registerClaim(car.getId(), req)));
+
+        // another instance has nothing cached: it answers from the table
+        IdempotencyService otherInstance = new IdempotencyService(idempotencyRecords, shardMap, objectMapper,
+                transactionManager, new SimpleMeterRegistry(), Duration.ofMinutes(10), 100, Duration.ofSeconds(10),
+                Duration.ofDays(1));
+        IdempotencyService.Outcome<ClaimDto> fromTable = otherInstance.execute("claim-key-1",
+                IdempotentOperation.REGISTER_CLAIM, car.getId(), req, ClaimDto.class, () -> fail("retry must not write"));
+        assertTrue(fromTable.replayed());
+        assertEquals(first.body(), fromTable.body());
+
+        // concurrent duplicates: one claim, everyone gets it
+        CreateClaimRequest burst = new CreateClaimRequest(LocalDate.parse("2025-05-01"), "Door dent", new BigDecimal("450.00"));
+        int before = claimRepository.findByCarIdOrderByClaimDateAsc(car.getId()).size();
+        long records = idempotencyRecords.count();
+        List<Callable<Long>> calls = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            calls.add(() -> idempotency.execute("claim-key-2", IdempotentOperation.REGISTER_CLAIM, car.getId(), burst,
+                    ClaimDto.class, () -> service.registerClaim(car.getId(), burst)).body().id());
+        }
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            Set<Long> ids = new HashSet<>();
+            for (Future<Long> f : pool.invokeAll(calls)) {
+                ids.add(f.get());
+            }
+            assertEquals(1, ids.size());
+        }
+        assertEquals(before + 1, claimRepository.findByCarIdOrderByClaimDateAsc(car.getId()).size());
+        assertEquals(records + 1, idempotencyRecords.count());
+    }
+
+    @Test
+    void idempotencyKey_takenByAnotherInstanceMidRequest_isReplayed_butTheWritesOwnConstraintErrorsAreNot() throws Exception {
+        Owner owner = ownerRepository.save(new Owner("Race Owner", "race@example.com"));
+        Car car = carRepository.save(new Car("IDEMP00002", "Ford", "Fiesta", 2020, owner));
+        CreateClaimRequest req = new CreateClaimRequest(LocalDate.parse("2025-06-01"), "Scratched bumper", new BigDecimal("150.00"));
+        IdempotencyService otherInstance = new IdempotencyService(idempotencyRecords, shardMap, objectMapper,
+                transactionManager, new SimpleMeterRegistry(), Duration.ofMinutes(10), 100, Duration.ofSeconds(10),
+                Duration.ofDays(1));
+
+        assertThrows(DataIntegrityViolationException.class, () -> idempotency.execute("claim-key-3",
+                IdempotentOperation.REGISTER_CLAIM, car.getId(), req, ClaimDto.class, () -> {
+                    throw new DataIntegrityViolationException("the write's own constraint");
+                }));
+        assertFalse(idempotencyRecords.existsById("claim-key-3"));
+
+        // the winner holds the key uncommitted while the other instance looks it up, misses and inserts behind it
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+            Future<IdempotencyService.Outcome<ClaimDto>> winner = pool.submit(() -> idempotency.execute("claim-key-4",
+                    IdempotentOperation.REGISTER_CLAIM, car.getId(), req, ClaimDto.class, () -> {
+                        ClaimDto dto = service.registerClaim(car.getId(), req);
+                        release.join();
+                        return dto;
+                    }));
+            Thread.sleep(200);
+            Future<IdempotencyService.Outcome<ClaimDto>> loser = pool.submit(() -> otherInstance.execute("claim-key-4",
+                    IdempotentOperation.REGISTER_CLAIM, car.getId(), req, ClaimDto.class, () -> fail("loser must not write")));
+            Thread.sleep(200);
+            release.complete(null);
+
+            assertFalse(winner.get().replayed());
+            assertTrue(loser.get().replayed());
+            assertEquals(winner.get().body(), loser.get().body());
+        }
+        assertEquals(1, claimRepository.findByCarIdOrderByClaimDateAsc(car.getId()).size());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.carins.service;
+
+import com.example.carins.constants.IdempotentOperation;
+import com.example.carins.constants.JournaledWriteStatus;
+import com.example.carins.datasource.ShardMap;
+import com.example.carins.exception.IdempotencyKeyReusedException;
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.IdempotencyRecordRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.web.dto.CreateClaimRequest;
+import com.example.carins.web.dto.JournaledWriteResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Idempotency-Key on journaled writes: a retry gets the handle of the first submit, and nothing is journaled twice. */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:journal-idempotency;DB_CLOSE_DELAY=-1",
+        "carins.journal.enabled=true",
+        "carins.journal.flush-interval=PT0.01S"
+})
+class JournaledIdempotencyTests {
+
+    @TempDir
+    static Path journalDir;
+
+    @DynamicPropertySource
+    static void journal(DynamicPropertyRegistry registry) {
+        registry.add("carins.journal.dir", journalDir::toString);
+    }
+
+    @Autowired
+    JournaledWriteService writes;
+
+    @Autowired
+    IdempotencyService idempotency;
+
+    @Autowired
+    IdempotencyRecordRepository idempotencyRecords;
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Autowired
+    ClaimRepository claimRepository;
+
+    @Autowired
+    ShardMap shardMap;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void retriedSubmit_getsTheFirstHandle_andIsJournaledOnce() throws Exception {
+        Owner owner = ownerRepository.save(new Owner("Journal Owner", "journal@example.com"));
+        Car car = carRepository.save(new Car("JOURNAL001", "Kia", "Ceed", 2020, owner));
+        CreateClaimRequest req = new CreateClaimRequest(LocalDate.parse("2025-08-01"), "Side mirror", new BigDecimal("90.00"));
+
+        IdempotencyService.Outcome<JournaledWriteResponse> first = idempotency.execute("journal-key-1",
+                IdempotentOperation.REGISTER_CLAIM, car.getId(), req, JournaledWriteResponse.class,
+                () -> writes.registerClaim(car.getId(), req));
+        IdempotencyService.Outcome<JournaledWriteResponse> retry = idempotency.execute("journal-key-1",
+                IdempotentOperation.REGISTER_CLAIM, car.getId(), req, JournaledWriteResponse.class,
+                () -> fail("retry must not be journaled"));
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(first.body().handle(), retry.body().handle());
+
+        // another instance, or this one after a restart, answers from the table
+        IdempotencyService otherInstance = new IdempotencyService(idempotencyRecords, shardMap, objectMapper,
+                transactionManager, new SimpleMeterRegistry(), Duration.ofMinutes(10), 100, Duration.ofSeconds(10),
+                Duration.ofDays(1));
+        IdempotencyService.Outcome<JournaledWriteResponse> fromTable = otherInstance.execute("journal-key-1",
+                IdempotentOperation.REGISTER_CLAIM, car.getId(), req, JournaledWriteResponse.class,
+                () -> fail("retry must not be journaled"));
+        assertTrue(fromTable.replayed());
+        assertEquals(first.body(), fromTable.body());
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotency.execute("journal-key-1",
+                IdempotentOperation.REGISTER_CLAIM, car.getId(), new CreateClaimRequest(req.claimDate(), "Other", req.amount()),
+                JournaledWriteResponse.class, () -> writes.registerClaim(car.getId(), req)));
+
+        assertEquals(JournaledWriteStatus.APPLIED, awaitApplied(UUID.fromString(first.body().handle())).status());
+        assertEquals(1, claimRepository.findByCarIdOrderByClaimDateAsc(car.getId()).size());
+    }
+
+    private JournaledWriteResponse awaitApplied(UUID handle) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            JournaledWriteResponse res = writes.status(handle);
+            if (res.status() != JournaledWriteStatus.PENDING) return res;
+            Thread.sleep(25);
+        }
+        return fail("write " + handle + " was not applied");
+    }
+}
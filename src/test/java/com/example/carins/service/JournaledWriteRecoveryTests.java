@@ -0,0 +1,124 @@
+package com.example.carins.service;
+
+import com.example.carins.constants.JournaledWriteStatus;
+import com.example.carins.journal.WriteAheadJournal;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.JournalWatermarkRepository;
+import com.example.carins.web.dto.CreateClaimRequest;
+import com.example.carins.web.dto.JournaledWriteResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts on a journal left behind by a "crashed" run: every record must be applied exactly once,
+ * including a claim that was journaled twice, and records the watermark marks as applied not at all.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:journal-recovery;DB_CLOSE_DELAY=-1",
+        "carins.journal.enabled=true",
+        "carins.journal.flush-interval=PT0.01S"
+})
+class JournaledWriteRecoveryTests {
+
+    @TempDir
+    static Path journalDir;
+
+    static final UUID POLICY = UUID.randomUUID();
+    static final UUID CLAIM = UUID.randomUUID();
+
+    @DynamicPropertySource
+    static void leftoverJournal(DynamicPropertyRegistry registry) throws IOException {
+        WriteAheadJournal journal = new WriteAheadJournal(journalDir, "writes-", 1 << 20);
+        journal.open();
+        journal.append((byte) 2, JournaledWriteService.encode(POLICY, new JournaledWriteService.CreatePolicy(
+                2L, LocalDate.parse("2031-01-01"), LocalDate.parse("2031-12-31"), "Replayed")));
+        byte[] claim = JournaledWriteService.encode(CLAIM, new JournaledWriteService.RegisterClaim(
+                1L, LocalDate.parse("2025-07-01"), "Replayed claim", new BigDecimal("99.90")));
+        journal.append((byte) 1, claim);
+        journal.append((byte) 1, claim);
+        journal.close();
+        registry.add("carins.journal.dir", journalDir::toString);
+    }
+
+    @Autowired
+    JournaledWriteService writes;
+
+    @Autowired
+    InsurancePolicyRepository policyRepository;
+
+    @Autowired
+    ClaimRepository claimRepository;
+
+    @Autowired
+    JournalWatermarkRepository watermarks;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void leftoverRecords_areAppliedOnce_onStartup() throws Exception {
+        assertEquals(JournaledWriteStatus.APPLIED, awaitApplied(POLICY).status());
+        assertEquals(JournaledWriteStatus.APPLIED, awaitApplied(CLAIM).status());
+
+        assertEquals("Replayed", policyRepository.findByIntakeHandle(POLICY.toString()).orElseThrow().getProvider());
+        assertEquals(1, claimRepository.findAll().stream()
+                .filter(c -> CLAIM.toString().equals(c.getIntakeHandle()))
+                .count());
+    }
+
+    @Test
+    void acceptedWrite_isApplied_andReportedByHandle() throws Exception {
+        JournaledWriteResponse accepted = writes.registerClaim(2L, new CreateClaimRequest(
+                LocalDate.parse("2025-08-01"), "Windscreen", new BigDecimal("250.00")));
+        assertEquals(JournaledWriteStatus.PENDING, accepted.status());
+
+        JournaledWriteResponse applied = awaitApplied(UUID.fromString(accepted.handle()));
+        assertEquals(JournaledWriteStatus.APPLIED, applied.status());
+        assertEquals("Windscreen", claimRepository.findById(applied.entityId()).orElseThrow().getDescription());
+    }
+
+    @Test
+    void recordsUpToTheWatermark_areSkipped_onReplay() throws Exception {
+        writes.stop();
+        WriteAheadJournal journal = new WriteAheadJournal(journalDir, "writes-", 1 << 20);
+        journal.open(watermarks.findById("writes").orElseThrow().getAppliedLsn());
+        long applied = journal.append((byte) 1, JournaledWriteService.encode(UUID.randomUUID(),
+                new JournaledWriteService.RegisterClaim(1L, LocalDate.parse("2025-09-01"), "Applied before the crash",
+                        new BigDecimal("10.00")))).lsn();
+        UUID pending = UUID.randomUUID();
+        journal.append((byte) 1, JournaledWriteService.encode(pending,
+                new JournaledWriteService.RegisterClaim(1L, LocalDate.parse("2025-09-02"), "Applied after the restart",
+                        new BigDecimal("20.00"))));
+        journal.close();
+        new TransactionTemplate(transactionManager).executeWithoutResult(s -> watermarks.advance("writes", applied));
+
+        writes.start();
+        assertEquals(JournaledWriteStatus.APPLIED, awaitApplied(pending).status());
+        assertTrue(claimRepository.findAll().stream()
+                .noneMatch(c -> c.getDescription().equals("Applied before the crash")));
+    }
+
+    private JournaledWriteResponse awaitApplied(UUID handle) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            JournaledWriteResponse res = writes.status(handle);
+            if (res.status() != JournaledWriteStatus.PENDING) return res;
+            Thread.sleep(25);
+        }
+        return fail("write " + handle + " was not applied");
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.carins.service;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.web.dto.CreateClaimRequest;
+import com.example.carins.web.dto.OwnerPortfolioPage;
+import com.example.carins.web.dto.PolicyResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:owner-portfolio;DB_CLOSE_DELAY=-1")
+class OwnerPortfolioServiceTests {
+
+    @Autowired
+    CarService service;
+
+    @Autowired
+    OwnerPortfolioService portfolio;
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Test
+    void ownerPortfolio_pagesCars_withActivePoliciesAndClaimTotals() {
+        Owner fleet = ownerRepository.save(new Owner("Fleet SRL", "fleet@example.com"));
+        Car a = carRepository.save(new Car("FLEET00001", "Dacia", "Duster", 2022, fleet));
+        Car b = carRepository.save(new Car("FLEET00002", "Dacia", "Duster", 2022, fleet));
+        Car c = carRepository.save(new Car("FLEET00003", "Ford", "Transit", 2020, fleet));
+        service.createPolicy(a.getId(), LocalDate.parse("2025-01-01"), LocalDate.parse("2025-12-31"), "Allianz");
+        service.createPolicy(a.getId(), LocalDate.parse("2024-01-01"), LocalDate.parse("2024-12-31"), "Allianz");
+        service.registerClaim(b.getId(), new CreateClaimRequest(LocalDate.parse("2025-03-01"), "Mirror", new BigDecimal("120.00")));
+        service.registerClaim(b.getId(), new CreateClaimRequest(LocalDate.parse("2025-05-01"), "Door", new BigDecimal("880.00")));
+
+        OwnerPortfolioPage first = portfolio.portfolio(fleet.getId(), LocalDate.parse("2025-06-01"), null, 2);
+        assertEquals(List.of(a.getId(), b.getId()), first.cars().stream().map(car -> car.id()).toList());
+        assertTrue(first.hasMore());
+        assertEquals(List.of(LocalDate.parse("2025-01-01")),
+                first.cars().get(0).activePolicies().stream().map(PolicyResponse::startDate).toList());
+        assertEquals(0, first.cars().get(0).claims().count());
+        assertEquals(2, first.cars().get(1).claims().count());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(first.cars().get(1).claims().totalAmount()));
+        assertEquals(LocalDate.parse("2025-05-01"), first.cars().get(1).claims().lastClaimDate());
+
+        OwnerPortfolioPage second = portfolio.portfolio(fleet.getId(), LocalDate.parse("2025-06-01"), first.nextAfter(), 2);
+        assertEquals(List.of(c.getId()), second.cars().stream().map(car -> car.id()).toList());
+        assertFalse(second.hasMore());
+        assertTrue(second.cars().get(0).activePolicies().isEmpty());
+    }
+}
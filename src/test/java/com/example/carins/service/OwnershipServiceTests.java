@@ -0,0 +1,73 @@
+package com.example.carins.service;
+
+import com.example.carins.constants.HistoryEventType;
+import com.example.carins.exception.InvalidDateException;
+import com.example.carins.exception.OwnershipTransferException;
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.web.dto.HistoryEventDto;
+import com.example.carins.web.dto.OwnershipPeriodDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ownership;DB_CLOSE_DELAY=-1")
+class OwnershipServiceTests {
+
+    @Autowired
+    CarService service;
+
+    @Autowired
+    OwnershipService ownership;
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Test
+    void ownerTransfers_answerAsOfLookups_andShowInHistory() {
+        Owner first = ownerRepository.save(new Owner("First Owner", "first@example.com"));
+        Owner second = ownerRepository.save(new Owner("Second Owner", "second@example.com"));
+        Owner third = ownerRepository.save(new Owner("Third Owner", "third@example.com"));
+        // saved behind the service's back: no period yet, owned by its current owner until the first transfer
+        Car car = carRepository.save(new Car("OWNER00001", "Skoda", "Octavia", 2019, first));
+        assertEquals(first.getId(), ownership.ownerOn(car.getId(), LocalDate.parse("2020-01-01")).ownerId());
+
+        OwnershipPeriodDto sold = ownership.transfer(car.getId(), second.getId(), LocalDate.parse("2024-03-01"));
+        ownership.transfer(car.getId(), third.getId(), LocalDate.parse("2025-01-15"));
+
+        assertEquals(first.getId(), ownership.ownerOn(car.getId(), LocalDate.parse("2024-02-29")).ownerId());
+        assertEquals(second.getId(), ownership.ownerOn(car.getId(), LocalDate.parse("2024-03-01")).ownerId());
+        assertEquals(second.getId(), ownership.ownerOn(car.getId(), LocalDate.parse("2025-01-14")).ownerId());
+        assertEquals(third.getId(), ownership.ownerOn(car.getId(), LocalDate.parse("2025-01-15")).ownerId());
+        assertEquals(List.of(car.getId()), ownership.carsOwnedOn(second.getId(), LocalDate.parse("2024-06-01")).carIds());
+        assertEquals(List.of(), ownership.carsOwnedOn(second.getId(), LocalDate.parse("2025-06-01")).carIds());
+        assertEquals(third.getId(), carRepository.findOwnerIdById(car.getId()).orElseThrow());
+        assertEquals(List.of(LocalDate.parse("2024-02-29"), LocalDate.parse("2025-01-14")),
+                ownership.periods(car.getId()).stream().map(OwnershipPeriodDto::endDate).limit(2).toList());
+
+        List<HistoryEventDto> transfers = service.getHistory(car.getId(), null, null).stream()
+                .filter(e -> e.type() == HistoryEventType.OWNERSHIP_TRANSFERRED)
+                .toList();
+        assertEquals(List.of(LocalDate.parse("2024-03-01"), LocalDate.parse("2025-01-15")),
+                transfers.stream().map(HistoryEventDto::date).toList());
+        assertEquals(sold.id(), transfers.get(0).refId());
+        assertTrue(transfers.get(0).description().startsWith("Ownership transferred from First Owner"));
+
+        assertThrows(OwnershipTransferException.class,
+                () -> ownership.transfer(car.getId(), third.getId(), LocalDate.parse("2025-02-01")));
+        assertThrows(OwnershipTransferException.class,
+                () -> ownership.transfer(car.getId(), first.getId(), LocalDate.parse("2025-01-15")));
+        assertThrows(InvalidDateException.class,
+                () -> ownership.transfer(car.getId(), first.getId(), LocalDate.now().plusDays(1)));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.carins.service;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.web.dto.PolicyResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:policy-expiry;DB_CLOSE_DELAY=-1")
+class PolicyExpiryTimelineTests {
+
+    @Autowired
+    CarService service;
+
+    @Autowired
+    PolicyExpiryTimeline expiries;
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Autowired
+    InsurancePolicyRepository policyRepository;
+
+    @Test
+    void expiryTimeline_logsOnEndDate_andFollowsUpdates() {
+        Owner owner = ownerRepository.save(new Owner("Expiry Owner", "expiry@example.com"));
+        Car first = carRepository.save(new Car("EXPIRY0001", "Seat", "Ibiza", 2019, owner));
+        Car second = carRepository.save(new Car("EXPIRY0002", "Seat", "Leon", 2021, owner));
+        PolicyResponse moved = service.createPolicy(first.getId(), LocalDate.parse("2040-01-01"), LocalDate.parse("2040-02-01"), "Allianz");
+        PolicyResponse fixed = service.createPolicy(second.getId(), LocalDate.parse("2040-01-01"), LocalDate.parse("2040-02-01"), "Allianz");
+        service.updatePolicy(moved.id(), LocalDate.parse("2040-01-01"), LocalDate.parse("2040-03-01"), "Allianz");
+
+        expiries.tick(LocalDate.parse("2040-01-31"));
+        assertFalse(policyRepository.findById(fixed.id()).orElseThrow().isExpiryLogged());
+
+        expiries.tick(LocalDate.parse("2040-02-01"));
+        assertTrue(policyRepository.findById(fixed.id()).orElseThrow().isExpiryLogged());
+        assertFalse(policyRepository.findById(moved.id()).orElseThrow().isExpiryLogged());
+
+        expiries.tick(LocalDate.parse("2040-03-01"));
+        assertTrue(policyRepository.findById(moved.id()).orElseThrow().isExpiryLogged());
+        assertEquals(0, expiries.reconcile(LocalDate.parse("2040-03-01")));
+    }
+}
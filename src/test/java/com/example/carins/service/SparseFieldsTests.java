@@ -0,0 +1,71 @@
+package com.example.carins.service;
+
+import com.example.carins.exception.InvalidFieldsException;
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.web.dto.CreateClaimRequest;
+import com.example.carins.web.dto.HistoryEventDto;
+import com.example.carins.web.dto.PolicyResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sparse-fields;DB_CLOSE_DELAY=-1")
+class SparseFieldsTests {
+
+    @Autowired
+    CarService service;
+
+    @Autowired
+    PolicyService policies;
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Test
+    void sparseFields_returnOnlyRequestedFields_inResourceOrder() {
+        Owner owner = ownerRepository.save(new Owner("Sparse Owner", "sparse@example.com"));
+        Car car = carRepository.save(new Car("SPARSE0001", "Fiat", "Panda", 2016, owner));
+        PolicyResponse created = service.createPolicy(car.getId(), LocalDate.parse("2025-01-01"),
+                LocalDate.parse("2025-12-31"), "Allianz");
+        service.registerClaim(car.getId(), new CreateClaimRequest(LocalDate.parse("2025-04-01"), "Bumper",
+                new BigDecimal("250.00")));
+
+        List<Map<String, Object>> cars = service.listCars(FieldSet.parse("vin, id", CarService.CAR_FIELDS));
+        assertEquals(carRepository.count(), cars.size());
+        Map<String, Object> own = cars.stream().filter(c -> car.getId().equals(c.get("id"))).findFirst().orElseThrow();
+        assertEquals(List.of("id", "vin"), List.copyOf(own.keySet()));
+        assertEquals("SPARSE0001", own.get("vin"));
+
+        Map<String, Object> withOwner = service.listCars(FieldSet.parse("ownerName,id", CarService.CAR_FIELDS)).stream()
+                .filter(c -> car.getId().equals(c.get("id"))).findFirst().orElseThrow();
+        assertEquals(List.of("id", "ownerName"), List.copyOf(withOwner.keySet()));
+        assertEquals("Sparse Owner", withOwner.get("ownerName"));
+
+        Map<String, Object> policy = policies.listAll(FieldSet.parse("endDate,carId", PolicyService.POLICY_FIELDS)).stream()
+                .filter(p -> created.id().equals(p.get("id"))).findFirst().orElseThrow();
+        assertEquals(List.of("id", "carId", "endDate"), List.copyOf(policy.keySet()));
+        assertEquals(LocalDate.parse("2025-12-31"), policy.get("endDate"));
+
+        List<HistoryEventDto> full = service.getHistory(car.getId(), null, null);
+        List<Map<String, Object>> sparse = service.getHistory(car.getId(), null, null,
+                FieldSet.parse("type,date", CarTimelineService.HISTORY_FIELDS));
+        assertEquals(3, full.size());
+        assertEquals(full.stream().map(e -> Map.<String, Object>of("date", e.date(), "type", e.type())).toList(), sparse);
+
+        assertThrows(InvalidFieldsException.class, () -> FieldSet.parse("id,owner", CarService.CAR_FIELDS));
+        assertThrows(InvalidFieldsException.class, () -> FieldSet.parse(" , ", PolicyService.POLICY_FIELDS));
+    }
+}
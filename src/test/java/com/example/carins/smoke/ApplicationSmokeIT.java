@@ -0,0 +1,175 @@
+package com.example.carins.smoke;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DynamicContainer;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Black-box smoke suite against the packaged application, run by failsafe in the {@code native} profile
+ * ({@code mvn -Pnative verify}). Each available build, the native executable ({@code carins.smoke.native})
+ * and the JVM jar ({@code carins.smoke.jar}), is started with the default profile (in-memory H2 seeded
+ * from {@code import.sql}), exercised over HTTP, and compared on startup time and resident memory.
+ */
+class ApplicationSmokeIT {
+
+    private static final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private static final List<String> report = new ArrayList<>();
+
+    private record Target(String name, List<String> command) {}
+
+    @TestFactory
+    Stream<DynamicNode> smoke() {
+        List<Target> targets = new ArrayList<>();
+        String nativeBinary = System.getProperty("carins.smoke.native");
+        if (nativeBinary != null && Files.isExecutable(Path.of(nativeBinary))) {
+            targets.add(new Target("native", List.of(nativeBinary)));
+        }
+        String jar = System.getProperty("carins.smoke.jar", "target/car-insurance-0.0.1-SNAPSHOT.jar");
+        if (Files.exists(Path.of(jar))) {
+            String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+            targets.add(new Target("jvm", List.of(java, "-jar", jar)));
+        }
+        Assumptions.assumeFalse(targets.isEmpty(), "nothing to smoke test, package the application first");
+        return targets.stream().map(ApplicationSmokeIT::suite);
+    }
+
+    @AfterAll
+    static void printReport() {
+        if (report.isEmpty()) return;
+        System.out.printf("%-8s %12s %12s %14s%n", "build", "started ms", "RSS MB idle", "RSS MB loaded");
+        report.forEach(System.out::println);
+    }
+
+    private static DynamicContainer suite(Target target) {
+        Running app = new Running(target);
+        return DynamicContainer.dynamicContainer(target.name(), Stream.of(
+                DynamicTest.dynamicTest("starts", app::start),
+                DynamicTest.dynamicTest("lists seeded cars", () -> {
+                    HttpResponse<String> res = app.get("/api/cars");
+                    assertEquals(200, res.statusCode());
+                    assertTrue(res.body().contains("VIN12345"));
+                }),
+                DynamicTest.dynamicTest("checks insurance validity", () -> {
+                    assertTrue(app.get("/api/cars/1/insurance-valid?date=2025-06-01").body().contains("\"valid\":true"));
+                    assertEquals(400, app.get("/api/cars/1/insurance-valid?date=2025-13-01").statusCode());
+                    assertEquals(404, app.get("/api/cars/999/insurance-valid?date=2025-06-01").statusCode());
+                }),
+                DynamicTest.dynamicTest("registers a claim and shows it in history", () -> {
+                    HttpResponse<String> created = app.post("/api/cars/2/claims",
+                            "{\"claimDate\":\"2025-08-01\",\"description\":\"Smoke\",\"amount\":120.50}");
+                    assertEquals(201, created.statusCode());
+                    assertTrue(app.get("/api/cars/2/history").body().contains("Smoke"));
+                }),
+                DynamicTest.dynamicTest("serves the owner portfolio", () -> {
+                    HttpResponse<String> res = app.get("/api/owners/1/portfolio?date=2025-06-01");
+                    assertEquals(200, res.statusCode());
+                    assertTrue(res.body().contains("Groupama"));
+                }),
+                DynamicTest.dynamicTest("speaks CBOR", () -> {
+                    HttpResponse<byte[]> res = client.send(HttpRequest.newBuilder(app.uri("/api/cars"))
+                            .header("Accept", "application/cbor").build(), HttpResponse.BodyHandlers.ofByteArray());
+                    assertEquals(200, res.statusCode());
+                    assertEquals("application/cbor", res.headers().firstValue("Content-Type").orElse(""));
+                }),
+                DynamicTest.dynamicTest("stops", app::stop)));
+    }
+
+    private static final class Running {
+        private final Target target;
+        private Process process;
+        private int port;
+        private long startedMs;
+        private long idleRssKb;
+
+        Running(Target target) {
+            this.target = target;
+        }
+
+        void start() throws Exception {
+            try (ServerSocket s = new ServerSocket(0)) {
+                port = s.getLocalPort();
+            }
+            List<String> cmd = new ArrayList<>(target.command());
+            cmd.add("--server.port=" + port);
+            long launch = System.nanoTime();
+            process = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+
+            CompletableFuture<Long> started = new CompletableFuture<>();
+            Thread reader = new Thread(() -> {
+                try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                    String line;
+                    while ((line = out.readLine()) != null) {
+                        if (!started.isDone() && line.contains("Started CarInsuranceApplication")) {
+                            started.complete((System.nanoTime() - launch) / 1_000_000);
+                        }
+                    }
+                    started.completeExceptionally(new IllegalStateException(target.name() + " exited before starting"));
+                } catch (IOException e) {
+                    started.completeExceptionally(e);
+                }
+            }, "smoke-" + target.name());
+            reader.setDaemon(true);
+            reader.start();
+
+            startedMs = started.get(120, TimeUnit.SECONDS);
+            idleRssKb = rssKb();
+        }
+
+        void stop() throws Exception {
+            long loadedRssKb = rssKb();
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            report.add(String.format("%-8s %12d %12d %14d", target.name(), startedMs, idleRssKb / 1024, loadedRssKb / 1024));
+        }
+
+        URI uri(String path) {
+            return URI.create("http://localhost:" + port + path);
+        }
+
+        HttpResponse<String> get(String path) throws Exception {
+            return client.send(HttpRequest.newBuilder(uri(path)).build(), HttpResponse.BodyHandlers.ofString());
+        }
+
+        HttpResponse<String> post(String path, String json) throws Exception {
+            return client.send(HttpRequest.newBuilder(uri(path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json)).build(), HttpResponse.BodyHandlers.ofString());
+        }
+
+        // VmRSS from procfs, 0 where there is none
+        private long rssKb() throws IOException {
+            Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+            if (!Files.exists(status)) return 0;
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -1,14 +1,25 @@
 package com.example.carins.web;
 
+import com.example.carins.constants.IdempotentOperation;
+import com.example.carins.constants.JournaledOperation;
+import com.example.carins.constants.JournaledWriteStatus;
+import com.example.carins.exception.ApiErrorRecorder;
 import com.example.carins.exception.GlobalExceptionHandler;
+import com.example.carins.datasource.ReadYourWritesTracker;
+import com.example.carins.service.CarReadCoalescer;
 import com.example.carins.service.CarService;
+import com.example.carins.service.IdempotencyService;
+import com.example.carins.service.JournaledWriteService;
+import com.example.carins.service.OwnershipService;
 import com.example.carins.web.dto.ClaimDto;
 import com.example.carins.web.dto.CreateClaimRequest;
+import com.example.carins.web.dto.JournaledWriteResponse;
 import com.example.carins.web.dto.PolicyResponse;
 import com.example.carins.web.mapper.CarMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -18,6 +29,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 
 import static org.mockito.ArgumentMatchers.eq;
@@ -31,13 +43,21 @@ class CarControllerTests {
 
     private MockMvc mvc;
     private CarService service;
+    private IdempotencyService idempotency;
+    private JournaledWriteService journaled;
 
     @BeforeEach
     void setUp() {
         service = mock(CarService.class);
+        idempotency = mock(IdempotencyService.class);
+        journaled = mock(JournaledWriteService.class);
         CarMapper carMapper = mock(CarMapper.class);
 
-        CarController controller = new CarController(service, carMapper);
+        CarReadCoalescer reads = new CarReadCoalescer(service, new ReadYourWritesTracker(Duration.ZERO),
+                new SimpleMeterRegistry(), true, Duration.ofSeconds(5));
+
+        CarController controller = new CarController(service, carMapper, reads, journaled,
+                mock(OwnershipService.class), idempotency);
 
         ObjectMapper om = new ObjectMapper()
                 .registerModule(new JavaTimeModule())
@@ -45,7 +65,8 @@ class CarControllerTests {
 
         mvc = MockMvcBuilders.standaloneSetup(controller)
                 .setMessageConverters(new MappingJackson2HttpMessageConverter(om))
-                .setControllerAdvice(new GlobalExceptionHandler()) // so we get your ApiError JSON
+                .setControllerAdvice(new GlobalExceptionHandler(
+                        new ApiErrorRecorder(new SimpleMeterRegistry(), Duration.ofSeconds(10), 5, false))) // so we get your ApiError JSON
                 .build();
     }
 
@@ -180,6 +201,54 @@ class CarControllerTests {
         verifyNoMoreInteractions(service);
     }
 
+    @Test
+    void createClaim_withIdempotencyKey_replay_returns201_markedReplayed() throws Exception {
+        long carId = 1L;
+        CreateClaimRequest request = new CreateClaimRequest(LocalDate.of(2025, 9, 1), "Minor accident", new BigDecimal("1200.50"));
+        ClaimDto first = new ClaimDto(99L, carId, request.claimDate(), request.description(), request.amount());
+
+        when(idempotency.execute(eq("retry-1"), eq(IdempotentOperation.REGISTER_CLAIM), eq(carId), eq(request),
+                eq(ClaimDto.class), any())).thenReturn(new IdempotencyService.Outcome<>(first, true));
+
+        mvc.perform(post("/api/cars/{carId}/claims", carId)
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                          {"claimDate": "2025-09-01", "description": "Minor accident", "amount": 1200.50}
+                        """))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(header().string("Location", "http://localhost/api/cars/1/claims/99"))
+                .andExpect(jsonPath("$.id").value(99));
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void createClaim_withIdempotencyKey_whileJournaled_replaysTheFirstHandle() throws Exception {
+        long carId = 1L;
+        CreateClaimRequest request = new CreateClaimRequest(LocalDate.of(2025, 9, 1), "Minor accident", new BigDecimal("1200.50"));
+        JournaledWriteResponse first = new JournaledWriteResponse("7d3c1f9e-0000-4000-8000-000000000001",
+                JournaledOperation.REGISTER_CLAIM, JournaledWriteStatus.PENDING, carId, null, null);
+        when(journaled.isEnabled()).thenReturn(true);
+        when(idempotency.execute(eq("retry-1"), eq(IdempotentOperation.REGISTER_CLAIM), eq(carId), eq(request),
+                eq(JournaledWriteResponse.class), any())).thenReturn(new IdempotencyService.Outcome<>(first, true));
+
+        mvc.perform(post("/api/cars/{carId}/claims", carId)
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                          {"claimDate": "2025-09-01", "description": "Minor accident", "amount": 1200.50}
+                        """))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(header().string("Location", "/api/writes/" + first.handle()))
+                .andExpect(jsonPath("$.handle").value(first.handle()));
+
+        verify(journaled, never()).registerClaim(anyLong(), any());
+        verifyNoInteractions(service);
+    }
+
     @Test
     void insuranceValid_returnsTrueForActivePolicy() throws Exception {
         // carId=1 has Allianz policy valid until 2024-12-31 (see import.sql)
@@ -195,7 +264,7 @@ class CarControllerTests {
     void history_nonExistingCar_returns404() throws Exception {
         long missingId = 21L;
 
-        when(service.getHistory(missingId))
+        when(service.getHistory(missingId, null, null))
                 .thenThrow(new com.example.carins.exception.ResourceNotFoundException("Car " + missingId + " not found"));
 
         mvc.perform(get("/api/cars/{carId}/history", missingId))
@@ -203,7 +272,7 @@ class CarControllerTests {
                 .andExpect(jsonPath("$.message").value("Request failed"))
                 .andExpect(jsonPath("$.path").value("/api/cars/" + missingId + "/history"));
 
-        verify(service).getHistory(missingId);
+        verify(service).getHistory(missingId, null, null);
         verifyNoMoreInteractions(service);
     }
 
@@ -0,0 +1,55 @@
+package com.example.carins.web.admission;
+
+import com.example.carins.web.admission.AdmissionControlFilter.AdmissionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FilterChain backend = (req, res) -> {};
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(
+            new AdmissionProperties(1, 2, 10, 16, 4, 64, Duration.ofSeconds(1), Set.of("issued")),
+            Jackson2ObjectMapperBuilder.json().build(), registry);
+
+    @Test
+    void unknownApiKeys_shareTheBucketOfTheirAddress() throws Exception {
+        assertEquals(200, call("10.0.0.1", "made-up-1"));
+        assertEquals(200, call("10.0.0.1", "made-up-2"));
+        assertEquals(429, call("10.0.0.1", "made-up-3"));
+
+        assertEquals(200, call("10.0.0.1", "issued"));
+    }
+
+    @Test
+    void pastMaxClients_idleClientsAreEvicted_andBusyOnesKeepTheirBucket() throws Exception {
+        while (call("10.0.0.1", null) != 429) {
+            // drain the burst
+        }
+        for (int i = 0; i < 30; i++) {
+            assertEquals(200, call("10.0.1." + i, null), "new client " + i);
+        }
+        assertTrue(registry.get("carins.admission.clients").gauge().value() <= 10);
+        assertEquals(429, call("10.0.0.1", null));
+    }
+
+    private int call(String address, String apiKey) throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/cars");
+        req.setRemoteAddr(address);
+        if (apiKey != null) {
+            req.addHeader(AdmissionControlFilter.API_KEY_HEADER, apiKey);
+        }
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        filter.doFilter(req, res, backend);
+        return res.getStatus();
+    }
+}
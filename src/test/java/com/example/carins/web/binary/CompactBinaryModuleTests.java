@@ -0,0 +1,43 @@
+package com.example.carins.web.binary;
+
+import com.example.carins.web.dto.ClaimDto;
+import com.example.carins.web.dto.PolicyResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactBinaryModuleTests {
+
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor()
+            .modulesToInstall(new CompactBinaryModule())
+            .build();
+
+    @Test
+    void datesAreEpochDays_amountsAreScaledLongs() throws Exception {
+        ClaimDto claim = new ClaimDto(1L, 2L, LocalDate.of(2025, 2, 15), "Rear bumper scratch", new BigDecimal("350.00"));
+
+        JsonNode raw = new CBORMapper().readTree(cbor.writeValueAsBytes(claim));
+
+        assertTrue(raw.get("claimDate").isIntegralNumber());
+        assertEquals(LocalDate.of(2025, 2, 15).toEpochDay(), raw.get("claimDate").longValue());
+        assertTrue(raw.get("amount").isIntegralNumber());
+        assertEquals(35000L, raw.get("amount").longValue());
+    }
+
+    @Test
+    void roundTrip_preservesValues() throws Exception {
+        PolicyResponse policy = new PolicyResponse(10L, 1L, "Allianz", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31));
+        ClaimDto claim = new ClaimDto(1L, 2L, LocalDate.of(2025, 2, 15), "Windshield", new BigDecimal("800.5"));
+
+        assertEquals(policy, cbor.readValue(cbor.writeValueAsBytes(policy), PolicyResponse.class));
+        assertEquals(new BigDecimal("800.50"), cbor.readValue(cbor.writeValueAsBytes(claim), ClaimDto.class).amount());
+    }
+}
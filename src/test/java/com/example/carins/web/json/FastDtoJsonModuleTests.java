@@ -0,0 +1,39 @@
+package com.example.carins.web.json;
+
+import com.example.carins.constants.HistoryEventType;
+import com.example.carins.web.dto.CarDto;
+import com.example.carins.web.dto.HistoryEventDto;
+import com.example.carins.web.dto.InsuranceValidityResponse;
+import com.example.carins.web.dto.PolicyResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FastDtoJsonModuleTests {
+
+    // same defaults Spring Boot applies, with and without the hand-written serializers
+    private final ObjectMapper reflective = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper fast = Jackson2ObjectMapperBuilder.json().modulesToInstall(new FastDtoJsonModule()).build();
+
+    @Test
+    void output_matchesReflectiveSerialization() throws Exception {
+        List<Object> samples = List.of(
+                new CarDto(1L, "VIN12345", "Dacia", "Logan", 2018, 1L, "Ana Pop", "ana.pop@example.com"),
+                new CarDto(2L, "VIN67890", null, null, 0, null, null, null),
+                new PolicyResponse(10L, 1L, "Allianz", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)),
+                new PolicyResponse(11L, null, null, LocalDate.of(999, 3, 9), null),
+                new HistoryEventDto(LocalDate.of(2025, 2, 15), HistoryEventType.CLAIM_REGISTERED,
+                        "Claim #1 on 2025-02-15 for amount 350.00 — \"Rear\" bumper", 1L),
+                new HistoryEventDto(LocalDate.of(2024, 12, 31), HistoryEventType.POLICY_ENDED, null, null),
+                new InsuranceValidityResponse(1L, "2025-06-01", true)
+        );
+        for (Object dto : samples) {
+            assertEquals(reflective.writeValueAsString(dto), fast.writeValueAsString(dto), dto.toString());
+        }
+    }
+}